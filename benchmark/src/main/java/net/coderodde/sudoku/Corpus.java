@@ -0,0 +1,123 @@
+package net.coderodde.sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * This class loads the fixed puzzle corpora the benchmarks run on. A corpus is
+ * a resource file under {@code /corpus} holding one puzzle per line as the
+ * space-separated cell values in row-major order, zero for an empty cell.
+ * The corpora were made once with {@link SudokuGenerator} and are checked in,
+ * so that the numbers stay comparable across changes to the generator.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class Corpus {
+
+    private Corpus() {}
+
+    /**
+     * Returns the lines of the given corpus.
+     *
+     * @param name the name of the corpus, for example {@code "hard-9x9"}.
+     * @return the puzzle lines.
+     */
+    static List<String> lines(String name) {
+        String path = "/corpus/" + name + ".txt";
+        InputStream in = Corpus.class.getResourceAsStream(path);
+
+        if (in == null) {
+            throw new IllegalArgumentException(
+                    "No corpus named \"" + name + "\".");
+        }
+
+        List<String> lines = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException(
+                    "Could not read the corpus \"" + name + "\".", ex);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Returns the puzzles of the given corpus.
+     *
+     * @param name the name of the corpus.
+     * @return the puzzles.
+     */
+    static Sudoku[] puzzles(String name) {
+        List<String> lines = lines(name);
+        Sudoku[] puzzles = new Sudoku[lines.size()];
+
+        for (int i = 0; i < puzzles.length; ++i) {
+            puzzles[i] = parse(lines.get(i));
+        }
+
+        return puzzles;
+    }
+
+    /**
+     * Returns the solutions of the puzzles of the given corpus.
+     *
+     * @param name the name of the corpus.
+     * @return the solutions.
+     */
+    static Sudoku[] solutions(String name) {
+        Sudoku[] puzzles = puzzles(name);
+
+        if (puzzles.length == 0) {
+            return puzzles;
+        }
+
+        SudokuSolver solver = new SudokuSolver(puzzles[0].getDimension());
+        solver.setSearchStrategy(
+                SudokuSolver.SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setPropagationLevel(SudokuSolver.PropagationLevel.FULL);
+
+        for (Sudoku puzzle : puzzles) {
+            if (!solver.solve(puzzle, puzzle)) {
+                throw new IllegalStateException(
+                        "A puzzle of the corpus \"" + name + "\" has no " +
+                        "solution.");
+            }
+        }
+
+        return puzzles;
+    }
+
+    /**
+     * Parses a single corpus line. The dimension is the square root of the
+     * number of values on the line.
+     *
+     * @param line the line to parse.
+     * @return the puzzle.
+     */
+    static Sudoku parse(String line) {
+        int values = line.trim().split("\\s+").length;
+        Sudoku sudoku = new Sudoku((int) Math.round(Math.sqrt(values)));
+
+        try (Scanner scanner = new Scanner(line)) {
+            App.scanDigits(scanner, sudoku);
+        }
+
+        return sudoku;
+    }
+}
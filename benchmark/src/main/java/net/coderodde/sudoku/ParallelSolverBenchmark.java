@@ -0,0 +1,88 @@
+package net.coderodde.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ParallelSudokuSolver#solve(Sudoku, Sudoku)} against
+ * {@link SudokuSolver#solve(Sudoku, Sudoku)} on the corpora hard enough for
+ * the parallel search to pay off. Both search with the minimum remaining
+ * values strategy the parallel workers use. Each invocation solves the next
+ * puzzle of the corpus in turn, so the score is the average time per puzzle
+ * over the corpus. The sequential score does not depend on {@code threads}
+ * and serves as the baseline for each thread count.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParallelSolverBenchmark {
+
+    @Param({"hard-9x9", "medium-16x16"})
+    public String corpus;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Sudoku[] puzzles;
+    private Sudoku[] solutions;
+    private SudokuSolver sequentialSolver;
+    private ParallelSudokuSolver parallelSolver;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        puzzles = Corpus.puzzles(corpus);
+        solutions = new Sudoku[puzzles.length];
+
+        for (int i = 0; i < puzzles.length; ++i) {
+            solutions[i] = new Sudoku(puzzles[i].getDimension());
+        }
+
+        int dimension = puzzles[0].getDimension();
+        sequentialSolver = new SudokuSolver(dimension);
+        sequentialSolver.setSearchStrategy(
+                SudokuSolver.SearchStrategy.MINIMUM_REMAINING_VALUES);
+        parallelSolver = new ParallelSudokuSolver(dimension, threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        parallelSolver.close();
+    }
+
+    @Benchmark
+    public boolean sequential() {
+        int i = nextPuzzle();
+        return sequentialSolver.solve(puzzles[i], solutions[i]);
+    }
+
+    @Benchmark
+    public boolean parallel() {
+        int i = nextPuzzle();
+        return parallelSolver.solve(puzzles[i], solutions[i]);
+    }
+
+    private int nextPuzzle() {
+        int i = next;
+        next = i + 1 == puzzles.length ? 0 : i + 1;
+        return i;
+    }
+}
@@ -0,0 +1,61 @@
+package net.coderodde.sudoku;
+
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing a puzzle from the whitespace-separated text format the way
+ * the command line utility reads its input, including the creation of the
+ * {@link Scanner}, and from the one-line {@link SudokuLineFormat}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParsingBenchmark {
+
+    @Param({"easy-9x9", "medium-16x16", "easy-25x25"})
+    public String corpus;
+
+    private String text;
+    private byte[] line;
+    private Sudoku sudoku;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        text = Corpus.lines(corpus).get(0);
+        Sudoku puzzle = Corpus.parse(text);
+        line = new byte[puzzle.getCellCount()];
+        SudokuLineFormat.STANDARD.encode(puzzle, line, 0);
+        sudoku = new Sudoku(puzzle.getDimension());
+    }
+
+    @Benchmark
+    public int scanDigits() {
+        try (Scanner scanner = new Scanner(text)) {
+            return App.scanDigits(scanner, sudoku);
+        }
+    }
+
+    @Benchmark
+    public int decodeLine() {
+        return SudokuLineFormat.STANDARD.decode(line, 0, sudoku);
+    }
+}
@@ -0,0 +1,76 @@
+package net.coderodde.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SudokuSolver#solve(Sudoku)} and
+ * {@link SudokuSolver#solve(Sudoku, Sudoku)} on the fixed corpora. Each
+ * invocation solves the next puzzle of the corpus in turn, so the score is
+ * the average time per puzzle over the corpus.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SolverBenchmark {
+
+    @Param({"easy-9x9", "hard-9x9", "medium-16x16", "easy-25x25"})
+    public String corpus;
+
+    @Param({"SINGLES", "FULL"})
+    public SudokuSolver.PropagationLevel propagationLevel;
+
+    private Sudoku[] puzzles;
+    private Sudoku[] solutions;
+    private SudokuSolver solver;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        puzzles = Corpus.puzzles(corpus);
+        solutions = new Sudoku[puzzles.length];
+
+        for (int i = 0; i < puzzles.length; ++i) {
+            solutions[i] = new Sudoku(puzzles[i].getDimension());
+        }
+
+        solver = new SudokuSolver(puzzles[0].getDimension());
+        solver.setSearchStrategy(
+                SudokuSolver.SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setPropagationLevel(propagationLevel);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        int i = nextPuzzle();
+        return solver.solve(puzzles[i], solutions[i]);
+    }
+
+    @Benchmark
+    public Sudoku solveAllocating() {
+        return solver.solve(puzzles[nextPuzzle()]);
+    }
+
+    private int nextPuzzle() {
+        int i = next;
+        next = i + 1 == puzzles.length ? 0 : i + 1;
+        return i;
+    }
+}
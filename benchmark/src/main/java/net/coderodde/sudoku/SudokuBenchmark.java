@@ -0,0 +1,66 @@
+package net.coderodde.sudoku;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Sudoku#isValid()} and a reused {@link SudokuValidator} on
+ * solved grids, and {@link Sudoku#toString()} on puzzles, one board per
+ * dimension.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SudokuBenchmark {
+
+    @Param({"easy-9x9", "medium-16x16", "easy-25x25"})
+    public String corpus;
+
+    private Sudoku puzzle;
+    private Sudoku solution;
+    private SudokuValidator validator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        puzzle = Corpus.puzzles(corpus)[0];
+        solution = Corpus.solutions(corpus)[0];
+        validator = new SudokuValidator(solution.getDimension());
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return solution.isValid();
+    }
+
+    @Benchmark
+    public boolean isSolution() {
+        return validator.isSolution(puzzle, solution);
+    }
+
+    @Benchmark
+    public int findConflicts() {
+        return validator.findConflicts(solution);
+    }
+
+    @Benchmark
+    public String toStringPuzzle() {
+        return puzzle.toString();
+    }
+}
@@ -1,9 +1,43 @@
 package net.coderodde.sudoku;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Scanner;
 
 /**
- * This class implements a command line utility for solving sudokus.
+ * This class implements a command line utility for solving sudokus. Given a
+ * dimension, it solves the sudoku read from the standard input. The corpus
+ * commands work on files in the {@link SudokuBinaryFormat}:
+ * <pre>
+ *   --convert DIMENSION TEXT_FILE BINARY_FILE
+ *   --solve-binary INPUT_FILE OUTPUT_FILE
+ * </pre>
+ * The first converts a text corpus to the binary format; the second writes
+ * the solutions of a binary corpus to another binary file, with an all-zero
+ * record for each puzzle without a solution. The line commands work on
+ * puzzles in the {@link SudokuLineFormat#STANDARD} one-line format, where
+ * {@code -} stands for the standard input or output:
+ * <pre>
+ *   --solve-lines DIMENSION INPUT_FILE OUTPUT_FILE
+ *   --stream DIMENSION INPUT_FILE OUTPUT_FILE [THREADS]
+ * </pre>
+ * The first solves the puzzles one by one; the second solves them on
+ * {@code THREADS} workers, all processors by default, with bounded memory
+ * however long the input, and reports the throughput and the latency
+ * percentiles on the standard error. Both write the solutions in input
+ * order, with a line of empty cells for each puzzle without a solution.
+ * Finally,
+ * <pre>
+ *   --serve [PORT] [THREADS]
+ * </pre>
+ * runs a {@link SudokuHttpServer} on the loopback interface, port
+ * {@value #DEFAULT_PORT} by default, until the process is stopped.
  * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Feb 25, 2016)
@@ -15,9 +49,15 @@ public class App {
      */
     private static final int DEFAULT_DIMENSION = 9;
 
+    /**
+     * Default port of the HTTP server.
+     */
+    private static final int DEFAULT_PORT = 8080;
+
     private final int dimension;
     private Sudoku inputSudoku;
     private SudokuSolver solver;
+    private SudokuValidator validator;
 
     public App(int dimension) {
         this.dimension = dimension;
@@ -32,30 +72,58 @@ public class App {
 
     private void createSolver() {
         this.solver = new SudokuSolver(dimension);
+        this.validator = new SudokuValidator(dimension);
     }
 
     private void scanDigits() {
+        try (Scanner scanner = new Scanner(System.in)) {
+            scanDigits(scanner, inputSudoku);
+        }
+    }
+
+    /**
+     * Reads the cells of {@code sudoku} in row-major order from the integers
+     * produced by {@code scanner}. Stops at the first token that is not an
+     * integer; the cells not read keep their values. Zero denotes an empty
+     * cell.
+     *
+     * @param scanner the source of the cell values.
+     * @param sudoku  the sudoku to fill.
+     * @return the number of cells read.
+     * @throws IllegalArgumentException if a value is outside
+     *                                  {@code [0, dimension]}.
+     */
+    static int scanDigits(Scanner scanner, Sudoku sudoku) {
+        int dimension = sudoku.getDimension();
         int cellsToScan = dimension * dimension;
         int y = 0;
         int x = 0;
 
-        try (Scanner scanner = new Scanner(System.in)) {
-            while (cellsToScan > 0) {
-                if (!scanner.hasNextInt()) {
-                    break;
-                }
+        while (cellsToScan > 0) {
+            if (!scanner.hasNextInt()) {
+                break;
+            }
 
-                int cellValue = scanner.nextInt();
-                inputSudoku.set(x++, y, cellValue);
+            int cellValue = scanner.nextInt();
 
-                if (x == dimension) {
-                    x = 0;
-                    ++y;
-                }
+            if (cellValue < 0 || cellValue > dimension) {
+                throw new IllegalArgumentException(
+                        "The value " + cellValue + " at row " + (y + 1) +
+                        ", column " + (x + 1) + " is out of range [0, " +
+                        dimension + "].");
+            }
+
+            sudoku.set(x++, y, cellValue);
 
-                --cellsToScan;
+            if (x == dimension) {
+                x = 0;
+                ++y;
             }
+
+            --cellsToScan;
         }
+
+        return dimension * dimension - cellsToScan;
     }
 
     private void solve() {
@@ -63,11 +131,17 @@ public class App {
         System.out.println(inputSudoku);
 
         try {
+            Sudoku solution = new Sudoku(dimension);
             long startTime = System.nanoTime();
-            Sudoku solution = solver.solve(inputSudoku);
+            boolean solved = solver.solve(inputSudoku, solution);
             long endTime = System.nanoTime();
 
-            if (!solution.isValid()) {
+            if (!solved) {
+                throw new IllegalStateException(
+                        "The input sudoku has no solution.");
+            }
+
+            if (!validator.isSolution(inputSudoku, solution)) {
                 throw new IllegalStateException(
                         "ERROR: The computed solution is not valid.");
             }
@@ -83,18 +157,20 @@ public class App {
     }
 
     public static void main(String[] args) {
-        if (args.length > 0) {
+        if (args.length > 0 && args[0].startsWith("--")) {
+            runCommand(args);
+        } else if (args.length > 0) {
             int requestedDimension = getDimension(args);
             App app = new App(requestedDimension);
 
             try {
                 app.createSolver();
+                app.scanDigits();
             } catch (IllegalArgumentException ex) {
                 System.err.println("ERROR: " + ex.getMessage());
                 System.exit(1);
             }
 
-            app.scanDigits();
             app.solve();
         } else {
             javax.swing.SwingUtilities.invokeLater(() -> { 
@@ -103,19 +179,219 @@ public class App {
         }
     }
 
+    private static void runCommand(String[] args) {
+        try {
+            switch (args[0]) {
+                case "--convert":
+                    checkArgumentCount(args, 4);
+                    long count = SudokuBinaryFormat.convertText(
+                            Paths.get(args[2]),
+                            Paths.get(args[3]),
+                            parseDimension(args[1]));
+                    System.out.println("Converted " + count + " puzzles.");
+                    break;
+
+                case "--solve-binary":
+                    checkArgumentCount(args, 3);
+                    solveBinary(Paths.get(args[1]), Paths.get(args[2]));
+                    break;
+
+                case "--solve-lines":
+                    checkArgumentCount(args, 4);
+                    solveLines(parseDimension(args[1]), args[2], args[3]);
+                    break;
+
+                case "--stream":
+                    if (args.length != 5) {
+                        checkArgumentCount(args, 4);
+                    }
+
+                    stream(parseDimension(args[1]),
+                           args[2],
+                           args[3],
+                           args.length == 5 ?
+                                   parseThreadCount(args[4]) :
+                                   Runtime.getRuntime()
+                                          .availableProcessors());
+                    break;
+
+                case "--serve":
+                    if (args.length > 3) {
+                        checkArgumentCount(args, 3);
+                    }
+
+                    serve(args.length > 1 ?
+                                  parsePort(args[1]) :
+                                  DEFAULT_PORT,
+                          args.length > 2 ?
+                                  parseThreadCount(args[2]) :
+                                  Runtime.getRuntime()
+                                         .availableProcessors());
+                    break;
+
+                default:
+                    throw new IllegalArgumentException(
+                            "Unknown option \"" + args[0] + "\".");
+            }
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("ERROR: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void solveBinary(Path inputFile, Path outputFile)
+            throws IOException {
+        try (SudokuBinaryReader reader = new SudokuBinaryReader(inputFile);
+             SudokuBinaryWriter writer =
+                     new SudokuBinaryWriter(outputFile,
+                                            reader.getDimension())) {
+            SudokuBatchSolver solver = SudokuBatchSolver.forCurrentThread();
+            Sudoku input = new Sudoku(reader.getDimension());
+            Sudoku solution = new Sudoku(reader.getDimension());
+            long solved = 0L;
+            long startTime = System.nanoTime();
+
+            while (reader.next(input)) {
+                if (solver.solveOne(input, solution)) {
+                    ++solved;
+                }
+
+                writer.write(solution);
+            }
+
+            long endTime = System.nanoTime();
+            System.out.printf("Solved %d of %d puzzles in %.2f " +
+                              "milliseconds.\n",
+                              solved,
+                              reader.getPuzzleCount(),
+                              (endTime - startTime) / 1e6);
+        }
+    }
+
+    private static void solveLines(int dimension,
+                                   String inputFile,
+                                   String outputFile) throws IOException {
+        try (ReadableByteChannel input = openInput(inputFile);
+             WritableByteChannel output = openOutput(outputFile);
+             SudokuLineReader reader =
+                     new SudokuLineReader(input, SudokuLineFormat.STANDARD);
+             SudokuLineWriter writer =
+                     new SudokuLineWriter(output, SudokuLineFormat.STANDARD)) {
+            SudokuBatchSolver solver = SudokuBatchSolver.forCurrentThread();
+            Sudoku puzzle = new Sudoku(dimension);
+            Sudoku solution = new Sudoku(dimension);
+
+            while (reader.next(puzzle)) {
+                solver.solveOne(puzzle, solution);
+                writer.write(solution);
+            }
+        }
+    }
+
+    private static void stream(int dimension,
+                               String inputFile,
+                               String outputFile,
+                               int threads) throws IOException {
+        SudokuStreamSolver solver = new SudokuStreamSolver(dimension, threads);
+
+        try (ReadableByteChannel input = openInput(inputFile);
+             WritableByteChannel output = openOutput(outputFile);
+             SudokuLineReader reader =
+                     new SudokuLineReader(input, SudokuLineFormat.STANDARD);
+             SudokuLineWriter writer =
+                     new SudokuLineWriter(output, SudokuLineFormat.STANDARD)) {
+            solver.solve(reader, writer);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted.", ex);
+        }
+
+        // The solutions may go to the standard output, so the summary goes
+        // to the standard error.
+        LatencyHistogram latencies = solver.getLatencies();
+        System.err.printf("Solved %d of %d puzzles in %.2f " +
+                          "seconds: %.0f puzzles/s, latency p50 %.1f us, " +
+                          "p99 %.1f us, max %.1f us.\n",
+                          solver.getSolvedCount(),
+                          solver.getPuzzleCount(),
+                          solver.getElapsedNanos() / 1e9,
+                          solver.getPuzzlesPerSecond(),
+                          latencies.getPercentile(50.0) / 1e3,
+                          latencies.getPercentile(99.0) / 1e3,
+                          latencies.getMaximum() / 1e3);
+    }
+
+    private static void serve(int port, int threads) throws IOException {
+        SudokuHttpServer server = new SudokuHttpServer(port, threads);
+        Runtime.getRuntime().addShutdownHook(
+                new Thread(() -> server.stop(1), "sudoku-http-shutdown"));
+        server.start();
+        System.err.println("Serving on http://" +
+                           server.getAddress().getHostString() + ":" +
+                           server.getAddress().getPort() + "/solve with " +
+                           threads + " workers.");
+    }
+
+    private static ReadableByteChannel openInput(String file)
+            throws IOException {
+        return file.equals("-") ?
+               Channels.newChannel(System.in) :
+               FileChannel.open(Paths.get(file), StandardOpenOption.READ);
+    }
+
+    private static WritableByteChannel openOutput(String file)
+            throws IOException {
+        return file.equals("-") ?
+               Channels.newChannel(System.out) :
+               FileChannel.open(Paths.get(file),
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.TRUNCATE_EXISTING,
+                                StandardOpenOption.WRITE);
+    }
+
+    private static void checkArgumentCount(String[] args, int count) {
+        if (args.length != count) {
+            throw new IllegalArgumentException(
+                    "The option " + args[0] + " takes " + (count - 1) +
+                    " arguments.");
+        }
+    }
+
     private static int getDimension(String[] args) {
         int dimension = DEFAULT_DIMENSION;
 
         if (args.length > 0) {
-            try {
-                dimension = Integer.parseInt(args[0]);
-            } catch (NumberFormatException ex) {
-                System.err.println(
-                        "ERROR: \"" + args[0] + "\" is not an integer.");
-                System.exit(1);
-            }
+            dimension = parseDimension(args[0]);
         }
 
         return dimension;
     }
+
+    private static int parseThreadCount(String arg) {
+        try {
+            return Integer.parseInt(arg);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(
+                    "The thread count \"" + arg + "\" is not an integer.");
+        }
+    }
+
+    private static int parsePort(String arg) {
+        try {
+            return Integer.parseInt(arg);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(
+                    "The port \"" + arg + "\" is not an integer.");
+        }
+    }
+
+    private static int parseDimension(String arg) {
+        try {
+            return Integer.parseInt(arg);
+        } catch (NumberFormatException ex) {
+            System.err.println("ERROR: \"" + arg + "\" is not an integer.");
+            System.exit(1);
+            return -1;
+        }
+    }
 }
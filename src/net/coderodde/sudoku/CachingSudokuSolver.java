@@ -0,0 +1,196 @@
+package net.coderodde.sudoku;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * This class puts a {@link SudokuSolutionCache} in front of another engine.
+ * Each input is canonicalized first; if the cache knows its canonical form,
+ * the cached solution is mapped back to the orientation and labelling of the
+ * input, and checked against its givens, without running the engine.
+ * Otherwise the engine solves the input and the solution is cached in the
+ * canonical form. Only definitive results are cached: a solve stopped by the
+ * limits of the engine is not.
+ * <p>
+ * One cache is meant to be shared by the engines of many threads, for
+ * example through the engine factory of a {@link ParallelBatchSolver}:
+ * <pre>
+ *   SudokuSolutionCache cache = new SudokuSolutionCache(100_000);
+ *   ParallelBatchSolver solver = new ParallelBatchSolver(
+ *           8,
+ *           d -> new CachingSudokuSolver(SudokuEngine.forDimension(d),
+ *                                        cache));
+ * </pre>
+ * Counting solutions bypasses the cache. The limits, the cancellation token,
+ * the statistics and the progress are those of the wrapped engine; a cache
+ * hit leaves the last two untouched.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class CachingSudokuSolver implements SudokuEngine {
+
+    private final SudokuEngine engine;
+    private final SudokuSolutionCache cache;
+    private final SudokuCanonicalizer canonicalizer;
+    private final Sudoku canonicalSolution;
+    private final ByteBuffer record;
+    private SolveStatus lastStatus;
+
+    /**
+     * Constructs a caching solver.
+     *
+     * @param engine the engine solving the puzzles missing from the cache.
+     * @param cache  the cache, possibly shared with other engines.
+     */
+    public CachingSudokuSolver(SudokuEngine engine,
+                               SudokuSolutionCache cache) {
+        this.engine = Objects.requireNonNull(engine, "The engine is null.");
+        this.cache = Objects.requireNonNull(cache, "The cache is null.");
+        int dimension = engine.getDimension();
+        this.canonicalizer = new SudokuCanonicalizer(dimension);
+        this.canonicalSolution = new Sudoku(dimension);
+        this.record = ByteBuffer.allocate(
+                SudokuBinaryFormat.getRecordSize(dimension));
+    }
+
+    public SudokuEngine getEngine() {
+        return engine;
+    }
+
+    public SudokuSolutionCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public int getDimension() {
+        return engine.getDimension();
+    }
+
+    @Override
+    public Sudoku solve(Sudoku input) {
+        Sudoku solution = new Sudoku(getDimension());
+        solve(input, solution);
+        return solution;
+    }
+
+    @Override
+    public boolean solve(Sudoku input, Sudoku output) {
+        Objects.requireNonNull(input, "The input sudoku is null.");
+        Objects.requireNonNull(output, "The output sudoku is null.");
+        checkSudokuDimension(input);
+        checkSudokuDimension(output);
+        canonicalizer.canonicalize(input);
+        long hash1 = canonicalizer.getHash1();
+        long hash2 = canonicalizer.getHash2();
+        byte[] cached = cache.get(hash1, hash2);
+
+        if (cached == SudokuSolutionCache.NO_SOLUTION) {
+            cache.recordHit();
+            lastStatus = SolveStatus.NO_SOLUTION;
+            output.clear();
+            return false;
+        }
+
+        if (cached != null) {
+            SudokuBinaryFormat.unpack(ByteBuffer.wrap(cached),
+                                      0,
+                                      canonicalSolution);
+
+            // Check the givens, guarding against hash collisions, before
+            // overwriting the output, which may be the input itself.
+            if (canonicalizer.matchesGivens(canonicalSolution)) {
+                cache.recordHit();
+                canonicalizer.fromCanonical(canonicalSolution, output);
+                lastStatus = SolveStatus.SOLVED;
+                return true;
+            }
+        }
+
+        cache.recordMiss();
+        boolean solved = engine.solve(input, output);
+        lastStatus = engine.getLastStatus();
+
+        if (solved) {
+            canonicalizer.toCanonical(output, canonicalSolution);
+            record.clear();
+            SudokuBinaryFormat.pack(canonicalSolution, record);
+            cache.put(hash1, hash2, record.array().clone());
+        } else if (lastStatus == SolveStatus.NO_SOLUTION) {
+            cache.put(hash1, hash2, SudokuSolutionCache.NO_SOLUTION);
+        }
+
+        return solved;
+    }
+
+    @Override
+    public long countSolutions(Sudoku input, long limit) {
+        long solutions = engine.countSolutions(input, limit);
+        lastStatus = engine.getLastStatus();
+        return solutions;
+    }
+
+    @Override
+    public SolveStatus getLastStatus() {
+        return lastStatus;
+    }
+
+    @Override
+    public Duration getTimeLimit() {
+        return engine.getTimeLimit();
+    }
+
+    @Override
+    public void setTimeLimit(Duration timeLimit) {
+        engine.setTimeLimit(timeLimit);
+    }
+
+    @Override
+    public long getNodeLimit() {
+        return engine.getNodeLimit();
+    }
+
+    @Override
+    public void setNodeLimit(long nodeLimit) {
+        engine.setNodeLimit(nodeLimit);
+    }
+
+    @Override
+    public CancellationToken getCancellationToken() {
+        return engine.getCancellationToken();
+    }
+
+    @Override
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        engine.setCancellationToken(cancellationToken);
+    }
+
+    @Override
+    public SolverStatistics getStatistics() {
+        return engine.getStatistics();
+    }
+
+    @Override
+    public void setStatistics(SolverStatistics statistics) {
+        engine.setStatistics(statistics);
+    }
+
+    @Override
+    public SearchProgress getProgress() {
+        return engine.getProgress();
+    }
+
+    @Override
+    public void setProgress(SearchProgress progress) {
+        engine.setProgress(progress);
+    }
+
+    private void checkSudokuDimension(Sudoku sudoku) {
+        if (sudoku.getDimension() != getDimension()) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + sudoku.getDimension() +
+                    ", while this solver expects " + getDimension() + ".");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package net.coderodde.sudoku;
+
+/**
+ * This class implements a flag used for asking running solves to stop. A
+ * solver polls the token now and then during the search and gives up as soon
+ * as it sees it cancelled. A token may be shared by any number of solvers
+ * and threads; once cancelled, it stays cancelled. A token may have a parent,
+ * in which case it counts as cancelled also when the parent is.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class CancellationToken {
+
+    private final CancellationToken parent;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructs a token without a parent.
+     */
+    public CancellationToken() {
+        this(null);
+    }
+
+    /**
+     * Constructs a token cancelled whenever the given parent is.
+     *
+     * @param parent the parent token, or {@code null} for none.
+     */
+    public CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Asks all the solves polling this token to stop.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+}
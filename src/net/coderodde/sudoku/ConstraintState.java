@@ -0,0 +1,1244 @@
+package net.coderodde.sudoku;
+
+import java.util.Arrays;
+import net.coderodde.sudoku.SudokuSolver.PropagationLevel;
+
+/**
+ * This class holds the constraint state of a sudoku being solved: the
+ * bitmasks of the values placed in each unit, the candidates eliminated from
+ * individual cells by the reasoning techniques, and a trail that allows
+ * reverting the state to any earlier point. It also implements the
+ * constraint propagation run before and during the search.
+ * <p>
+ * The units are the groups of cells whose values must be distinct, as listed
+ * by a {@link SudokuVariant}. Every cell lies in a row, a column and a region,
+ * whose masks are looked up through three fixed offsets per cell; the units
+ * of the variants (diagonals, windows) and the killer cages are kept in
+ * separate per-cell index arrays consulted only when the variant has any, so
+ * that a standard sudoku pays a single predictable branch for them.
+ * <p>
+ * Bit {@code v - 1} of a mask stands for the value {@code v}. Sudokus of
+ * dimension at most 64 need a single {@code long} per mask; larger ones use
+ * several consecutive {@code long} words.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class ConstraintState {
+
+    static final int UNUSED = 0;
+
+    /**
+     * The number of units (row, column, region) every cell belongs to.
+     */
+    private static final int UNITS_PER_CELL = 3;
+
+    private final SudokuVariant variant;
+    private final int dimension;
+    private final int minisquareDimension;
+    private final int cellCount;
+    private final int unitCount;
+
+    /**
+     * Set if the regions are the minisquares, which the pointing and
+     * box-line reductions rely on.
+     */
+    private final boolean minisquareRegions;
+
+    /**
+     * Set if the variant has units other than the rows, the columns and the
+     * regions, or cages.
+     */
+    private final boolean extraConstraints;
+
+    /**
+     * The number of {@code long} words needed to hold one mask.
+     */
+    private final int words;
+
+    /**
+     * The mask of the last word with only the bits of valid values set.
+     */
+    private final long lastWordMask;
+
+    /**
+     * The unit masks. Rows occupy the units {@code 0, ..., dimension - 1},
+     * columns the units {@code dimension, ..., 2 * dimension - 1}, regions
+     * the next {@code dimension} units and the units of the variant the
+     * rest. The mask of unit {@code u} starts at the index {@code u * words}.
+     */
+    private final long[] unitMasks;
+
+    /**
+     * Maps the cell {@code y * dimension + x} to the starting indices of its
+     * row, column and region masks. Stored at
+     * {@code UNITS_PER_CELL * cell + i}.
+     */
+    private final int[] cellUnitOffsets;
+
+    /**
+     * The starting indices of the masks of the further units of each cell.
+     * Those of the cell {@code c} are stored at the indices
+     * {@code extraUnitStarts[c], ..., extraUnitStarts[c + 1] - 1}.
+     */
+    private final int[] extraUnitOffsets;
+    private final int[] extraUnitStarts;
+
+    /**
+     * Maps each cell to its cage, or -1 if it is in none. {@code null} if the
+     * variant has no cages.
+     */
+    private final int[] cellCages;
+
+    /**
+     * Lists the cells of each cage. Those of the cage {@code k} are stored at
+     * the indices {@code cageCellStarts[k], ..., cageCellStarts[k + 1] - 1}.
+     */
+    private final int[] cageCells;
+    private final int[] cageCellStarts;
+
+    /**
+     * Lists the value combinations making the sum of each cage, stored like
+     * {@code cageCells}.
+     */
+    private final long[] cageCombinations;
+    private final int[] cageCombinationStarts;
+
+    /**
+     * The values placed in each cage, and the values still fitting in its
+     * empty cells: the union of the combinations including all the values
+     * placed, less those. Cages exist only up to dimension 64, so one word
+     * suffices.
+     */
+    private final long[] cageValues;
+    private final long[] cageCandidates;
+
+    /**
+     * Lists the cells of each unit. The cells of the unit {@code u} are
+     * stored at the indices {@code u * dimension, ..., (u + 1) * dimension -
+     * 1}.
+     */
+    private final int[] unitCells;
+
+    /**
+     * Lists the distinct peers (the cells sharing at least one unit or cage)
+     * of each cell. The peers of the cell {@code c} are stored at the indices
+     * {@code peerStarts[c], ..., peerStarts[c + 1] - 1}.
+     */
+    private int[] peers;
+    private final int[] peerStarts;
+
+    /**
+     * The current assignment of values to cells in row-major order.
+     */
+    private final int[] cellValues;
+
+    /**
+     * The candidates eliminated from each cell by pairs and pointing. The
+     * mask of the cell {@code c} starts at the index {@code c * words}.
+     */
+    private final long[] eliminations;
+
+    /**
+     * The number of legal candidates of each empty cell. Maintained only
+     * when requested via {@link #setCountingCandidates(boolean)}.
+     */
+    private final int[] candidateCounts;
+    private boolean countingCandidates;
+    private int emptyCellCount;
+
+    /**
+     * The trail of changes. A placement of the value {@code v} at the cell
+     * {@code c} is recorded as {@code ~c} with the word and bit of
+     * {@code v}; an elimination as {@code c} with the word and the
+     * eliminated bits.
+     */
+    private int[] trailCells;
+    private int[] trailWords;
+    private long[] trailBits;
+    private int trailSize;
+
+    // Work buffers of the propagation.
+    private final long[] segmentMasks;
+    private final int[] positionCounts;
+    private final int[] firstPositions;
+    private final int[] secondPositions;
+
+    private long propagatedCellCount;
+    private long eliminatedCandidateCount;
+
+    ConstraintState(SudokuVariant variant) {
+        this.variant = variant;
+        this.dimension = variant.getDimension();
+        this.minisquareDimension = variant.getMinisquareDimension();
+        this.cellCount = dimension * dimension;
+        this.unitCount = variant.getUnitCount();
+        this.minisquareRegions = !variant.hasIrregularRegions();
+        this.extraConstraints = variant.hasExtraConstraints();
+        this.words = (dimension + Long.SIZE - 1) / Long.SIZE;
+
+        int bitsInLastWord = dimension - (words - 1) * Long.SIZE;
+        this.lastWordMask = bitsInLastWord == Long.SIZE ?
+                            -1L :
+                            (1L << bitsInLastWord) - 1L;
+
+        this.unitMasks = new long[unitCount * words];
+        this.cellUnitOffsets = new int[UNITS_PER_CELL * cellCount];
+        this.unitCells = variant.getUnitCells();
+        this.extraUnitStarts = new int[cellCount + 1];
+        this.extraUnitOffsets =
+                new int[(unitCount - UNITS_PER_CELL * dimension) * dimension];
+        this.peerStarts = new int[cellCount + 1];
+        this.cellValues = new int[cellCount];
+        this.eliminations = new long[cellCount * words];
+        this.candidateCounts = new int[cellCount];
+
+        this.trailCells = new int[2 * cellCount];
+        this.trailWords = new int[2 * cellCount];
+        this.trailBits  = new long[2 * cellCount];
+
+        this.segmentMasks    = new long[minisquareDimension];
+        this.positionCounts  = new int[dimension];
+        this.firstPositions  = new int[dimension];
+        this.secondPositions = new int[dimension];
+
+        loadUnits();
+
+        int cageCount = variant.getCageCount();
+
+        if (cageCount == 0) {
+            this.cellCages = null;
+            this.cageCells = null;
+            this.cageCellStarts = null;
+            this.cageCombinations = null;
+            this.cageCombinationStarts = null;
+        } else {
+            this.cellCages = new int[cellCount];
+            this.cageCellStarts = new int[cageCount + 1];
+            this.cageCombinationStarts = new int[cageCount + 1];
+            Arrays.fill(cellCages, -1);
+
+            for (int cage = 0; cage < cageCount; ++cage) {
+                cageCellStarts[cage + 1] =
+                        cageCellStarts[cage] +
+                        variant.getCageCellArray(cage).length;
+                cageCombinationStarts[cage + 1] =
+                        cageCombinationStarts[cage] +
+                        variant.getCageCombinations(cage).length;
+            }
+
+            this.cageCells = new int[cageCellStarts[cageCount]];
+            this.cageCombinations =
+                    new long[cageCombinationStarts[cageCount]];
+
+            for (int cage = 0; cage < cageCount; ++cage) {
+                int[] cells = variant.getCageCellArray(cage);
+                long[] combinations = variant.getCageCombinations(cage);
+                System.arraycopy(cells, 0,
+                                 cageCells, cageCellStarts[cage],
+                                 cells.length);
+                System.arraycopy(combinations, 0,
+                                 cageCombinations,
+                                 cageCombinationStarts[cage],
+                                 combinations.length);
+
+                for (int cell : cells) {
+                    cellCages[cell] = cage;
+                }
+            }
+        }
+
+        this.cageValues = new long[cageCount];
+        this.cageCandidates = new long[cageCount];
+        loadPeers();
+    }
+
+    private void loadUnits() {
+        int firstExtraUnit = UNITS_PER_CELL * dimension;
+
+        for (int unit = 0; unit < unitCount; ++unit) {
+            for (int i = unit * dimension; i < (unit + 1) * dimension; ++i) {
+                int cell = unitCells[i];
+
+                if (unit < firstExtraUnit) {
+                    cellUnitOffsets[UNITS_PER_CELL * cell + unit / dimension] =
+                            unit * words;
+                } else {
+                    ++extraUnitStarts[cell + 1];
+                }
+            }
+        }
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            extraUnitStarts[cell + 1] += extraUnitStarts[cell];
+        }
+
+        int[] next = Arrays.copyOf(extraUnitStarts, cellCount);
+
+        for (int unit = firstExtraUnit; unit < unitCount; ++unit) {
+            for (int i = unit * dimension; i < (unit + 1) * dimension; ++i) {
+                int cell = unitCells[i];
+                extraUnitOffsets[next[cell]++] = unit * words;
+            }
+        }
+    }
+
+    private void loadPeers() {
+        peers = new int[cellCount * (3 * dimension)];
+        boolean[] isPeer = new boolean[cellCount];
+        int size = 0;
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int start = size;
+            int offset = UNITS_PER_CELL * cell;
+
+            for (int i = 0; i < UNITS_PER_CELL; ++i) {
+                size = addPeers(cell, cellUnitOffsets[offset + i] / words,
+                                isPeer, size);
+            }
+
+            for (int i = extraUnitStarts[cell];
+                    i < extraUnitStarts[cell + 1];
+                    ++i) {
+                size = addPeers(cell, extraUnitOffsets[i] / words,
+                                isPeer, size);
+            }
+
+            if (cellCages != null && cellCages[cell] >= 0) {
+                int cage = cellCages[cell];
+
+                for (int i = cageCellStarts[cage];
+                        i < cageCellStarts[cage + 1];
+                        ++i) {
+                    size = addPeer(cell, cageCells[i], isPeer, size);
+                }
+            }
+
+            for (int i = start; i < size; ++i) {
+                isPeer[peers[i]] = false;
+            }
+
+            peerStarts[cell + 1] = size;
+        }
+
+        peers = Arrays.copyOf(peers, size);
+    }
+
+    private int addPeers(int cell, int unit, boolean[] isPeer, int size) {
+        for (int i = unit * dimension; i < (unit + 1) * dimension; ++i) {
+            size = addPeer(cell, unitCells[i], isPeer, size);
+        }
+
+        return size;
+    }
+
+    private int addPeer(int cell, int peer, boolean[] isPeer, int size) {
+        if (peer == cell || isPeer[peer]) {
+            return size;
+        }
+
+        if (size == peers.length) {
+            peers = Arrays.copyOf(peers, 2 * size);
+        }
+
+        isPeer[peer] = true;
+        peers[size] = peer;
+        return size + 1;
+    }
+
+    int getCellCount() {
+        return cellCount;
+    }
+
+    int getEmptyCellCount() {
+        return emptyCellCount;
+    }
+
+    int getValue(int cell) {
+        return cellValues[cell];
+    }
+
+    long getPropagatedCellCount() {
+        return propagatedCellCount;
+    }
+
+    long getEliminatedCandidateCount() {
+        return eliminatedCandidateCount;
+    }
+
+    void setCountingCandidates(boolean countingCandidates) {
+        this.countingCandidates = countingCandidates;
+    }
+
+    /**
+     * Resets this state and loads the given values into it. Zero denotes an
+     * empty cell.
+     *
+     * @param sudoku the sudoku to load.
+     * @throws IllegalArgumentException if a value is duplicated in a unit.
+     */
+    void load(Sudoku sudoku) {
+        for (int i = 0; i < unitMasks.length; ++i) {
+            unitMasks[i] = 0L;
+        }
+
+        for (int i = 0; i < eliminations.length; ++i) {
+            eliminations[i] = 0L;
+        }
+
+        for (int cage = 0; cage < cageValues.length; ++cage) {
+            cageValues[cage] = 0L;
+            cageCandidates[cage] = computeCageCandidates(cage);
+        }
+
+        trailSize = 0;
+        emptyCellCount = 0;
+        resetCounters();
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int currentValue = sudoku.getAt(cell);
+
+            if (currentValue == 0) {
+                cellValues[cell] = UNUSED;
+                ++emptyCellCount;
+                continue;
+            }
+
+            int word = (currentValue - 1) >>> 6;
+            long bit = 1L << (currentValue - 1);
+            int offset = UNITS_PER_CELL * cell;
+
+            if ((unitMasks[cellUnitOffsets[offset] + word] & bit) != 0L) {
+                throw duplicate(cell, currentValue, "row");
+            }
+
+            if ((unitMasks[cellUnitOffsets[offset + 1] + word] & bit)
+                    != 0L) {
+                throw duplicate(cell, currentValue, "column");
+            }
+
+            if ((unitMasks[cellUnitOffsets[offset + 2] + word] & bit)
+                    != 0L) {
+                throw duplicate(cell,
+                                currentValue,
+                                variant.getUnitKind(2 * dimension));
+            }
+
+            if (extraConstraints) {
+                checkExtraConstraints(cell, currentValue, word, bit);
+            }
+
+            cellValues[cell] = currentValue;
+            toggle(cell, word, bit);
+        }
+
+        if (countingCandidates) {
+            recountCandidates();
+        }
+    }
+
+    void resetCounters() {
+        propagatedCellCount = 0L;
+        eliminatedCandidateCount = 0L;
+    }
+
+    /**
+     * Recomputes the candidate counts of all the empty cells. Needed when
+     * the counting is switched on after the state was loaded.
+     */
+    void recountCandidates() {
+        for (int cell = 0; cell < cellCount; ++cell) {
+            if (cellValues[cell] == UNUSED) {
+                candidateCounts[cell] = countCandidates(cell);
+            }
+        }
+    }
+
+    private IllegalArgumentException duplicate(int cell,
+                                               int value,
+                                               String unit) {
+        return new IllegalArgumentException(
+                "The cell (x = " + cell % dimension + ", y = " +
+                cell / dimension + ") with value " + value +
+                " is a duplicate in its " + unit + ".");
+    }
+
+    private void checkExtraConstraints(int cell,
+                                       int value,
+                                       int word,
+                                       long bit) {
+        int end = extraUnitStarts[cell + 1];
+
+        for (int i = extraUnitStarts[cell]; i < end; ++i) {
+            if ((unitMasks[extraUnitOffsets[i] + word] & bit) != 0L) {
+                throw duplicate(cell,
+                                value,
+                                variant.getUnitKind(extraUnitOffsets[i] /
+                                                    words));
+            }
+        }
+
+        if (cellCages != null
+                && cellCages[cell] >= 0
+                && (cageCandidates[cellCages[cell]] & bit) == 0L) {
+            throw new IllegalArgumentException(
+                    "The cell (x = " + cell % dimension + ", y = " +
+                    cell / dimension + ") with value " + value +
+                    " repeats a value of its cage or cannot make its sum.");
+        }
+    }
+
+    /**
+     * Writes the current cell values to the given sudoku.
+     *
+     * @param sudoku the target sudoku.
+     */
+    void store(Sudoku sudoku) {
+        for (int cell = 0; cell < cellCount; ++cell) {
+            sudoku.setAt(cell, cellValues[cell]);
+        }
+    }
+
+    // Flips the bit 'bit' in the word 'word' of all the unit masks of
+    // 'cell'. As a value is only ever added to a unit not containing it and
+    // removed from a unit containing it, XOR serves both for placing and for
+    // removing.
+    private void toggle(int cell, int word, long bit) {
+        int offset = UNITS_PER_CELL * cell;
+        unitMasks[cellUnitOffsets[offset]     + word] ^= bit;
+        unitMasks[cellUnitOffsets[offset + 1] + word] ^= bit;
+        unitMasks[cellUnitOffsets[offset + 2] + word] ^= bit;
+
+        if (extraConstraints) {
+            toggleExtra(cell, word, bit);
+        }
+    }
+
+    private void toggleExtra(int cell, int word, long bit) {
+        int end = extraUnitStarts[cell + 1];
+
+        for (int i = extraUnitStarts[cell]; i < end; ++i) {
+            unitMasks[extraUnitOffsets[i] + word] ^= bit;
+        }
+
+        if (cellCages != null && cellCages[cell] >= 0) {
+            int cage = cellCages[cell];
+            cageValues[cage] ^= bit;
+            cageCandidates[cage] = computeCageCandidates(cage);
+        }
+    }
+
+    // Returns the values fitting in the empty cells of the cage 'cage': those
+    // of the combinations making its sum that include all the values placed,
+    // less the values placed.
+    private long computeCageCandidates(int cage) {
+        long placed = cageValues[cage];
+        long candidates = 0L;
+
+        for (int i = cageCombinationStarts[cage];
+                i < cageCombinationStarts[cage + 1];
+                ++i) {
+            long combination = cageCombinations[i];
+
+            if ((combination & placed) == placed) {
+                candidates |= combination;
+            }
+        }
+
+        return candidates & ~placed;
+    }
+
+    // Recomputes the candidate counts of the empty cells of the cage 'cage',
+    // whose candidates change by more than the value placed or removed.
+    private void recountCage(int cage) {
+        for (int i = cageCellStarts[cage]; i < cageCellStarts[cage + 1]; ++i) {
+            int cell = cageCells[i];
+
+            if (cellValues[cell] == UNUSED) {
+                candidateCounts[cell] = countCandidates(cell);
+            }
+        }
+    }
+
+    /**
+     * Returns the word {@code word} of the set of values that may be placed
+     * in the cell {@code cell}.
+     */
+    long candidates(int cell, int word) {
+        int offset = UNITS_PER_CELL * cell;
+        long occupied = unitMasks[cellUnitOffsets[offset]     + word]
+                      | unitMasks[cellUnitOffsets[offset + 1] + word]
+                      | unitMasks[cellUnitOffsets[offset + 2] + word]
+                      | eliminations[cell * words + word];
+
+        if (extraConstraints) {
+            occupied |= extraOccupied(cell, word);
+        }
+
+        return ~occupied & (word == words - 1 ? lastWordMask : -1L);
+    }
+
+    // Returns the word 'word' of the values excluded from 'cell' by its
+    // further units and its cage.
+    private long extraOccupied(int cell, int word) {
+        long occupied = 0L;
+
+        int end = extraUnitStarts[cell + 1];
+
+        for (int i = extraUnitStarts[cell]; i < end; ++i) {
+            occupied |= unitMasks[extraUnitOffsets[i] + word];
+        }
+
+        if (cellCages != null && cellCages[cell] >= 0) {
+            occupied |= ~cageCandidates[cellCages[cell]];
+        }
+
+        return occupied;
+    }
+
+    /**
+     * Returns {@code true} if {@code value} is a candidate of {@code cell}.
+     */
+    boolean isCandidate(int cell, int value) {
+        return (candidates(cell, (value - 1) >>> 6) & (1L << (value - 1)))
+                != 0L;
+    }
+
+    /**
+     * Returns the smallest candidate of the cell {@code cell} larger than
+     * {@code value}, or {@link #UNUSED} if there is none.
+     */
+    int nextCandidate(int cell, int value) {
+        int word = value >>> 6;
+
+        if (word == words) {
+            return UNUSED;
+        }
+
+        // Bit 'value' stands for the value 'value + 1'.
+        long candidates = candidates(cell, word) & (-1L << value);
+
+        while (candidates == 0L) {
+            if (++word == words) {
+                return UNUSED;
+            }
+
+            candidates = candidates(cell, word);
+        }
+
+        return word * Long.SIZE + Long.numberOfTrailingZeros(candidates) + 1;
+    }
+
+    int countCandidates(int cell) {
+        int count = 0;
+
+        for (int word = 0; word < words; ++word) {
+            count += Long.bitCount(candidates(cell, word));
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the current size of the trail. Passing it later to
+     * {@link #undo(int)} reverts all the changes made in between.
+     */
+    int getTrailSize() {
+        return trailSize;
+    }
+
+    /**
+     * Places the value {@code value} at the empty cell {@code cell}. The
+     * value must be one of the candidates of the cell.
+     */
+    void place(int cell, int value) {
+        assign(cell, value);
+        pushTrail(~cell, (value - 1) >>> 6, 1L << (value - 1));
+    }
+
+    /**
+     * Places the value {@code value} at the empty cell {@code cell} without
+     * recording it on the trail. The value must be one of the candidates of
+     * the cell. Untrailed changes may be made in any order, but only while
+     * the trail is empty, as {@link #undo(int)} does not see them.
+     */
+    void assign(int cell, int value) {
+        int word = (value - 1) >>> 6;
+        long bit = 1L << (value - 1);
+
+        if (countingCandidates) {
+            int end = peerStarts[cell + 1];
+
+            for (int i = peerStarts[cell]; i < end; ++i) {
+                int peer = peers[i];
+
+                if (cellValues[peer] == UNUSED
+                        && (candidates(peer, word) & bit) != 0L) {
+                    --candidateCounts[peer];
+                }
+            }
+        }
+
+        toggle(cell, word, bit);
+        cellValues[cell] = value;
+        --emptyCellCount;
+
+        if (countingCandidates && cellCages != null && cellCages[cell] >= 0) {
+            recountCage(cellCages[cell]);
+        }
+    }
+
+    /**
+     * Empties the filled cell {@code cell} without recording it on the trail.
+     * The same restrictions as for {@link #assign(int, int)} apply.
+     */
+    void unassign(int cell) {
+        int value = cellValues[cell];
+        int word = (value - 1) >>> 6;
+        long bit = 1L << (value - 1);
+        toggle(cell, word, bit);
+        cellValues[cell] = UNUSED;
+        ++emptyCellCount;
+
+        if (countingCandidates) {
+            int end = peerStarts[cell + 1];
+
+            for (int i = peerStarts[cell]; i < end; ++i) {
+                int peer = peers[i];
+
+                if (cellValues[peer] == UNUSED
+                        && (candidates(peer, word) & bit) != 0L) {
+                    ++candidateCounts[peer];
+                }
+            }
+
+            if (cellCages != null && cellCages[cell] >= 0) {
+                recountCage(cellCages[cell]);
+            }
+        }
+    }
+
+    // Removes the candidates 'bits' of the word 'word' from the cell 'cell'.
+    // All of 'bits' must be candidates of the cell.
+    private void eliminate(int cell, int word, long bits) {
+        eliminations[cell * words + word] |= bits;
+        int count = Long.bitCount(bits);
+        eliminatedCandidateCount += count;
+
+        if (countingCandidates) {
+            candidateCounts[cell] -= count;
+        }
+
+        pushTrail(cell, word, bits);
+    }
+
+    // Eliminates those of 'bits' that are still candidates of the empty cell
+    // 'cell'. Returns 'true' if anything was eliminated.
+    private boolean eliminateIfPresent(int cell, int word, long bits) {
+        if (cellValues[cell] != UNUSED) {
+            return false;
+        }
+
+        bits &= candidates(cell, word);
+
+        if (bits == 0L) {
+            return false;
+        }
+
+        eliminate(cell, word, bits);
+        return true;
+    }
+
+    /**
+     * Reverts all the changes made after the trail had the size
+     * {@code trailMark}.
+     */
+    void undo(int trailMark) {
+        while (trailSize > trailMark) {
+            --trailSize;
+            int cell = trailCells[trailSize];
+            int word = trailWords[trailSize];
+            long bits = trailBits[trailSize];
+
+            if (cell < 0) {
+                unassign(~cell);
+            } else {
+                eliminations[cell * words + word] ^= bits;
+
+                if (countingCandidates) {
+                    candidateCounts[cell] += Long.bitCount(bits);
+                }
+            }
+        }
+    }
+
+    private void pushTrail(int cell, int word, long bits) {
+        if (trailSize == trailCells.length) {
+            int capacity = 2 * trailSize;
+            trailCells = Arrays.copyOf(trailCells, capacity);
+            trailWords = Arrays.copyOf(trailWords, capacity);
+            trailBits  = Arrays.copyOf(trailBits,  capacity);
+        }
+
+        trailCells[trailSize] = cell;
+        trailWords[trailSize] = word;
+        trailBits [trailSize] = bits;
+        ++trailSize;
+    }
+
+    /**
+     * Returns the first empty cell not preceding {@code cell} in row-major
+     * order, or -1 if there is no such cell.
+     */
+    int nextEmptyCell(int cell) {
+        while (cell < cellCount) {
+            if (cellValues[cell] == UNUSED) {
+                return cell;
+            }
+
+            ++cell;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the empty cell with the fewest candidates, or -1 if all the
+     * cells are filled. Requires counting the candidates.
+     */
+    int selectMinimumRemainingValuesCell() {
+        int bestCell = -1;
+        int bestCount = Integer.MAX_VALUE;
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            if (cellValues[cell] == UNUSED
+                    && candidateCounts[cell] < bestCount) {
+                bestCell = cell;
+                bestCount = candidateCounts[cell];
+
+                if (bestCount <= 1) {
+                    // Cannot do better than a dead end or a forced value.
+                    break;
+                }
+            }
+        }
+
+        return bestCell;
+    }
+
+    /**
+     * Applies the reasoning techniques of the given level until none of them
+     * makes progress.
+     *
+     * @param level the propagation level.
+     * @return {@code false} if a contradiction was found, {@code true}
+     *         otherwise.
+     */
+    boolean propagate(PropagationLevel level) {
+        if (level == PropagationLevel.NONE) {
+            return true;
+        }
+
+        while (emptyCellCount > 0) {
+            int result = placeNakedSingles();
+
+            if (result < 0) {
+                return false;
+            }
+
+            boolean progress = result > 0;
+
+            for (int unit = 0; unit < unitCount; ++unit) {
+                result = placeHiddenSingles(unit);
+
+                if (result < 0) {
+                    return false;
+                }
+
+                progress |= result > 0;
+            }
+
+            if (!progress && level == PropagationLevel.FULL) {
+                // Try the costlier techniques only when singles get stuck.
+                for (int unit = 0; unit < unitCount; ++unit) {
+                    progress |= eliminateNakedPairs(unit);
+                    progress |= eliminateHiddenPairs(unit);
+                }
+
+                if (minisquareRegions) {
+                    progress |= eliminateIntersections();
+                }
+            }
+
+            if (!progress) {
+                break;
+            }
+        }
+
+        return true;
+    }
+
+    // Places every value that is the only candidate of its cell. Returns the
+    // number of cells filled, or -1 if some cell has no candidates.
+    private int placeNakedSingles() {
+        int placed = 0;
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            if (cellValues[cell] != UNUSED) {
+                continue;
+            }
+
+            int count = 0;
+            int value = UNUSED;
+
+            for (int word = 0; word < words && count < 2; ++word) {
+                long candidates = candidates(cell, word);
+
+                if (candidates != 0L) {
+                    count += Long.bitCount(candidates);
+                    value = word * Long.SIZE
+                          + Long.numberOfTrailingZeros(candidates) + 1;
+                }
+            }
+
+            if (count == 0) {
+                return -1;
+            }
+
+            if (count == 1) {
+                place(cell, value);
+                ++placed;
+            }
+        }
+
+        propagatedCellCount += placed;
+        return placed;
+    }
+
+    // Places every value that fits in only one cell of the unit 'unit'.
+    // Returns the number of cells filled, or -1 if some missing value fits
+    // in no cell of the unit.
+    private int placeHiddenSingles(int unit) {
+        int start = unit * dimension;
+        int end = start + dimension;
+        int placed = 0;
+
+        for (int word = 0; word < words; ++word) {
+            long seenOnce = 0L;
+            long seenTwice = 0L;
+
+            for (int i = start; i < end; ++i) {
+                int cell = unitCells[i];
+
+                if (cellValues[cell] == UNUSED) {
+                    long candidates = candidates(cell, word);
+                    seenTwice |= seenOnce & candidates;
+                    seenOnce  |= candidates;
+                }
+            }
+
+            long missing = ~unitMasks[unit * words + word]
+                         & (word == words - 1 ? lastWordMask : -1L);
+
+            if ((missing & ~seenOnce) != 0L) {
+                return -1;
+            }
+
+            long singles = missing & seenOnce & ~seenTwice;
+
+            while (singles != 0L) {
+                long bit = singles & -singles;
+                singles ^= bit;
+                int target = -1;
+
+                // Previous placements may have taken the only cell away.
+                for (int i = start; i < end; ++i) {
+                    int cell = unitCells[i];
+
+                    if (cellValues[cell] == UNUSED
+                            && (candidates(cell, word) & bit) != 0L) {
+                        target = cell;
+                        break;
+                    }
+                }
+
+                if (target == -1) {
+                    return -1;
+                }
+
+                place(target,
+                      word * Long.SIZE + Long.numberOfTrailingZeros(bit) + 1);
+                ++placed;
+            }
+        }
+
+        propagatedCellCount += placed;
+        return placed;
+    }
+
+    // If two cells of the unit have the same two candidates, removes them
+    // from the other cells of the unit.
+    private boolean eliminateNakedPairs(int unit) {
+        int start = unit * dimension;
+        int end = start + dimension;
+        boolean progress = false;
+
+        for (int i = start; i < end; ++i) {
+            int cell = unitCells[i];
+
+            if (cellValues[cell] != UNUSED || countCandidates(cell) != 2) {
+                continue;
+            }
+
+            for (int j = i + 1; j < end; ++j) {
+                int other = unitCells[j];
+
+                if (cellValues[other] != UNUSED
+                        || !haveSameCandidates(cell, other)) {
+                    continue;
+                }
+
+                for (int k = start; k < end; ++k) {
+                    int target = unitCells[k];
+
+                    if (target == cell || target == other) {
+                        continue;
+                    }
+
+                    for (int word = 0; word < words; ++word) {
+                        progress |= eliminateIfPresent(
+                                target,
+                                word,
+                                candidates(cell, word));
+                    }
+                }
+
+                break;
+            }
+        }
+
+        return progress;
+    }
+
+    private boolean haveSameCandidates(int cell1, int cell2) {
+        for (int word = 0; word < words; ++word) {
+            if (candidates(cell1, word) != candidates(cell2, word)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // If two values of the unit fit in the same two cells only, removes all
+    // the other candidates from those two cells.
+    private boolean eliminateHiddenPairs(int unit) {
+        int start = unit * dimension;
+        int end = start + dimension;
+
+        for (int value = 0; value < dimension; ++value) {
+            positionCounts[value] = 0;
+        }
+
+        for (int i = start; i < end; ++i) {
+            int cell = unitCells[i];
+
+            if (cellValues[cell] != UNUSED) {
+                continue;
+            }
+
+            for (int word = 0; word < words; ++word) {
+                long candidates = candidates(cell, word);
+
+                while (candidates != 0L) {
+                    long bit = candidates & -candidates;
+                    candidates ^= bit;
+                    int value = word * Long.SIZE
+                              + Long.numberOfTrailingZeros(bit);
+
+                    if (positionCounts[value] == 0) {
+                        firstPositions[value] = cell;
+                    } else if (positionCounts[value] == 1) {
+                        secondPositions[value] = cell;
+                    }
+
+                    ++positionCounts[value];
+                }
+            }
+        }
+
+        boolean progress = false;
+
+        for (int value1 = 0; value1 < dimension; ++value1) {
+            if (positionCounts[value1] != 2) {
+                continue;
+            }
+
+            for (int value2 = value1 + 1; value2 < dimension; ++value2) {
+                if (positionCounts[value2] != 2
+                        || firstPositions[value1] != firstPositions[value2]
+                        || secondPositions[value1]
+                           != secondPositions[value2]) {
+                    continue;
+                }
+
+                for (int word = 0; word < words; ++word) {
+                    long keep = 0L;
+
+                    if (value1 >>> 6 == word) {
+                        keep |= 1L << value1;
+                    }
+
+                    if (value2 >>> 6 == word) {
+                        keep |= 1L << value2;
+                    }
+
+                    progress |= eliminateIfPresent(firstPositions[value1],
+                                                   word,
+                                                   ~keep);
+                    progress |= eliminateIfPresent(secondPositions[value1],
+                                                   word,
+                                                   ~keep);
+                }
+
+                break;
+            }
+        }
+
+        return progress;
+    }
+
+    // Pointing: if the candidates of a value within a minisquare lie on a
+    // single row (column), the value is removed from the rest of that row
+    // (column). Box-line reduction: if the candidates of a value within a
+    // row (column) lie in a single minisquare, the value is removed from the
+    // rest of that minisquare.
+    private boolean eliminateIntersections() {
+        boolean progress = false;
+
+        for (int word = 0; word < words; ++word) {
+            for (int band = 0; band < dimension; band += minisquareDimension) {
+                for (int stack = 0;
+                        stack < dimension;
+                        stack += minisquareDimension) {
+                    progress |= eliminatePointing(band, stack, word, true);
+                    progress |= eliminatePointing(band, stack, word, false);
+                }
+            }
+
+            for (int line = 0; line < dimension; ++line) {
+                progress |= eliminateBoxLine(line, word, true);
+                progress |= eliminateBoxLine(line, word, false);
+            }
+        }
+
+        return progress;
+    }
+
+    // Returns the cell at the position 'along' of the line 'line'. Lines are
+    // rows if 'rows' is true, and columns otherwise.
+    private int cellOf(int line, int along, boolean rows) {
+        return rows ? line * dimension + along : along * dimension + line;
+    }
+
+    private boolean eliminatePointing(int minisquareY,
+                                      int minisquareX,
+                                      int word,
+                                      boolean rows) {
+        int firstLine = rows ? minisquareY : minisquareX;
+        int firstAlong = rows ? minisquareX : minisquareY;
+        long seenOnce = 0L;
+        long seenTwice = 0L;
+
+        for (int i = 0; i < minisquareDimension; ++i) {
+            long segment = 0L;
+
+            for (int j = 0; j < minisquareDimension; ++j) {
+                int cell = cellOf(firstLine + i, firstAlong + j, rows);
+
+                if (cellValues[cell] == UNUSED) {
+                    segment |= candidates(cell, word);
+                }
+            }
+
+            segmentMasks[i] = segment;
+            seenTwice |= seenOnce & segment;
+            seenOnce  |= segment;
+        }
+
+        boolean progress = false;
+
+        for (int i = 0; i < minisquareDimension; ++i) {
+            long pointing = segmentMasks[i] & ~seenTwice;
+
+            if (pointing == 0L) {
+                continue;
+            }
+
+            for (int along = 0; along < dimension; ++along) {
+                if (along - firstAlong >= 0
+                        && along - firstAlong < minisquareDimension) {
+                    continue;
+                }
+
+                progress |= eliminateIfPresent(
+                        cellOf(firstLine + i, along, rows),
+                        word,
+                        pointing);
+            }
+        }
+
+        return progress;
+    }
+
+    private boolean eliminateBoxLine(int line, int word, boolean rows) {
+        long seenOnce = 0L;
+        long seenTwice = 0L;
+
+        for (int i = 0; i < minisquareDimension; ++i) {
+            long segment = 0L;
+
+            for (int j = 0; j < minisquareDimension; ++j) {
+                int cell = cellOf(line, i * minisquareDimension + j, rows);
+
+                if (cellValues[cell] == UNUSED) {
+                    segment |= candidates(cell, word);
+                }
+            }
+
+            segmentMasks[i] = segment;
+            seenTwice |= seenOnce & segment;
+            seenOnce  |= segment;
+        }
+
+        int firstLine = line - line % minisquareDimension;
+        boolean progress = false;
+
+        for (int i = 0; i < minisquareDimension; ++i) {
+            long claiming = segmentMasks[i] & ~seenTwice;
+
+            if (claiming == 0L) {
+                continue;
+            }
+
+            for (int otherLine = firstLine;
+                    otherLine < firstLine + minisquareDimension;
+                    ++otherLine) {
+                if (otherLine == line) {
+                    continue;
+                }
+
+                for (int j = 0; j < minisquareDimension; ++j) {
+                    progress |= eliminateIfPresent(
+                            cellOf(otherLine,
+                                   i * minisquareDimension + j,
+                                   rows),
+                            word,
+                            claiming);
+                }
+            }
+        }
+
+        return progress;
+    }
+}
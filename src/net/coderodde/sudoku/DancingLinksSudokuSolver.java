@@ -0,0 +1,501 @@
+package net.coderodde.sudoku;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * This class solves sudokus by reducing them to exact cover and running
+ * Knuth's Algorithm X with dancing links. A sudoku of dimension {@code N}
+ * has {@code 4 * N^2} constraints (each cell holds a value; each row, column
+ * and minisquare holds each value) and {@code N^3} candidate rows of four
+ * nodes each.
+ * <p>
+ * The links of all nodes live in preallocated primitive arrays that are built
+ * once per solver; a solve only relinks them and restores the pristine matrix
+ * before returning, so repeated solves do not allocate per node.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public class DancingLinksSudokuSolver implements SudokuEngine {
+
+    private static final int NODES_PER_ROW = 4;
+
+    /**
+     * The index of the root header.
+     */
+    private static final int ROOT = 0;
+
+    private final int dimension;
+    private final int minisquareDimension;
+    private final int cellCount;
+
+    // The four-way links and the owning column header of each node. Index 0
+    // is the root, indices 1..4N^2 are column headers, the rest are row
+    // nodes.
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+
+    /**
+     * The number of nodes in each column, indexed by the header.
+     */
+    private final int[] size;
+
+    /**
+     * The row nodes selected so far, the givens first.
+     */
+    private final int[] selected;
+    private int selectedCount;
+
+    private final SearchLimits limits = new SearchLimits();
+    private SolveStatus lastStatus;
+    private SolverStatistics statistics;
+
+    // The counters of the last search, copied to 'statistics' if attached.
+    // The stop status is null unless the search was stopped early.
+    private SolveStatus searchStopStatus;
+    private long searchNodeCount;
+    private long searchBacktrackCount;
+    private int searchMaximumDepth;
+
+    public DancingLinksSudokuSolver(int dimension) {
+        this.minisquareDimension = Sudoku.checkSquareDimension(dimension);
+        this.dimension = dimension;
+        this.cellCount = dimension * dimension;
+
+        int columns = NODES_PER_ROW * cellCount;
+        int nodes = 1 + columns + NODES_PER_ROW * cellCount * dimension;
+
+        this.left   = new int[nodes];
+        this.right  = new int[nodes];
+        this.up     = new int[nodes];
+        this.down   = new int[nodes];
+        this.column = new int[nodes];
+        this.size   = new int[1 + columns];
+        this.selected = new int[cellCount];
+
+        buildMatrix();
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public SolveStatus getLastStatus() {
+        return lastStatus;
+    }
+
+    @Override
+    public Duration getTimeLimit() {
+        return limits.getTimeLimit();
+    }
+
+    @Override
+    public void setTimeLimit(Duration timeLimit) {
+        limits.setTimeLimit(timeLimit);
+    }
+
+    @Override
+    public long getNodeLimit() {
+        return limits.getNodeLimit();
+    }
+
+    @Override
+    public void setNodeLimit(long nodeLimit) {
+        limits.setNodeLimit(nodeLimit);
+    }
+
+    @Override
+    public CancellationToken getCancellationToken() {
+        return limits.getCancellationToken();
+    }
+
+    @Override
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        limits.setCancellationToken(cancellationToken);
+    }
+
+    @Override
+    public SolverStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void setStatistics(SolverStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public SearchProgress getProgress() {
+        return limits.getProgress();
+    }
+
+    @Override
+    public void setProgress(SearchProgress progress) {
+        limits.setProgress(progress);
+    }
+
+    @Override
+    public Sudoku solve(Sudoku input) {
+        Sudoku solution = new Sudoku(dimension);
+        solve(input, solution);
+        return solution;
+    }
+
+    @Override
+    public boolean solve(Sudoku input, Sudoku output) {
+        Objects.requireNonNull(input, "The input sudoku is null.");
+        Objects.requireNonNull(output, "The output sudoku is null.");
+        checkSudokuDimension(input);
+        checkSudokuDimension(output);
+        long startTime = statistics == null ? 0L : System.nanoTime();
+        limits.start();
+
+        try {
+            selectGivens(input);
+
+            if (search(startTime, 1L) == 0L) {
+                output.clear();
+                return false;
+            }
+
+            for (int i = 0; i < selectedCount; ++i) {
+                int row = rowOf(selected[i]);
+                output.setAt(row / dimension, row % dimension + 1);
+            }
+
+            return true;
+        } finally {
+            unselectAll();
+        }
+    }
+
+    @Override
+    public long countSolutions(Sudoku input, long limit) {
+        Objects.requireNonNull(input, "The input sudoku is null.");
+        checkSudokuDimension(input);
+
+        if (limit < 1L) {
+            throw new IllegalArgumentException(
+                    "The solution limit (" + limit + ") must be at least 1.");
+        }
+
+        long startTime = statistics == null ? 0L : System.nanoTime();
+        limits.start();
+
+        try {
+            selectGivens(input);
+            return search(startTime, limit);
+        } finally {
+            unselectAll();
+        }
+    }
+
+    private void checkSudokuDimension(Sudoku sudoku) {
+        if (sudoku.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + sudoku.getDimension() +
+                    ", while this solver expects " + dimension + ".");
+        }
+    }
+
+    private void buildMatrix() {
+        int columns = size.length - 1;
+
+        for (int header = 0; header <= columns; ++header) {
+            left [header] = header == 0 ? columns : header - 1;
+            right[header] = header == columns ? 0 : header + 1;
+            up   [header] = header;
+            down [header] = header;
+            column[header] = header;
+        }
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int x = cell % dimension;
+            int y = cell / dimension;
+            int minisquare = (y / minisquareDimension) * minisquareDimension
+                           + (x / minisquareDimension);
+
+            for (int value = 0; value < dimension; ++value) {
+                int first = firstNodeOf(cell * dimension + value);
+
+                appendToColumn(first, 1 + cell);
+                appendToColumn(first + 1,
+                               1 + cellCount + y * dimension + value);
+                appendToColumn(first + 2,
+                               1 + 2 * cellCount + x * dimension + value);
+                appendToColumn(first + 3,
+                               1 + 3 * cellCount
+                                 + minisquare * dimension + value);
+
+                for (int i = 0; i < NODES_PER_ROW; ++i) {
+                    left [first + i] = first + (i + NODES_PER_ROW - 1)
+                                                % NODES_PER_ROW;
+                    right[first + i] = first + (i + 1) % NODES_PER_ROW;
+                }
+            }
+        }
+    }
+
+    private void appendToColumn(int node, int header) {
+        column[node] = header;
+        up[node] = up[header];
+        down[node] = header;
+        down[up[header]] = node;
+        up[header] = node;
+        ++size[header];
+    }
+
+    // Returns the first node of the candidate row 'row', which stands for
+    // placing the value 'row % dimension + 1' at the cell 'row / dimension'.
+    private int firstNodeOf(int row) {
+        return size.length + NODES_PER_ROW * row;
+    }
+
+    private int rowOf(int node) {
+        return (node - size.length) / NODES_PER_ROW;
+    }
+
+    private void cover(int header) {
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+
+        for (int i = down[header]; i != header; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                --size[column[j]];
+            }
+        }
+    }
+
+    private void uncover(int header) {
+        for (int i = up[header]; i != header; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                ++size[column[j]];
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+
+        right[left[header]] = header;
+        left[right[header]] = header;
+    }
+
+    // Covers the columns of the row of 'node', except the column of 'node'
+    // itself, which the caller has covered.
+    private void coverRest(int node) {
+        for (int j = right[node]; j != node; j = right[j]) {
+            cover(column[j]);
+        }
+    }
+
+    // Reverts 'coverRest(node)'.
+    private void uncoverRest(int node) {
+        for (int j = left[node]; j != node; j = left[j]) {
+            uncover(column[j]);
+        }
+    }
+
+    private boolean isCovered(int header) {
+        return right[left[header]] != header;
+    }
+
+    private void selectGivens(Sudoku input) {
+        selectedCount = 0;
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = input.getAt(cell);
+
+            if (value == 0) {
+                continue;
+            }
+
+            int node = firstNodeOf(cell * dimension + value - 1);
+
+            for (int i = 1; i < NODES_PER_ROW; ++i) {
+                if (isCovered(column[node + i])) {
+                    throw new IllegalArgumentException(
+                        "The cell (x = " + cell % dimension + ", y = " +
+                        cell / dimension + ") with value " + value +
+                        " is a duplicate in its " +
+                        (i == 1 ? "row" : i == 2 ? "column" : "minisquare") +
+                        ".");
+                }
+            }
+
+            cover(column[node]);
+            coverRest(node);
+            selected[selectedCount++] = node;
+        }
+    }
+
+    // Undoes all selections in reverse order, which restores the pristine
+    // matrix for the next solve.
+    private void unselectAll() {
+        while (selectedCount > 0) {
+            int node = selected[--selectedCount];
+            uncoverRest(node);
+            uncover(column[node]);
+        }
+    }
+
+    // Unwinds a search stopped while trying the rows of the column 'header'
+    // back to the first 'base' selected rows.
+    private void unwind(int base, int header) {
+        uncover(header);
+
+        while (selectedCount > base) {
+            int node = selected[--selectedCount];
+            uncoverRest(node);
+            uncover(column[node]);
+        }
+    }
+
+    // Returns the column with the fewest nodes, or -1 if all columns are
+    // covered.
+    private int chooseColumn() {
+        int best = -1;
+        int bestSize = Integer.MAX_VALUE;
+
+        for (int header = right[ROOT]; header != ROOT; header = right[header]) {
+            if (size[header] < bestSize) {
+                best = header;
+                bestSize = size[header];
+
+                if (bestSize <= 1) {
+                    break;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    // Runs Algorithm X iteratively, using 'selected' as the explicit stack.
+    // Stops as soon as 'limit' solutions are found, returning with the rows
+    // of the last one selected; otherwise returns with the stack unwound back
+    // to the givens. Returns the number of solutions found, after setting the
+    // status and filling in the statistics, if attached, of the solve started
+    // at 'startTime'.
+    private long search(long startTime, long limit) {
+        long solutions = searchRows(limit);
+
+        if (searchStopStatus != null) {
+            lastStatus = searchStopStatus;
+        } else {
+            lastStatus = solutions > 0L ?
+                         SolveStatus.SOLVED :
+                         SolveStatus.NO_SOLUTION;
+        }
+
+        limits.finish(searchNodeCount);
+
+        if (statistics != null) {
+            statistics.record(searchNodeCount,
+                              searchBacktrackCount,
+                              searchMaximumDepth,
+                              0L,
+                              0L,
+                              System.nanoTime() - startTime,
+                              solutions,
+                              lastStatus);
+        }
+
+        return solutions;
+    }
+
+    // The search proper. The counters are kept in local variables and stored
+    // in the fields only once, on the way out. If the limits stop the search,
+    // sets 'searchStopStatus' and unwinds the stack back to the givens.
+    private long searchRows(long limit) {
+        int base = selectedCount;
+        int header = chooseColumn();
+        searchStopStatus = null;
+        searchNodeCount = 0L;
+        searchBacktrackCount = 0L;
+        searchMaximumDepth = 0;
+
+        if (header == -1) {
+            return 1L;
+        }
+
+        searchStopStatus = limits.check(0L);
+
+        if (searchStopStatus != null) {
+            return 0L;
+        }
+
+        long solutions = 0L;
+        long nodes = 0L;
+        long nextCheck = limits.nextCheck(0L);
+        long backtracks = 0L;
+        int maximumSelectedCount = base;
+        cover(header);
+        int node = down[header];
+
+        while (true) {
+            if (node != header) {
+                if (++nodes == nextCheck) {
+                    searchStopStatus = limits.check(nodes);
+
+                    if (searchStopStatus != null) {
+                        // The row of 'node' was not tried after all.
+                        --nodes;
+                        unwind(base, header);
+                        break;
+                    }
+
+                    nextCheck = limits.nextCheck(nodes);
+                }
+
+                // Try the row of 'node'.
+                selected[selectedCount++] = node;
+                maximumSelectedCount = Math.max(maximumSelectedCount,
+                                                selectedCount);
+                coverRest(node);
+                header = chooseColumn();
+
+                if (header != -1) {
+                    cover(header);
+                    node = down[header];
+                    continue;
+                }
+
+                if (++solutions == limit) {
+                    break;
+                }
+
+                // Go on with the row below 'node'.
+                selectedCount--;
+                uncoverRest(node);
+                header = column[node];
+                node = down[node];
+                continue;
+            }
+
+            // All rows of the column 'header' are exhausted; backtrack.
+            uncover(header);
+            ++backtracks;
+
+            if (selectedCount == base) {
+                break;
+            }
+
+            node = selected[--selectedCount];
+            uncoverRest(node);
+            header = column[node];
+            node = down[node];
+        }
+
+        searchNodeCount = nodes;
+        searchBacktrackCount = backtracks;
+        searchMaximumDepth = maximumSelectedCount - base;
+        return solutions;
+    }
+}
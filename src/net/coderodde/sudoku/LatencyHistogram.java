@@ -0,0 +1,146 @@
+package net.coderodde.sudoku;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class records durations in a histogram with logarithmic buckets, each
+ * power of two split into {@value #HALF_SUB_BUCKETS} linear sub-buckets, so
+ * any percentile is reported with a relative error below about 6% while the
+ * memory stays constant. Recording is lock-free and may be done by several
+ * threads at a time.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    /**
+     * The number of buckets: the values below {@code SUB_BUCKETS} get one
+     * bucket each, every higher power of two gets {@code HALF_SUB_BUCKETS}.
+     */
+    private static final int BUCKET_COUNT =
+            SUB_BUCKETS + (Long.SIZE - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong maximum = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos) {
+        if (nanos < 0L) {
+            nanos = 0L;
+        }
+
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        total.add(nanos);
+        maximum.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of the recorded durations.
+     *
+     * @return the total in nanoseconds.
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the longest recorded duration, or 0 if there is none.
+     *
+     * @return the maximum in nanoseconds.
+     */
+    public long getMaximum() {
+        return maximum.get();
+    }
+
+    /**
+     * Returns the mean of the recorded durations, or 0 if there is none.
+     *
+     * @return the mean in nanoseconds.
+     */
+    public double getMean() {
+        long n = getCount();
+        return n == 0L ? 0.0 : (double) getTotal() / n;
+    }
+
+    /**
+     * Returns the duration below or at which the given percentage of the
+     * recorded durations fall, rounded up to the bucket boundary.
+     *
+     * @param percentile the percentage, within {@code [0, 100]}.
+     * @return the percentile in nanoseconds, or 0 if nothing is recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException(
+                    "The percentile (" + percentile + ") is not within " +
+                    "[0, 100].");
+        }
+
+        long n = getCount();
+
+        if (n == 0L) {
+            return 0L;
+        }
+
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0L;
+
+        for (int bucket = 0; bucket < BUCKET_COUNT; ++bucket) {
+            seen += counts.get(bucket);
+
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), getMaximum());
+            }
+        }
+
+        return getMaximum();
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        // The highest set bit is at least SUB_BUCKET_BITS, so the shift is
+        // at least 1 and 'value >>> shift' lies in [HALF, SUB_BUCKETS).
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value)
+                  - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS
+                           + subBucket - HALF_SUB_BUCKETS;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = (bucket - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = (bucket - SUB_BUCKETS) % HALF_SUB_BUCKETS
+                       + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,183 @@
+package net.coderodde.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+
+/**
+ * This class solves large batches of sudokus on all cores. The batch is split
+ * recursively into ranges processed by a work-stealing {@link ForkJoinPool};
+ * every worker thread solves its ranges with its own
+ * {@link SudokuBatchSolver}, as the engines are not thread-safe. The solution
+ * of the {@code i}th input always lands in the {@code i}th output, whatever
+ * the order in which the workers finish. As with the batch solver, an input
+ * whose givens contradict each other just gets an all-zero output.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ParallelBatchSolver implements AutoCloseable {
+
+    /**
+     * The number of ranges each worker gets on average. More ranges balance
+     * the load better when some puzzles are much harder than others.
+     */
+    private static final int RANGES_PER_WORKER = 8;
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<SudokuBatchSolver> workerSolvers;
+
+    /**
+     * Constructs a parallel batch solver using all available processors.
+     */
+    public ParallelBatchSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a parallel batch solver with the given parallelism.
+     *
+     * @param parallelism the number of worker threads.
+     */
+    public ParallelBatchSolver(int parallelism) {
+        this(parallelism, SudokuEngine::forDimension);
+    }
+
+    /**
+     * Constructs a parallel batch solver with the given parallelism, whose
+     * workers create their engines with the given factory.
+     *
+     * @param parallelism   the number of worker threads.
+     * @param engineFactory maps a dimension to a new engine.
+     */
+    public ParallelBatchSolver(int parallelism,
+                               IntFunction<SudokuEngine> engineFactory) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "The parallelism (" + parallelism + ") must be at " +
+                    "least 1.");
+        }
+
+        Objects.requireNonNull(engineFactory, "The engine factory is null.");
+        this.pool = new ForkJoinPool(parallelism);
+        this.workerSolvers = ThreadLocal.withInitial(
+                () -> new SudokuBatchSolver(engineFactory));
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Solves {@code inputs[i]} into {@code outputs[i]} for each {@code i}.
+     * The output of an unsolvable input, contradictory givens included, is
+     * set to all zeros.
+     *
+     * @param inputs  the sudokus to solve.
+     * @param outputs the sudokus receiving the solutions.
+     * @return the number of solved sudokus.
+     */
+    public int solve(Sudoku[] inputs, Sudoku[] outputs) {
+        if (inputs.length != outputs.length) {
+            throw new IllegalArgumentException(
+                    "The number of inputs (" + inputs.length + ") does not " +
+                    "match the number of outputs (" + outputs.length + ").");
+        }
+
+        if (inputs.length == 0) {
+            return 0;
+        }
+
+        int threshold = Math.max(
+                1,
+                inputs.length / (RANGES_PER_WORKER * getParallelism()));
+
+        return pool.invoke(new RangeTask(inputs, outputs, 0, inputs.length,
+                                         threshold));
+    }
+
+    /**
+     * Solves the given sudokus and returns the solutions in input order. An
+     * unsolvable input, contradictory givens included, gets an all-zero
+     * solution.
+     *
+     * @param inputs the sudokus to solve.
+     * @return the list of solutions.
+     */
+    public List<Sudoku> solve(List<Sudoku> inputs) {
+        Sudoku[] inputArray = inputs.toArray(new Sudoku[inputs.size()]);
+        Sudoku[] outputArray = new Sudoku[inputArray.length];
+
+        for (int i = 0; i < inputArray.length; ++i) {
+            outputArray[i] = new Sudoku(inputArray[i].getDimension());
+        }
+
+        solve(inputArray, outputArray);
+        List<Sudoku> solutions = new ArrayList<>(outputArray.length);
+
+        for (Sudoku solution : outputArray) {
+            solutions.add(solution);
+        }
+
+        return solutions;
+    }
+
+    /**
+     * Shuts down the worker threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private final class RangeTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Sudoku[] inputs;
+        private final Sudoku[] outputs;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        RangeTask(Sudoku[] inputs,
+                  Sudoku[] outputs,
+                  int from,
+                  int to,
+                  int threshold) {
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= threshold) {
+                SudokuBatchSolver solver = workerSolvers.get();
+                int solved = 0;
+
+                for (int i = from; i < to; ++i) {
+                    if (solver.solveOne(inputs[i], outputs[i])) {
+                        ++solved;
+                    }
+                }
+
+                return solved;
+            }
+
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(inputs, outputs, from, middle,
+                                           threshold);
+            RangeTask right = new RangeTask(inputs, outputs, middle, to,
+                                            threshold);
+            left.fork();
+            int solved = right.compute();
+            return solved + left.join();
+        }
+    }
+}
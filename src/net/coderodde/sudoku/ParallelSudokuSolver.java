@@ -0,0 +1,607 @@
+package net.coderodde.sudoku;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class solves a single hard sudoku on several cores. The top levels of
+ * the search tree are expanded on the calling thread until there are enough
+ * subproblems, one per surviving candidate of each branching cell; the
+ * subproblems are then searched in parallel on a fork-join pool. As soon as
+ * one of them finds a solution, the others are cancelled through a shared
+ * {@link CancellationToken}. Counting solutions works the same way, with the
+ * counts of the subproblems summed up until the limit is reached.
+ * <p>
+ * The time limit and the cancellation token apply to the solve as a whole;
+ * the node limit applies to the search of each subproblem separately, since
+ * the workers search independently. Interrupting the calling thread stops
+ * the workers as well.
+ * <p>
+ * Attached {@link SolverStatistics} receive the counters of the workers
+ * summed over the subproblems of a solve, with the deepest search of a
+ * subproblem as the maximum depth and the wall time of the whole solve. The
+ * expansion of the top levels on the calling thread is not counted. An
+ * attached {@link SearchProgress} likewise receives the nodes of all the
+ * workers while they search.
+ * <p>
+ * Like the other engines, an instance must not be used by several threads at
+ * a time.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class ParallelSudokuSolver implements SudokuEngine,
+                                                   AutoCloseable {
+
+    /**
+     * The number of subproblems aimed at per worker thread. Subtrees differ
+     * wildly in size, so more subproblems than workers balance the load.
+     */
+    private static final int SUBPROBLEMS_PER_WORKER = 8;
+
+    /**
+     * The maximum number of branching levels expanded before the parallel
+     * search.
+     */
+    private static final int MAXIMUM_SPLIT_DEPTH = 6;
+
+    private final int dimension;
+    private final ForkJoinPool pool;
+    private final SudokuSolver splitter;
+    private final ThreadLocal<Worker> workers;
+    private final SearchLimits limits = new SearchLimits();
+    private SolveStatus lastStatus;
+    private SolverStatistics statistics;
+
+    /**
+     * Constructs a parallel solver using all available processors.
+     *
+     * @param dimension the sudoku dimension.
+     */
+    public ParallelSudokuSolver(int dimension) {
+        this(dimension, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a parallel solver with the given parallelism.
+     *
+     * @param dimension   the sudoku dimension.
+     * @param parallelism the number of worker threads.
+     */
+    public ParallelSudokuSolver(int dimension, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "The parallelism (" + parallelism + ") must be at " +
+                    "least 1.");
+        }
+
+        this.splitter = createSolver(dimension);
+        this.dimension = dimension;
+        this.pool = new ForkJoinPool(parallelism);
+        this.workers = ThreadLocal.withInitial(
+                () -> new Worker(createSolver(dimension)));
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public SolveStatus getLastStatus() {
+        return lastStatus;
+    }
+
+    @Override
+    public Duration getTimeLimit() {
+        return limits.getTimeLimit();
+    }
+
+    @Override
+    public void setTimeLimit(Duration timeLimit) {
+        limits.setTimeLimit(timeLimit);
+    }
+
+    @Override
+    public long getNodeLimit() {
+        return limits.getNodeLimit();
+    }
+
+    @Override
+    public void setNodeLimit(long nodeLimit) {
+        limits.setNodeLimit(nodeLimit);
+    }
+
+    @Override
+    public CancellationToken getCancellationToken() {
+        return limits.getCancellationToken();
+    }
+
+    @Override
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        limits.setCancellationToken(cancellationToken);
+    }
+
+    @Override
+    public SolverStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void setStatistics(SolverStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public SearchProgress getProgress() {
+        return limits.getProgress();
+    }
+
+    @Override
+    public void setProgress(SearchProgress progress) {
+        limits.setProgress(progress);
+    }
+
+    @Override
+    public Sudoku solve(Sudoku input) {
+        Sudoku solution = new Sudoku(dimension);
+        solve(input, solution);
+        return solution;
+    }
+
+    @Override
+    public boolean solve(Sudoku input, Sudoku output) {
+        Objects.requireNonNull(output, "The output sudoku is null.");
+        checkSudokuDimension(output);
+        long startTime = statistics == null ? 0L : System.nanoTime();
+        limits.start();
+        List<Sudoku> frontier = new ArrayList<>();
+
+        if (expand(input, frontier, output, 1L) > 0L) {
+            lastStatus = SolveStatus.SOLVED;
+            finish(null, 1L, startTime);
+            return true;
+        }
+
+        if (frontier.isEmpty()) {
+            lastStatus = SolveStatus.NO_SOLUTION;
+            output.clear();
+            finish(null, 0L, startTime);
+            return false;
+        }
+
+        StatisticsCollector collector =
+                statistics == null ? null : new StatisticsCollector();
+
+        CancellationToken token =
+                new CancellationToken(limits.getCancellationToken());
+        AtomicReference<Sudoku> solution = new AtomicReference<>();
+        AtomicReference<SolveStatus> stopStatus = new AtomicReference<>();
+        List<RecursiveAction> tasks = new ArrayList<>(frontier.size());
+
+        for (Sudoku subproblem : frontier) {
+            tasks.add(new SolveTask(subproblem, token, solution, stopStatus,
+                                    collector));
+        }
+
+        boolean interrupted = !invokeAll(tasks, token);
+
+        if (solution.get() == null) {
+            lastStatus = getStatus(interrupted, stopStatus, 0L);
+            output.clear();
+            finish(collector, 0L, startTime);
+            return false;
+        }
+
+        lastStatus = SolveStatus.SOLVED;
+        output.copyFrom(solution.get());
+        finish(collector, 1L, startTime);
+        return true;
+    }
+
+    @Override
+    public long countSolutions(Sudoku input, long limit) {
+        if (limit < 1L) {
+            throw new IllegalArgumentException(
+                    "The solution limit (" + limit + ") must be at least 1.");
+        }
+
+        long startTime = statistics == null ? 0L : System.nanoTime();
+        limits.start();
+        List<Sudoku> frontier = new ArrayList<>();
+        long solutions = expand(input, frontier, null, limit);
+
+        if (solutions >= limit || frontier.isEmpty()) {
+            lastStatus = solutions > 0L ?
+                         SolveStatus.SOLVED :
+                         SolveStatus.NO_SOLUTION;
+            solutions = Math.min(solutions, limit);
+            finish(null, solutions, startTime);
+            return solutions;
+        }
+
+        StatisticsCollector collector =
+                statistics == null ? null : new StatisticsCollector();
+
+        CancellationToken token =
+                new CancellationToken(limits.getCancellationToken());
+        AtomicLong counter = new AtomicLong(solutions);
+        AtomicReference<SolveStatus> stopStatus = new AtomicReference<>();
+        List<RecursiveAction> tasks = new ArrayList<>(frontier.size());
+
+        for (Sudoku subproblem : frontier) {
+            tasks.add(new CountTask(subproblem, limit, token, counter,
+                                    stopStatus, collector));
+        }
+
+        boolean interrupted = !invokeAll(tasks, token);
+        solutions = Math.min(counter.get(), limit);
+        lastStatus = solutions == limit ?
+                     SolveStatus.SOLVED :
+                     getStatus(interrupted, stopStatus, solutions);
+        finish(collector, solutions, startTime);
+        return solutions;
+    }
+
+    /**
+     * Shuts down the worker threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // Finishes the attached progress, if any, and records the merged counters
+    // of the workers in the attached statistics, if any. 'collector' is null
+    // if no subproblem was searched.
+    private void finish(StatisticsCollector collector,
+                        long solutions,
+                        long startTime) {
+        SearchProgress progress = limits.getProgress();
+        // The workers have added their nodes to the progress already.
+        limits.finish(progress == null ? 0L : progress.getNodeCount());
+
+        if (statistics == null) {
+            return;
+        }
+
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        if (collector == null) {
+            statistics.record(0L, 0L, 0, 0L, 0L, elapsedNanos, solutions,
+                              lastStatus);
+            return;
+        }
+
+        statistics.record(collector.nodeCount.get(),
+                          collector.backtrackCount.get(),
+                          collector.maximumDepth.get(),
+                          collector.propagatedCellCount.get(),
+                          collector.eliminatedCandidateCount.get(),
+                          elapsedNanos,
+                          solutions,
+                          lastStatus);
+    }
+
+    private void checkSudokuDimension(Sudoku sudoku) {
+        if (sudoku.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + sudoku.getDimension() +
+                    ", while this solver expects " + dimension + ".");
+        }
+    }
+
+    // Expands the top of the search tree of 'input' into 'frontier' on the
+    // calling thread. Subproblems solved by the propagation on the way are
+    // counted instead of being added; the first of them is written to
+    // 'solution' unless it is null. Stops early once 'limit' solutions are
+    // found. Returns the number of solutions found.
+    private long expand(Sudoku input,
+                        List<Sudoku> frontier,
+                        Sudoku solution,
+                        long limit) {
+        Objects.requireNonNull(input, "The input sudoku is null.");
+        checkSudokuDimension(input);
+
+        // Loading the input into the splitter validates it.
+        Sudoku root = new Sudoku(input);
+        long solutions = 0L;
+
+        if (splitter.split(root, frontier) == 0) {
+            if (solution != null) {
+                solution.copyFrom(root);
+            }
+
+            return 1L;
+        }
+
+        int targetSize = SUBPROBLEMS_PER_WORKER * getParallelism();
+
+        for (int depth = 1;
+                depth < MAXIMUM_SPLIT_DEPTH
+                && !frontier.isEmpty()
+                && frontier.size() < targetSize;
+                ++depth) {
+            List<Sudoku> nextFrontier = new ArrayList<>();
+
+            for (Sudoku subproblem : frontier) {
+                if (splitter.split(subproblem, nextFrontier) != 0) {
+                    continue;
+                }
+
+                if (solutions == 0L && solution != null) {
+                    solution.copyFrom(subproblem);
+                }
+
+                if (++solutions == limit) {
+                    return solutions;
+                }
+            }
+
+            frontier.clear();
+            frontier.addAll(nextFrontier);
+        }
+
+        return solutions;
+    }
+
+    // Runs the tasks on the pool. If the calling thread is interrupted in the
+    // meantime, cancels them through 'token', waits for them to stop and
+    // returns false, with the interrupt status of the thread set again.
+    private boolean invokeAll(List<RecursiveAction> tasks,
+                              CancellationToken token) {
+        ForkJoinTask<Void> all = pool.submit(new RecursiveAction() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+
+        try {
+            all.get();
+            return true;
+        } catch (InterruptedException ex) {
+            token.cancel();
+            all.quietlyJoin();
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // Returns the status of a parallel search that found 'solutions' < limit
+    // solutions.
+    private SolveStatus getStatus(boolean interrupted,
+                                  AtomicReference<SolveStatus> stopStatus,
+                                  long solutions) {
+        if (interrupted) {
+            return SolveStatus.INTERRUPTED;
+        }
+
+        CancellationToken userToken = limits.getCancellationToken();
+
+        if (userToken != null && userToken.isCancelled()) {
+            return SolveStatus.CANCELLED;
+        }
+
+        if (stopStatus.get() != null) {
+            return stopStatus.get();
+        }
+
+        return solutions > 0L ? SolveStatus.SOLVED : SolveStatus.NO_SOLUTION;
+    }
+
+    // Prepares the solver of a worker thread for a subproblem. The worker
+    // statistics are attached only while the solve collects them, and the
+    // worker progress only while a progress object is attached.
+    private void configure(Worker worker,
+                           CancellationToken token,
+                           StatisticsCollector collector) {
+        SudokuSolver solver = worker.solver;
+        solver.setCancellationToken(token);
+        solver.setTimeLimit(limits.getRemainingTime());
+        solver.setNodeLimit(limits.getNodeLimit());
+        solver.setStatistics(collector == null ? null : worker.statistics);
+        SearchProgress progress = limits.getProgress();
+
+        if (progress != null && (worker.progress == null ||
+                                 worker.progress.getParent() != progress)) {
+            worker.progress = new SearchProgress(progress);
+        }
+
+        solver.setProgress(progress == null ? null : worker.progress);
+    }
+
+    // Adds the counters of the subproblem the worker has just searched to
+    // the collector, if any, and resets the solver of the worker.
+    private static void finish(Worker worker, StatisticsCollector collector) {
+        SudokuSolver solver = worker.solver;
+
+        if (collector != null) {
+            collector.add(worker.statistics);
+        }
+
+        solver.setCancellationToken(null);
+        solver.setTimeLimit(null);
+        solver.setNodeLimit(Long.MAX_VALUE);
+        solver.setStatistics(null);
+        solver.setProgress(null);
+    }
+
+    // Records the status of a worker's solve if it was stopped early.
+    private static void recordStopStatus(
+            SudokuSolver solver,
+            AtomicReference<SolveStatus> stopStatus) {
+        if (!solver.getLastStatus().isComplete()) {
+            stopStatus.compareAndSet(null, solver.getLastStatus());
+        }
+    }
+
+    private static SudokuSolver createSolver(int dimension) {
+        SudokuSolver solver = new SudokuSolver(dimension);
+        solver.setSearchStrategy(
+                SudokuSolver.SearchStrategy.MINIMUM_REMAINING_VALUES);
+        return solver;
+    }
+
+    private final class SolveTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Sudoku subproblem;
+        private final CancellationToken token;
+        private final AtomicReference<Sudoku> solution;
+        private final AtomicReference<SolveStatus> stopStatus;
+        private final StatisticsCollector collector;
+
+        SolveTask(Sudoku subproblem,
+                  CancellationToken token,
+                  AtomicReference<Sudoku> solution,
+                  AtomicReference<SolveStatus> stopStatus,
+                  StatisticsCollector collector) {
+            this.subproblem = subproblem;
+            this.token = token;
+            this.solution = solution;
+            this.stopStatus = stopStatus;
+            this.collector = collector;
+        }
+
+        @Override
+        protected void compute() {
+            if (token.isCancelled()) {
+                return;
+            }
+
+            Worker worker = workers.get();
+            SudokuSolver solver = worker.solver;
+            configure(worker, token, collector);
+
+            try {
+                // The subproblem serves as its own output buffer.
+                if (solver.solve(subproblem, subproblem)
+                        && solution.compareAndSet(null, subproblem)) {
+                    token.cancel();
+                }
+
+                recordStopStatus(solver, stopStatus);
+            } finally {
+                finish(worker, collector);
+            }
+        }
+    }
+
+    private final class CountTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Sudoku subproblem;
+        private final long limit;
+        private final CancellationToken token;
+        private final AtomicLong counter;
+        private final AtomicReference<SolveStatus> stopStatus;
+        private final StatisticsCollector collector;
+
+        CountTask(Sudoku subproblem,
+                  long limit,
+                  CancellationToken token,
+                  AtomicLong counter,
+                  AtomicReference<SolveStatus> stopStatus,
+                  StatisticsCollector collector) {
+            this.subproblem = subproblem;
+            this.limit = limit;
+            this.token = token;
+            this.counter = counter;
+            this.stopStatus = stopStatus;
+            this.collector = collector;
+        }
+
+        @Override
+        protected void compute() {
+            if (token.isCancelled()) {
+                return;
+            }
+
+            Worker worker = workers.get();
+            SudokuSolver solver = worker.solver;
+            configure(worker, token, collector);
+
+            try {
+                long solutions = solver.countSolutions(subproblem, limit);
+
+                if (counter.addAndGet(solutions) >= limit) {
+                    token.cancel();
+                }
+
+                recordStopStatus(solver, stopStatus);
+            } finally {
+                finish(worker, collector);
+            }
+        }
+    }
+
+    /**
+     * The solver of a worker thread with the statistics and the progress it
+     * fills in.
+     */
+    private static final class Worker {
+
+        final SudokuSolver solver;
+        final SolverStatistics statistics = new SolverStatistics();
+        SearchProgress progress;
+
+        Worker(SudokuSolver solver) {
+            this.solver = solver;
+        }
+    }
+
+    /**
+     * Sums up the statistics of the subproblems of one solve, searched on
+     * several threads at a time.
+     */
+    private static final class StatisticsCollector {
+
+        final AtomicLong nodeCount = new AtomicLong();
+        final AtomicLong backtrackCount = new AtomicLong();
+        final AtomicInteger maximumDepth = new AtomicInteger();
+        final AtomicLong propagatedCellCount = new AtomicLong();
+        final AtomicLong eliminatedCandidateCount = new AtomicLong();
+
+        void add(SolverStatistics statistics) {
+            nodeCount.addAndGet(statistics.getNodeCount());
+            backtrackCount.addAndGet(statistics.getBacktrackCount());
+            maximumDepth.accumulateAndGet(statistics.getMaximumDepth(),
+                                          Math::max);
+            propagatedCellCount.addAndGet(
+                    statistics.getPropagatedCellCount());
+            eliminatedCandidateCount.addAndGet(
+                    statistics.getEliminatedCandidateCount());
+        }
+    }
+}
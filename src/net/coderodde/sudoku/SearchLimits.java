@@ -0,0 +1,160 @@
+package net.coderodde.sudoku;
+
+import java.time.Duration;
+
+/**
+ * This class holds the limits of the searches of an engine and checks them
+ * while a search runs. The search counts its nodes and calls
+ * {@link #check(long)} only when the count reaches the value returned by
+ * {@link #nextCheck(long)}, that is, once per {@value #CHECK_PERIOD} nodes
+ * and exactly at the node limit, so the check costs one comparison per node.
+ * The same checks publish the node count to the attached
+ * {@link SearchProgress}, if any.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class SearchLimits {
+
+    /**
+     * The number of nodes between two checks. Even on small boards a node
+     * takes far longer than reading the clock, so checking this often is
+     * cheap and keeps the deadlines accurate on large boards too.
+     */
+    static final int CHECK_PERIOD = 64;
+
+    private Duration timeLimit;
+    private long nodeLimit = Long.MAX_VALUE;
+    private CancellationToken cancellationToken;
+    private SearchProgress progress;
+
+    // The deadline of the running search, if it has a time limit.
+    private long deadline;
+
+    Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    void setTimeLimit(Duration timeLimit) {
+        if (timeLimit != null && timeLimit.isNegative()) {
+            throw new IllegalArgumentException(
+                    "The time limit (" + timeLimit + ") is negative.");
+        }
+
+        this.timeLimit = timeLimit;
+    }
+
+    long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    void setNodeLimit(long nodeLimit) {
+        if (nodeLimit < 0L) {
+            throw new IllegalArgumentException(
+                    "The node limit (" + nodeLimit + ") is negative.");
+        }
+
+        this.nodeLimit = nodeLimit;
+    }
+
+    CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    SearchProgress getProgress() {
+        return progress;
+    }
+
+    void setProgress(SearchProgress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Starts the clock of a new solve.
+     */
+    void start() {
+        if (timeLimit != null) {
+            deadline = System.nanoTime() + toNanos(timeLimit);
+        }
+
+        if (progress != null) {
+            progress.start();
+        }
+    }
+
+    /**
+     * Ends the solve started last, publishing its final node count.
+     *
+     * @param nodes the number of nodes the search tried.
+     */
+    void finish(long nodes) {
+        if (progress != null) {
+            progress.finish(nodes);
+        }
+    }
+
+    /**
+     * Returns the time left until the deadline of the solve started last.
+     *
+     * @return the remaining time, or {@code null} if there is no time limit.
+     */
+    Duration getRemainingTime() {
+        if (timeLimit == null) {
+            return null;
+        }
+
+        return Duration.ofNanos(Math.max(0L, deadline - System.nanoTime()));
+    }
+
+    /**
+     * Returns the node count at which to call {@link #check(long)} next.
+     */
+    long nextCheck(long nodes) {
+        long periodEnd = nodes + CHECK_PERIOD;
+        return nodeLimit < periodEnd ? nodeLimit + 1L : periodEnd;
+    }
+
+    /**
+     * Checks the limits, the cancellation token and the interrupt status of
+     * the calling thread.
+     *
+     * @param nodes the number of nodes the search has tried, including the
+     *              one it is about to try.
+     * @return the status to stop with, or {@code null} to go on.
+     */
+    SolveStatus check(long nodes) {
+        if (progress != null) {
+            progress.update(nodes);
+        }
+
+        if (nodes > nodeLimit) {
+            return SolveStatus.NODE_LIMIT_REACHED;
+        }
+
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            return SolveStatus.CANCELLED;
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+            return SolveStatus.INTERRUPTED;
+        }
+
+        if (timeLimit != null && System.nanoTime() - deadline >= 0L) {
+            return SolveStatus.TIMED_OUT;
+        }
+
+        return null;
+    }
+
+    private static long toNanos(Duration duration) {
+        try {
+            return Math.min(duration.toNanos(), Long.MAX_VALUE / 2);
+        } catch (ArithmeticException ex) {
+            return Long.MAX_VALUE / 2;
+        }
+    }
+}
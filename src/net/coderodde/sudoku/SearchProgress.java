@@ -0,0 +1,93 @@
+package net.coderodde.sudoku;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class lets another thread watch a running solve. An engine it is
+ * attached to with {@link SudokuEngine#setProgress(SearchProgress)} publishes
+ * its node count here whenever it checks its limits, that is, once per a few
+ * dozen nodes, so the count lags slightly behind while the search runs and is
+ * exact once it has finished. The count of a {@link ParallelSudokuSolver} is
+ * the sum over its worker threads.
+ * <p>
+ * The solving thread writes and any thread reads. Attach a progress object
+ * to one engine at a time.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SearchProgress {
+
+    /**
+     * Receives the nodes counted here as well, or {@code null}. Lets each
+     * worker of a parallel solve report to a progress object of its own while
+     * another thread watches the total.
+     */
+    private final SearchProgress parent;
+    private final AtomicLong nodeCount = new AtomicLong();
+    private volatile long startNanos;
+    private volatile long elapsedNanos;
+    private volatile boolean running;
+
+    public SearchProgress() {
+        this(null);
+    }
+
+    SearchProgress(SearchProgress parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Returns the number of search nodes the current or last solve has tried
+     * so far.
+     *
+     * @return the node count.
+     */
+    public long getNodeCount() {
+        return nodeCount.get();
+    }
+
+    /**
+     * Returns the time the current solve has been running, or the time the
+     * last one took.
+     *
+     * @return the elapsed time.
+     */
+    public Duration getElapsedTime() {
+        if (running) {
+            return Duration.ofNanos(System.nanoTime() - startNanos);
+        }
+
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    SearchProgress getParent() {
+        return parent;
+    }
+
+    void start() {
+        nodeCount.set(0L);
+        elapsedNanos = 0L;
+        startNanos = System.nanoTime();
+        running = true;
+    }
+
+    void update(long nodes) {
+        long previous = nodeCount.getAndSet(nodes);
+
+        if (parent != null) {
+            parent.nodeCount.addAndGet(nodes - previous);
+        }
+    }
+
+    void finish(long nodes) {
+        update(nodes);
+        elapsedNanos = System.nanoTime() - startNanos;
+        running = false;
+    }
+}
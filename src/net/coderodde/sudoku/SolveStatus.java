@@ -0,0 +1,60 @@
+package net.coderodde.sudoku;
+
+/**
+ * This enumeration lists the outcomes of a solve, as reported by
+ * {@link SudokuEngine#getLastStatus()}. The searches never throw when they
+ * stop early; they return no solution, or the solutions counted so far, and
+ * set one of the statuses for which {@link #isComplete()} is {@code false}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public enum SolveStatus {
+
+    /**
+     * A solution was found. After counting solutions: at least one was found
+     * and the count is exact up to the limit.
+     */
+    SOLVED(true),
+
+    /**
+     * The whole search space was searched and there is no solution.
+     */
+    NO_SOLUTION(true),
+
+    /**
+     * The search ran out of its time limit.
+     */
+    TIMED_OUT(false),
+
+    /**
+     * The search ran out of its node limit.
+     */
+    NODE_LIMIT_REACHED(false),
+
+    /**
+     * The cancellation token of the engine was cancelled.
+     */
+    CANCELLED(false),
+
+    /**
+     * The solving thread was interrupted. Its interrupt status is left set.
+     */
+    INTERRUPTED(false);
+
+    private final boolean complete;
+
+    private SolveStatus(boolean complete) {
+        this.complete = complete;
+    }
+
+    /**
+     * Returns {@code true} if the search ran to its end, that is, its result
+     * is definitive.
+     *
+     * @return {@code true} for {@link #SOLVED} and {@link #NO_SOLUTION}.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,231 @@
+package net.coderodde.sudoku;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class aggregates the {@link SolverStatistics} of any number of
+ * engines, possibly running on different threads, into totals, maxima and a
+ * latency histogram. Recording is lock-free. The metrics can be exported to
+ * the platform MBean server with {@link #register(String)}, for example:
+ * <pre>
+ *   SolverMetrics metrics = new SolverMetrics();
+ *   metrics.register("solver");
+ *
+ *   SudokuEngine engine = SudokuEngine.forDimension(9);
+ *   engine.setStatistics(new SolverStatistics(metrics));
+ * </pre>
+ * after which they show up in a JMX console under
+ * {@code net.coderodde.sudoku:type=SolverMetrics,name=solver}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SolverMetrics implements SolverMetricsMXBean {
+
+    private static final String DOMAIN = "net.coderodde.sudoku";
+
+    private final LongAdder solveCount = new LongAdder();
+    private final LongAdder solvedCount = new LongAdder();
+    private final LongAdder stoppedCount = new LongAdder();
+    private final LongAdder nodeCount = new LongAdder();
+    private final LongAdder backtrackCount = new LongAdder();
+    private final LongAdder propagatedCellCount = new LongAdder();
+    private final LongAdder eliminatedCandidateCount = new LongAdder();
+    private final AtomicLong maximumNodeCount = new AtomicLong();
+    private final AtomicInteger maximumDepth = new AtomicInteger();
+
+    // Replaced as a whole on reset, as the histogram cannot be cleared
+    // atomically.
+    private volatile LatencyHistogram latencies = new LatencyHistogram();
+    private volatile long startTime = System.nanoTime();
+    private ObjectName objectName;
+
+    /**
+     * Registers these metrics with the platform MBean server.
+     *
+     * @param name the value of the {@code name} key of the object name.
+     * @throws IllegalStateException if these metrics are registered already
+     *                               or the name is taken.
+     */
+    public synchronized void register(String name) {
+        if (objectName != null) {
+            throw new IllegalStateException(
+                    "The metrics are registered already as " + objectName +
+                    ".");
+        }
+
+        try {
+            ObjectName candidate = new ObjectName(
+                    DOMAIN + ":type=SolverMetrics,name=" +
+                    ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer()
+                             .registerMBean(this, candidate);
+            objectName = candidate;
+        } catch (JMException ex) {
+            throw new IllegalStateException(
+                    "Cannot register the metrics as \"" + name + "\": " +
+                    ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server, if
+     * registered.
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException ex) {
+            // Unregistered by someone else; nothing to do.
+        }
+
+        objectName = null;
+    }
+
+    /**
+     * Returns the histogram of the solve latencies in nanoseconds.
+     *
+     * @return the latency histogram.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public long getSolveCount() {
+        return solveCount.sum();
+    }
+
+    @Override
+    public long getSolvedCount() {
+        return solvedCount.sum();
+    }
+
+    @Override
+    public long getStoppedCount() {
+        return stoppedCount.sum();
+    }
+
+    @Override
+    public long getNodeCount() {
+        return nodeCount.sum();
+    }
+
+    @Override
+    public long getBacktrackCount() {
+        return backtrackCount.sum();
+    }
+
+    @Override
+    public long getPropagatedCellCount() {
+        return propagatedCellCount.sum();
+    }
+
+    @Override
+    public long getEliminatedCandidateCount() {
+        return eliminatedCandidateCount.sum();
+    }
+
+    @Override
+    public long getMaximumNodeCount() {
+        return maximumNodeCount.get();
+    }
+
+    @Override
+    public int getMaximumDepth() {
+        return maximumDepth.get();
+    }
+
+    @Override
+    public double getSolvesPerSecond() {
+        long elapsed = System.nanoTime() - startTime;
+        return elapsed <= 0L ? 0.0 : getSolveCount() * 1e9 / elapsed;
+    }
+
+    @Override
+    public double getMeanLatencyMicros() {
+        return latencies.getMean() / 1e3;
+    }
+
+    @Override
+    public double getLatencyP50Micros() {
+        return latencies.getPercentile(50.0) / 1e3;
+    }
+
+    @Override
+    public double getLatencyP90Micros() {
+        return latencies.getPercentile(90.0) / 1e3;
+    }
+
+    @Override
+    public double getLatencyP99Micros() {
+        return latencies.getPercentile(99.0) / 1e3;
+    }
+
+    @Override
+    public double getLatencyP999Micros() {
+        return latencies.getPercentile(99.9) / 1e3;
+    }
+
+    @Override
+    public double getMaximumLatencyMicros() {
+        return latencies.getMaximum() / 1e3;
+    }
+
+    /**
+     * {@inheritDoc} Solves recorded concurrently with the reset may be
+     * partially lost.
+     */
+    @Override
+    public void reset() {
+        solveCount.reset();
+        solvedCount.reset();
+        stoppedCount.reset();
+        nodeCount.reset();
+        backtrackCount.reset();
+        propagatedCellCount.reset();
+        eliminatedCandidateCount.reset();
+        maximumNodeCount.set(0L);
+        maximumDepth.set(0);
+        latencies = new LatencyHistogram();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Adds the counters of a finished solve.
+     */
+    void record(SolverStatistics statistics) {
+        solveCount.increment();
+
+        if (statistics.getSolutionCount() > 0L) {
+            solvedCount.increment();
+        }
+
+        if (!statistics.getStatus().isComplete()) {
+            stoppedCount.increment();
+        }
+
+        nodeCount.add(statistics.getNodeCount());
+        backtrackCount.add(statistics.getBacktrackCount());
+        propagatedCellCount.add(statistics.getPropagatedCellCount());
+        eliminatedCandidateCount.add(
+                statistics.getEliminatedCandidateCount());
+        maximumNodeCount.accumulateAndGet(statistics.getNodeCount(),
+                                          Math::max);
+        maximumDepth.accumulateAndGet(statistics.getMaximumDepth(),
+                                      Math::max);
+        latencies.record(statistics.getElapsedNanos());
+    }
+}
@@ -0,0 +1,66 @@
+package net.coderodde.sudoku;
+
+/**
+ * This interface defines the management view of {@link SolverMetrics}, as
+ * exported through JMX. The latencies are in microseconds.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public interface SolverMetricsMXBean {
+
+    long getSolveCount();
+
+    long getSolvedCount();
+
+    /**
+     * Returns the number of solves stopped early by a time or node limit, a
+     * cancellation or an interrupt.
+     *
+     * @return the stopped solve count.
+     */
+    long getStoppedCount();
+
+    long getNodeCount();
+
+    long getBacktrackCount();
+
+    long getPropagatedCellCount();
+
+    long getEliminatedCandidateCount();
+
+    /**
+     * Returns the largest number of search nodes a single solve took. The
+     * pathological inputs stand out here.
+     *
+     * @return the maximum node count.
+     */
+    long getMaximumNodeCount();
+
+    int getMaximumDepth();
+
+    /**
+     * Returns the number of solves per second since the creation or the last
+     * reset of the metrics.
+     *
+     * @return the throughput.
+     */
+    double getSolvesPerSecond();
+
+    double getMeanLatencyMicros();
+
+    double getLatencyP50Micros();
+
+    double getLatencyP90Micros();
+
+    double getLatencyP99Micros();
+
+    double getLatencyP999Micros();
+
+    double getMaximumLatencyMicros();
+
+    /**
+     * Sets all the counters back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,165 @@
+package net.coderodde.sudoku;
+
+/**
+ * This class holds the counters of the last solve of an engine it is
+ * attached to with {@link SudokuEngine#setStatistics(SolverStatistics)}.
+ * The engines count in local variables and copy the counters here once per
+ * solve, so collecting them costs next to nothing, and nothing at all while
+ * no statistics object is attached. If constructed with a
+ * {@link SolverMetrics}, every solve is also added to its aggregates.
+ * <p>
+ * Like the engines, instances are not thread-safe; give each engine its own
+ * and share the metrics instead.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SolverStatistics {
+
+    private final SolverMetrics metrics;
+
+    private long nodeCount;
+    private long backtrackCount;
+    private int maximumDepth;
+    private long propagatedCellCount;
+    private long eliminatedCandidateCount;
+    private long elapsedNanos;
+    private long solutionCount;
+    private SolveStatus status;
+
+    /**
+     * Constructs statistics that are not aggregated anywhere.
+     */
+    public SolverStatistics() {
+        this(null);
+    }
+
+    /**
+     * Constructs statistics adding every solve to the given metrics.
+     *
+     * @param metrics the metrics, or {@code null} for none.
+     */
+    public SolverStatistics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the number of search nodes, that is, the number of values the
+     * search tried at branching cells.
+     *
+     * @return the node count.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of times the search ran out of values at a branching
+     * cell and returned to the previous one.
+     *
+     * @return the backtrack count.
+     */
+    public long getBacktrackCount() {
+        return backtrackCount;
+    }
+
+    /**
+     * Returns the largest number of nested branching cells.
+     *
+     * @return the maximum depth, 0 if the search did not branch.
+     */
+    public int getMaximumDepth() {
+        return maximumDepth;
+    }
+
+    /**
+     * Returns the number of cells filled by the propagation, including those
+     * within abandoned branches. Zero for the engines without propagation.
+     *
+     * @return the propagated cell count.
+     */
+    public long getPropagatedCellCount() {
+        return propagatedCellCount;
+    }
+
+    /**
+     * Returns the number of candidates eliminated by the pair and
+     * intersection techniques, including those within abandoned branches.
+     * Zero unless the propagation level is
+     * {@link SudokuSolver.PropagationLevel#FULL}.
+     *
+     * @return the eliminated candidate count.
+     */
+    public long getEliminatedCandidateCount() {
+        return eliminatedCandidateCount;
+    }
+
+    /**
+     * Returns the wall time of the solve, without the argument checks.
+     *
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of solutions found: 0 or 1 after a solve, up to the
+     * limit after counting solutions.
+     *
+     * @return the solution count.
+     */
+    public long getSolutionCount() {
+        return solutionCount;
+    }
+
+    /**
+     * Returns the status of the solve.
+     *
+     * @return the status, or {@code null} before the first solve.
+     */
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "[nodes: " + nodeCount +
+               ", backtracks: " + backtrackCount +
+               ", maximum depth: " + maximumDepth +
+               ", propagated cells: " + propagatedCellCount +
+               ", eliminated candidates: " + eliminatedCandidateCount +
+               ", elapsed: " + elapsedNanos / 1000L + " us" +
+               ", solutions: " + solutionCount +
+               ", status: " + status + "]";
+    }
+
+    /**
+     * Stores the counters of a finished solve and adds it to the metrics.
+     */
+    void record(long nodeCount,
+                long backtrackCount,
+                int maximumDepth,
+                long propagatedCellCount,
+                long eliminatedCandidateCount,
+                long elapsedNanos,
+                long solutionCount,
+                SolveStatus status) {
+        this.nodeCount = nodeCount;
+        this.backtrackCount = backtrackCount;
+        this.maximumDepth = maximumDepth;
+        this.propagatedCellCount = propagatedCellCount;
+        this.eliminatedCandidateCount = eliminatedCandidateCount;
+        this.elapsedNanos = elapsedNanos;
+        this.solutionCount = solutionCount;
+        this.status = status;
+
+        if (metrics != null) {
+            metrics.record(this);
+        }
+    }
+}
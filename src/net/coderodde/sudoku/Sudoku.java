@@ -1,8 +1,14 @@
 package net.coderodde.sudoku;
 
+import java.util.Arrays;
+
 /**
- * This class represents a sudoku matrix. It may be of any dimension and may 
- * contain arbitrary values at each cells.
+ * This class represents a sudoku matrix. It may be of any dimension.
+ * <p>
+ * The cells are stored in row-major order in a single flat array: one byte
+ * per cell for dimensions up to {@value #MAXIMUM_BYTE_DIMENSION}, and one
+ * int per cell above that. A cell holds a value in {@code [0, dimension]},
+ * zero denoting an empty cell; the setters reject any other value.
  * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Feb 25, 2016)
@@ -10,82 +16,156 @@ package net.coderodde.sudoku;
 public class Sudoku {
 
     public static final int MINIMUM_DIMENSION = 1;
-    private final int[][] matrix;
+
+    /**
+     * The largest dimension whose cells are stored in a byte each.
+     */
+    public static final int MAXIMUM_BYTE_DIMENSION = Byte.MAX_VALUE;
+
+    private final int dimension;
+
+    // Exactly one of these is non-null.
+    private final byte[] byteCells;
+    private final int[] intCells;
 
     public Sudoku(int dimension) {
         checkDimension(dimension);
-        this.matrix = new int[dimension][dimension];
+        this.dimension = dimension;
+
+        if (dimension <= MAXIMUM_BYTE_DIMENSION) {
+            this.byteCells = new byte[dimension * dimension];
+            this.intCells = null;
+        } else {
+            this.byteCells = null;
+            this.intCells = new int[dimension * dimension];
+        }
     }
 
     public Sudoku(Sudoku sudoku) {
-        this(sudoku.matrix.length);
-
-        for (int y = 0; y < sudoku.matrix.length; ++y) {
-            this.matrix[y] = sudoku.matrix[y].clone();
-        }
+        this.dimension = sudoku.dimension;
+        this.byteCells = sudoku.byteCells == null ?
+                         null :
+                         sudoku.byteCells.clone();
+        this.intCells = sudoku.intCells == null ?
+                        null :
+                        sudoku.intCells.clone();
     }
 
     public int get(int x, int y) {
-        return matrix[y][x];
+        return getAt(y * dimension + x);
     }
 
+    /**
+     * Sets the value of the cell {@code (x, y)}.
+     *
+     * @param x     the column of the cell.
+     * @param y     the row of the cell.
+     * @param value the value to set, or 0 to empty the cell.
+     * @throws IllegalArgumentException if the value is outside
+     *                                  {@code [0, dimension]}.
+     */
     public void set(int x, int y, int value) {
-        matrix[y][x] = value;
+        setAt(y * dimension + x, value);
     }
 
-    public int getDimension() {
-        return matrix.length;
+    /**
+     * Returns the value of the cell at the given row-major index, that is,
+     * the cell {@code (index % dimension, index / dimension)}.
+     *
+     * @param index the index of the cell.
+     * @return the value of the cell.
+     */
+    public int getAt(int index) {
+        return byteCells != null ? byteCells[index] : intCells[index];
     }
 
-    public boolean isValid() {
-        int dimension = getDimension();
-        int minisquareDimension = getMinisquareDimension();
-        IntSet[] rowSetArray    = new IntSet[dimension];
-        IntSet[] columnSetArray = new IntSet[dimension];
-        IntSet[][] minisquareSetMatrix = new IntSet[minisquareDimension]
-                                                   [minisquareDimension];
-
-        for (int i = 0; i < dimension; ++i) {
-            rowSetArray[i]    = new IntSet(dimension + 1);
-            columnSetArray[i] = new IntSet(dimension + 1);
+    /**
+     * Sets the value of the cell at the given row-major index.
+     *
+     * @param index the index of the cell.
+     * @param value the value to set, or 0 to empty the cell.
+     * @throws IllegalArgumentException if the value is outside
+     *                                  {@code [0, dimension]}.
+     */
+    public void setAt(int index, int value) {
+        if (value < 0 || value > dimension) {
+            throw new IllegalArgumentException(
+                    "The cell value " + value + " is out of range [0, " +
+                    dimension + "].");
         }
 
-        for (int squareY = 0; squareY < minisquareDimension; ++squareY) {
-            for (int squareX = 0; squareX < minisquareDimension; ++squareX) {
-                minisquareSetMatrix[squareY]
-                                   [squareX] = new IntSet(dimension + 1);
-            }
+        if (byteCells != null) {
+            byteCells[index] = (byte) value;
+        } else {
+            intCells[index] = value;
         }
+    }
 
-        for (int y = 0; y < dimension; ++y) {
-            for (int x = 0; x < dimension; ++x) {
-                int currentValue = get(x, y);
-
-                if (rowSetArray[y].contains(currentValue)
-                        || columnSetArray[x].contains(currentValue)) {
-                    return false;
-                }
+    /**
+     * Copies all the cells of {@code source} into this sudoku.
+     *
+     * @param source the sudoku to copy.
+     * @throws IllegalArgumentException if the dimensions differ.
+     */
+    public void copyFrom(Sudoku source) {
+        if (source.dimension != dimension) {
+            throw new IllegalArgumentException(
+                    "The source sudoku has dimension " + source.dimension +
+                    ", while this sudoku has dimension " + dimension + ".");
+        }
 
-                int squareX = x / minisquareDimension;
-                int squareY = y / minisquareDimension;
+        if (byteCells != null) {
+            System.arraycopy(source.byteCells, 0,
+                             byteCells, 0,
+                             byteCells.length);
+        } else {
+            System.arraycopy(source.intCells, 0,
+                             intCells, 0,
+                             intCells.length);
+        }
+    }
 
-                if (minisquareSetMatrix[squareY]
-                                       [squareX].contains(currentValue)) {
-                    return false;
-                }
-            }
+    /**
+     * Sets all the cells to zero.
+     */
+    public void clear() {
+        if (byteCells != null) {
+            Arrays.fill(byteCells, (byte) 0);
+        } else {
+            Arrays.fill(intCells, 0);
         }
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getCellCount() {
+        return dimension * dimension;
+    }
 
-        return true;
+    /**
+     * Tells whether no value is duplicated in a row, a column or a minisquare
+     * of this sudoku. Empty cells are allowed, so a puzzle is valid as long
+     * as its givens do not conflict. Each call allocates a new
+     * {@link SudokuValidator}; callers checking many sudokus should keep one
+     * of their own and call {@link SudokuValidator#isConsistent(Sudoku)}.
+     *
+     * @return {@code true} if there are no duplicates.
+     * @throws IllegalArgumentException if the dimension is not the square of
+     *                                  a positive integer.
+     */
+    public boolean isValid() {
+        return new SudokuValidator(dimension).isConsistent(this);
     }
 
     @Override
     public String toString() {
-        String maximumCellValueString = "" + matrix.length;
+        String maximumCellValueString = "" + dimension;
         int fieldLength = maximumCellValueString.length();
         StringBuilder sb = new StringBuilder();
 
-        for (int y = 0; y < matrix.length; ++y) {
+        for (int y = 0; y < dimension; ++y) {
             sb.append(rowToString(y, fieldLength));
             sb.append('\n');
         }
@@ -96,10 +176,10 @@ public class Sudoku {
     private String rowToString(int y, int fieldLength) {
         StringBuilder sb = new StringBuilder();
 
-        for (int x = 0; x < matrix.length; ++x) {
+        for (int x = 0; x < dimension; ++x) {
             sb.append(String.format("%" + fieldLength + "d", get(x, y)));
 
-            if (x < matrix.length - 1) {
+            if (x < dimension - 1) {
                 sb.append(' ');
             }
         }
@@ -107,29 +187,41 @@ public class Sudoku {
         return sb.toString();
     } 
 
-    private void checkDimension(int dimension) {
+    /**
+     * Checks that {@code dimension} is {@code k * k} for some positive
+     * integer {@code k}, which means that the sudoku can be divided into
+     * minisquares. For example, if the dimension is 9, the dimension of a
+     * minisquare is 3.
+     *
+     * @param dimension the dimension to check.
+     * @return the dimension of a minisquare.
+     * @throws IllegalArgumentException if the dimension is not the square of
+     *                                  a positive integer.
+     */
+    static int checkSquareDimension(int dimension) {
         if (dimension < MINIMUM_DIMENSION) {
             throw new IllegalArgumentException(
-                    "The input dimension is too low: " + dimension + 
-                    ", should be at least " + MINIMUM_DIMENSION + ".");
-        } 
-    }
+                    "The requested sudoku dimension (" + dimension +
+                    ") is too small. Must be at least " + MINIMUM_DIMENSION +
+                    ".");
+        }
 
-    private int getMinisquareDimension() {
-        int i = 1;
-        int dimension = getDimension();
+        int root = (int) Math.round(Math.sqrt(dimension));
 
-        while (i * i < dimension) {
-            ++i;
+        if ((long) root * root != dimension) {
+            throw new IllegalArgumentException(
+                    "The requested sudoku dimension (" + dimension +
+                    ") is not a square of a positive integer.");
         }
 
-        if (i * i > dimension) {
-            throw new IllegalStateException(
-                    "Impossible to form minisquares: " +
-                    "the dimension of this sudoku (" + dimension + ") is not " +
-                    "a square of a positive integer");
-        }
+        return root;
+    }
 
-        return i;
+    private void checkDimension(int dimension) {
+        if (dimension < MINIMUM_DIMENSION) {
+            throw new IllegalArgumentException(
+                    "The input dimension is too low: " + dimension + 
+                    ", should be at least " + MINIMUM_DIMENSION + ".");
+        } 
     }
 }
@@ -0,0 +1,312 @@
+package net.coderodde.sudoku;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * This class solves many sudokus in a row, writing the solutions into
+ * caller-provided output sudokus. It keeps one engine per dimension seen
+ * last, so after the first puzzle of a given dimension the solving itself
+ * does not allocate.
+ * <p>
+ * A sudoku whose givens contradict each other is treated like any other
+ * unsolvable one: before solving, the givens are checked with a
+ * {@link SudokuValidator}, and on a duplicate in a row, a column or a
+ * minisquare the output is set to all zeros, so one bad puzzle does not abort
+ * a batch. Engines of variants with irregular regions are not prechecked, as
+ * the validator knows only minisquares; they, like the engines of variants
+ * with extra rules, throw {@link IllegalArgumentException} for givens
+ * breaking the rules the validator does not know.
+ * <p>
+ * Instances are not thread-safe; use {@link #forCurrentThread()} to obtain
+ * the instance confined to the calling thread.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuBatchSolver {
+
+    private static final ThreadLocal<SudokuBatchSolver> THREAD_SOLVERS =
+            ThreadLocal.withInitial(SudokuBatchSolver::new);
+
+    private final IntFunction<SudokuEngine> engineFactory;
+    private SudokuEngine engine;
+
+    /**
+     * Checks the givens for the engine, or {@code null} if the engine does
+     * not obey the standard rules.
+     */
+    private SudokuValidator validator;
+    private SolveStatus lastStatus;
+
+    private int lastBatchSize;
+    private int lastSolvedCount;
+    private long lastAllocatedBytes = -1L;
+
+    /**
+     * Constructs a batch solver creating its engines with
+     * {@link SudokuEngine#forDimension(int)}.
+     */
+    public SudokuBatchSolver() {
+        this(SudokuEngine::forDimension);
+    }
+
+    /**
+     * Constructs a batch solver creating its engines with the given factory.
+     *
+     * @param engineFactory maps a dimension to a new engine.
+     */
+    public SudokuBatchSolver(IntFunction<SudokuEngine> engineFactory) {
+        this.engineFactory = Objects.requireNonNull(
+                engineFactory,
+                "The engine factory is null.");
+    }
+
+    /**
+     * Returns the batch solver of the calling thread.
+     *
+     * @return the batch solver confined to the calling thread.
+     */
+    public static SudokuBatchSolver forCurrentThread() {
+        return THREAD_SOLVERS.get();
+    }
+
+    /**
+     * Solves {@code inputs[i]} into {@code outputs[i]} for each {@code i}.
+     * The output of an unsolvable input, contradictory givens included, is
+     * set to all zeros.
+     *
+     * @param inputs  the sudokus to solve.
+     * @param outputs the sudokus receiving the solutions.
+     * @return the number of solved sudokus.
+     */
+    public int solve(Sudoku[] inputs, Sudoku[] outputs) {
+        checkLengths(inputs.length, outputs.length);
+        long allocatedBefore = getAllocatedBytes();
+        int solved = 0;
+
+        for (int i = 0; i < inputs.length; ++i) {
+            if (solveOne(inputs[i], outputs[i])) {
+                ++solved;
+            }
+        }
+
+        finishBatch(inputs.length, solved, allocatedBefore);
+        return solved;
+    }
+
+    /**
+     * Solves {@code inputs.get(i)} into {@code outputs.get(i)} for each
+     * {@code i}. The output of an unsolvable input, contradictory givens
+     * included, is set to all zeros.
+     *
+     * @param inputs  the sudokus to solve.
+     * @param outputs the sudokus receiving the solutions.
+     * @return the number of solved sudokus.
+     */
+    public int solve(List<Sudoku> inputs, List<Sudoku> outputs) {
+        checkLengths(inputs.size(), outputs.size());
+        long allocatedBefore = getAllocatedBytes();
+        int solved = 0;
+        int size = inputs.size();
+
+        for (int i = 0; i < size; ++i) {
+            if (solveOne(inputs.get(i), outputs.get(i))) {
+                ++solved;
+            }
+        }
+
+        finishBatch(size, solved, allocatedBefore);
+        return solved;
+    }
+
+    /**
+     * Solves each sudoku produced by {@code inputs} into the single reusable
+     * {@code buffer} and hands both to {@code sink} before moving on to the
+     * next input. This lets a stream of any length be solved without
+     * allocating an output per puzzle. The sink must copy the buffer if it
+     * needs to keep the solution.
+     *
+     * @param inputs the sudokus to solve, for example
+     *               {@code stream.iterator()}.
+     * @param buffer the sudoku receiving each solution in turn.
+     * @param sink   the consumer of each input and its solution.
+     * @return the number of solved sudokus.
+     */
+    public int solve(Iterator<Sudoku> inputs,
+                     Sudoku buffer,
+                     BiConsumer<Sudoku, Sudoku> sink) {
+        Objects.requireNonNull(buffer, "The buffer sudoku is null.");
+        Objects.requireNonNull(sink, "The sink is null.");
+        long allocatedBefore = getAllocatedBytes();
+        int count = 0;
+        int solved = 0;
+
+        while (inputs.hasNext()) {
+            Sudoku input = inputs.next();
+            ++count;
+
+            if (solveOne(input, buffer)) {
+                ++solved;
+            }
+
+            sink.accept(input, buffer);
+        }
+
+        finishBatch(count, solved, allocatedBefore);
+        return solved;
+    }
+
+    /**
+     * Solves a single sudoku with the engine kept for its dimension. If the
+     * givens of {@code input} duplicate a value in a row, a column or a
+     * minisquare, {@code output} is set to all zeros and the status is
+     * {@link SolveStatus#NO_SOLUTION}.
+     *
+     * @param input  the sudoku to solve.
+     * @param output the sudoku receiving the solution.
+     * @return {@code true} if a solution was found.
+     * @throws IllegalArgumentException if the dimensions of the sudokus
+     *                                  differ, if the dimension is not the
+     *                                  square of a positive integer, or if
+     *                                  the engine rejects the input.
+     */
+    public boolean solveOne(Sudoku input, Sudoku output) {
+        if (output.getDimension() != input.getDimension()) {
+            throw new IllegalArgumentException(
+                    "The output sudoku has dimension " +
+                    output.getDimension() + ", while the input has " +
+                    input.getDimension() + ".");
+        }
+
+        SudokuEngine engine = getEngine(input.getDimension());
+
+        if (validator != null && !validator.isConsistent(input)) {
+            lastStatus = SolveStatus.NO_SOLUTION;
+            output.clear();
+            return false;
+        }
+
+        boolean solved = engine.solve(input, output);
+        lastStatus = engine.getLastStatus();
+        return solved;
+    }
+
+    /**
+     * Returns the status of the last sudoku solved, or {@code null} if none
+     * was. Tells an unsolvable sudoku from one whose search was stopped by a
+     * limit of the engine.
+     *
+     * @return the status of the last solve.
+     */
+    public SolveStatus getLastStatus() {
+        return lastStatus;
+    }
+
+    /**
+     * Returns the number of sudokus in the last batch.
+     *
+     * @return the size of the last batch.
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Returns the number of sudokus solved in the last batch.
+     *
+     * @return the number of solved sudokus.
+     */
+    public int getLastSolvedCount() {
+        return lastSolvedCount;
+    }
+
+    /**
+     * Returns the number of heap bytes the calling thread allocated during
+     * the last batch, or -1 if the JVM does not support measuring it.
+     *
+     * @return the number of allocated bytes.
+     */
+    public long getLastAllocatedBytes() {
+        return lastAllocatedBytes;
+    }
+
+    /**
+     * Returns the average number of heap bytes allocated per sudoku in the
+     * last batch, or -1 if not available. Zero in the steady state.
+     *
+     * @return the allocated bytes per solve.
+     */
+    public double getLastAllocatedBytesPerSolve() {
+        if (lastAllocatedBytes < 0L || lastBatchSize == 0) {
+            return -1.0;
+        }
+
+        return (double) lastAllocatedBytes / lastBatchSize;
+    }
+
+    SudokuEngine getEngine(int dimension) {
+        if (engine == null || engine.getDimension() != dimension) {
+            Sudoku.checkSquareDimension(dimension);
+            engine = engineFactory.apply(dimension);
+            validator = hasIrregularRegions(engine) ?
+                        null :
+                        new SudokuValidator(dimension);
+        }
+
+        return engine;
+    }
+
+    private static boolean hasIrregularRegions(SudokuEngine engine) {
+        if (engine instanceof CachingSudokuSolver) {
+            engine = ((CachingSudokuSolver) engine).getEngine();
+        }
+
+        return engine instanceof SudokuSolver
+                && ((SudokuSolver) engine).getVariant()
+                                          .hasIrregularRegions();
+    }
+
+    private void checkLengths(int inputs, int outputs) {
+        if (inputs != outputs) {
+            throw new IllegalArgumentException(
+                    "The number of inputs (" + inputs + ") does not match " +
+                    "the number of outputs (" + outputs + ").");
+        }
+    }
+
+    private void finishBatch(int batchSize, int solved, long allocatedBefore) {
+        long allocatedAfter = getAllocatedBytes();
+        lastBatchSize = batchSize;
+        lastSolvedCount = solved;
+        lastAllocatedBytes = allocatedBefore < 0L ?
+                             -1L :
+                             allocatedAfter - allocatedBefore;
+    }
+
+    // Returns the number of bytes allocated so far by the calling thread, or
+    // -1 if not supported by the JVM.
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+
+        com.sun.management.ThreadMXBean sunBean =
+                (com.sun.management.ThreadMXBean) bean;
+
+        if (!sunBean.isThreadAllocatedMemorySupported()
+                || !sunBean.isThreadAllocatedMemoryEnabled()) {
+            return -1L;
+        }
+
+        return sunBean.getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,303 @@
+package net.coderodde.sudoku;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class defines the compact binary format for sudoku corpora. A file
+ * starts with a {@value #HEADER_SIZE}-byte header:
+ * <pre>
+ *   offset  size  contents
+ *        0     4  the magic number "SDKB"
+ *        4     1  the format version, currently 1
+ *        5     1  the number of bits per cell
+ *        6     2  reserved, zero
+ *        8     4  the dimension
+ * </pre>
+ * (all big-endian), followed by fixed-size puzzle records. A record packs the
+ * cells in row-major order, {@link #getBitsPerCell(int)} bits each, least
+ * significant bit first, and is padded to a whole number of bytes. A cell
+ * holds its value in {@code [1, dimension]} or zero for an empty cell. A 9x9
+ * puzzle takes 4 bits per cell and 41 bytes per record; since every record
+ * has the same size, the {@code i}th puzzle can be located without reading
+ * the ones before it.
+ * <p>
+ * Use {@link SudokuBinaryReader} and {@link SudokuBinaryWriter} to read and
+ * write such files, and {@link #convertText(Path, Path, int)} to convert
+ * a corpus in the whitespace-separated text format read by {@link App}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuBinaryFormat {
+
+    /**
+     * The magic number "SDKB" opening every file.
+     */
+    static final int MAGIC = 0x53444B42;
+
+    static final byte VERSION = 1;
+
+    public static final int HEADER_SIZE = 12;
+
+    private static final int CONVERSION_CHUNK_SIZE = 1 << 16;
+
+    private SudokuBinaryFormat() {}
+
+    /**
+     * Returns the number of bits a cell takes on the given dimension, that
+     * is, the number of bits needed to represent the value {@code dimension}.
+     *
+     * @param dimension the sudoku dimension.
+     * @return the number of bits per cell.
+     */
+    public static int getBitsPerCell(int dimension) {
+        return 32 - Integer.numberOfLeadingZeros(dimension);
+    }
+
+    /**
+     * Returns the number of bytes a puzzle record takes on the given
+     * dimension.
+     *
+     * @param dimension the sudoku dimension.
+     * @return the size of a record in bytes.
+     * @throws IllegalArgumentException if the record would exceed
+     *                                  {@link Integer#MAX_VALUE} bytes.
+     */
+    public static int getRecordSize(int dimension) {
+        long recordSize = computeRecordSize(dimension);
+
+        if (recordSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "A record of dimension " + dimension + " does not fit " +
+                    "in " + Integer.MAX_VALUE + " bytes.");
+        }
+
+        return (int) recordSize;
+    }
+
+    /**
+     * Converts a corpus from the text format, in which the cell values of the
+     * puzzles are whitespace-separated integers in row-major order, to the
+     * binary format. Zero denotes an empty cell.
+     *
+     * @param textFile   the file to convert.
+     * @param binaryFile the file to write.
+     * @param dimension  the dimension of the puzzles.
+     * @return the number of puzzles converted.
+     * @throws IOException if reading or writing fails, or if the text
+     *                     contains something else than integers, a value
+     *                     outside {@code [0, dimension]} or ends in the
+     *                     middle of a puzzle.
+     */
+    public static long convertText(Path textFile,
+                                   Path binaryFile,
+                                   int dimension) throws IOException {
+        Sudoku sudoku = new Sudoku(dimension);
+        int cellCount = sudoku.getCellCount();
+        int cell = 0;
+
+        try (InputStream in = Files.newInputStream(textFile);
+             SudokuBinaryWriter writer =
+                     new SudokuBinaryWriter(binaryFile, dimension)) {
+            byte[] chunk = new byte[CONVERSION_CHUNK_SIZE];
+            int chunkLength = 0;
+            int chunkPosition = 0;
+            int value = 0;
+            boolean negative = false;
+            boolean inNumber = false;
+            int b;
+
+            do {
+                if (chunkPosition == chunkLength) {
+                    chunkLength = in.read(chunk);
+                    chunkPosition = 0;
+                }
+
+                b = chunkLength < 0 ? -1 : chunk[chunkPosition++] & 0xFF;
+
+                if (b >= '0' && b <= '9') {
+                    // Saturate instead of overflowing; any large value is
+                    // out of range anyway.
+                    value = Math.min(value * 10 + (b - '0'), 1 << 24);
+                    inNumber = true;
+                    continue;
+                }
+
+                if (inNumber) {
+                    if (negative || value > dimension) {
+                        throw new IOException(
+                                "The value " + (negative ? -value : value) +
+                                " of cell " + (cell + 1) + " of puzzle " +
+                                (writer.getPuzzleCount() + 1) + " is out of " +
+                                "range [0, " + dimension + "].");
+                    }
+
+                    sudoku.setAt(cell, value);
+                    value = 0;
+                    negative = false;
+                    inNumber = false;
+
+                    if (++cell == cellCount) {
+                        writer.write(sudoku);
+                        cell = 0;
+                    }
+                } else if (negative) {
+                    throw new IOException(
+                            "A minus sign is not followed by a digit.");
+                }
+
+                if (b == '-') {
+                    negative = true;
+                } else if (b != -1 && !Character.isWhitespace(b)) {
+                    throw new IOException(
+                            "Unexpected character '" + (char) b + "' in " +
+                            "the text.");
+                }
+            } while (b != -1);
+
+            if (negative) {
+                throw new IOException(
+                        "A minus sign is not followed by a digit.");
+            }
+
+            if (cell != 0) {
+                throw new IOException(
+                        "The text ends in the middle of a puzzle.");
+            }
+
+            return writer.getPuzzleCount();
+        }
+    }
+
+    static void writeHeader(ByteBuffer buffer, int dimension) {
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte) getBitsPerCell(dimension));
+        buffer.putShort((short) 0);
+        buffer.putInt(dimension);
+    }
+
+    /**
+     * Reads and checks the header at the start of {@code buffer}.
+     *
+     * @return the dimension.
+     */
+    static int readHeader(ByteBuffer buffer) throws IOException {
+        // The dimension comes from the file, so it may be anything.
+        if (buffer.remaining() < HEADER_SIZE
+                || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary sudoku file.");
+        }
+
+        if (buffer.get(4) != VERSION) {
+            throw new IOException(
+                    "Unsupported binary sudoku format version " +
+                    buffer.get(4) + ".");
+        }
+
+        int dimension = buffer.getInt(8);
+
+        if (dimension < Sudoku.MINIMUM_DIMENSION
+                || buffer.get(5) != getBitsPerCell(dimension)
+                || computeRecordSize(dimension) > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt binary sudoku file header.");
+        }
+
+        try {
+            Sudoku.checkSquareDimension(dimension);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Corrupt binary sudoku file header.", ex);
+        }
+
+        return dimension;
+    }
+
+    // Returns the size of a record in bytes, or Long.MAX_VALUE if the cell
+    // count alone exceeds Integer.MAX_VALUE, so that the bit count below
+    // cannot overflow.
+    private static long computeRecordSize(int dimension) {
+        long cellCount = (long) dimension * dimension;
+
+        if (cellCount > Integer.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+
+        return (cellCount * getBitsPerCell(dimension) + 7L) / 8L;
+    }
+
+    /**
+     * Packs the cells of {@code sudoku} into the record starting at the
+     * position of {@code buffer} and advances the position past it.
+     */
+    static void pack(Sudoku sudoku, ByteBuffer buffer) {
+        int dimension = sudoku.getDimension();
+        int bitsPerCell = getBitsPerCell(dimension);
+        int cellCount = sudoku.getCellCount();
+        long bits = 0L;
+        int bitCount = 0;
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = sudoku.getAt(cell);
+            bits |= (long) value << bitCount;
+            bitCount += bitsPerCell;
+
+            while (bitCount >= 8) {
+                buffer.put((byte) bits);
+                bits >>>= 8;
+                bitCount -= 8;
+            }
+        }
+
+        if (bitCount > 0) {
+            buffer.put((byte) bits);
+        }
+    }
+
+    /**
+     * Unpacks the record starting at the absolute position {@code offset} of
+     * {@code buffer} into {@code sudoku}. Does not change the position of the
+     * buffer. A value above the dimension, found only in a corrupt record,
+     * makes {@link Sudoku#setAt(int, int)} throw.
+     */
+    static void unpack(ByteBuffer buffer, int offset, Sudoku sudoku) {
+        int dimension = sudoku.getDimension();
+        int bitsPerCell = getBitsPerCell(dimension);
+        int cellCount = sudoku.getCellCount();
+
+        if (bitsPerCell == 4) {
+            // The common 9x9 case: two cells per byte.
+            int cell = 0;
+
+            for (; cell + 1 < cellCount; cell += 2) {
+                int b = buffer.get(offset++);
+                sudoku.setAt(cell, b & 0xF);
+                sudoku.setAt(cell + 1, (b >>> 4) & 0xF);
+            }
+
+            if (cell < cellCount) {
+                sudoku.setAt(cell, buffer.get(offset) & 0xF);
+            }
+
+            return;
+        }
+
+        long mask = (1L << bitsPerCell) - 1L;
+        long bits = 0L;
+        int bitCount = 0;
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            while (bitCount < bitsPerCell) {
+                bits |= (buffer.get(offset++) & 0xFFL) << bitCount;
+                bitCount += 8;
+            }
+
+            sudoku.setAt(cell, (int) (bits & mask));
+            bits >>>= bitsPerCell;
+            bitCount -= bitsPerCell;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package net.coderodde.sudoku;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class reads sudokus from a file in the {@link SudokuBinaryFormat}. The
+ * file is memory-mapped, in windows of at most {@value #MAXIMUM_WINDOW_SIZE}
+ * bytes so that files larger than 2 GiB work too, and each puzzle is unpacked
+ * straight from the mapping into a caller-provided sudoku. Apart from moving
+ * the window, reading does not allocate.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuBinaryReader implements AutoCloseable {
+
+    /**
+     * The maximum size of a mapped window.
+     */
+    private static final int MAXIMUM_WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final int dimension;
+    private final int recordSize;
+    private final long puzzleCount;
+
+    /**
+     * The number of records in a full window.
+     */
+    private final long recordsPerWindow;
+
+    private MappedByteBuffer window;
+
+    /**
+     * The index of the first puzzle in the current window, or -1 if none is
+     * mapped yet.
+     */
+    private long windowStart = -1L;
+
+    /**
+     * The index of the puzzle {@link #next(Sudoku)} reads.
+     */
+    private long nextIndex;
+
+    /**
+     * Opens the given file and checks its header.
+     *
+     * @param file the file to read.
+     * @throws IOException if the file cannot be read or is not in the binary
+     *                     sudoku format.
+     */
+    public SudokuBinaryReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        try {
+            long size = channel.size();
+            int dimension = SudokuBinaryFormat.readHeader(
+                    channel.map(FileChannel.MapMode.READ_ONLY,
+                                0L,
+                                Math.min(size,
+                                         SudokuBinaryFormat.HEADER_SIZE)));
+            int recordSize = SudokuBinaryFormat.getRecordSize(dimension);
+            long payload = size - SudokuBinaryFormat.HEADER_SIZE;
+
+            if (payload % recordSize != 0L) {
+                throw new IOException(
+                        "The file ends in the middle of a puzzle.");
+            }
+
+            this.dimension = dimension;
+            this.recordSize = recordSize;
+            this.puzzleCount = payload / recordSize;
+            this.recordsPerWindow = Math.max(1,
+                                             MAXIMUM_WINDOW_SIZE / recordSize);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of sudokus in the file.
+     *
+     * @return the number of sudokus.
+     */
+    public long getPuzzleCount() {
+        return puzzleCount;
+    }
+
+    /**
+     * Reads the next sudoku into {@code target}.
+     *
+     * @param target the sudoku receiving the puzzle.
+     * @return {@code false} if all sudokus have been read, in which case the
+     *         target is not modified.
+     * @throws IOException if mapping the file fails.
+     */
+    public boolean next(Sudoku target) throws IOException {
+        if (nextIndex == puzzleCount) {
+            return false;
+        }
+
+        read(nextIndex, target);
+        return true;
+    }
+
+    /**
+     * Reads the sudoku at the given index into {@code target}. The next call
+     * to {@link #next(Sudoku)} reads the sudoku after it.
+     *
+     * @param index  the index of the sudoku to read.
+     * @param target the sudoku receiving the puzzle.
+     * @throws IOException if mapping the file fails.
+     */
+    public void read(long index, Sudoku target) throws IOException {
+        Objects.requireNonNull(target, "The target sudoku is null.");
+
+        if (index < 0L || index >= puzzleCount) {
+            throw new IndexOutOfBoundsException(
+                    "The index (" + index + ") is outside [0, " +
+                    puzzleCount + ").");
+        }
+
+        if (target.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + target.getDimension() +
+                    ", while this file holds dimension " + dimension + ".");
+        }
+
+        if (window == null
+                || index < windowStart
+                || index >= windowStart + recordsPerWindow) {
+            mapWindow(index - index % recordsPerWindow);
+        }
+
+        SudokuBinaryFormat.unpack(
+                window,
+                (int) ((index - windowStart) * recordSize),
+                target);
+        nextIndex = index + 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void mapWindow(long firstIndex) throws IOException {
+        long records = Math.min(recordsPerWindow, puzzleCount - firstIndex);
+        window = channel.map(FileChannel.MapMode.READ_ONLY,
+                             SudokuBinaryFormat.HEADER_SIZE +
+                             firstIndex * recordSize,
+                             records * recordSize);
+        windowStart = firstIndex;
+    }
+}
@@ -0,0 +1,115 @@
+package net.coderodde.sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class writes sudokus to a file in the {@link SudokuBinaryFormat}. The
+ * records are packed into a reusable buffer that is flushed to the file when
+ * full, so writing does not allocate per puzzle.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuBinaryWriter implements AutoCloseable {
+
+    /**
+     * The approximate size of the write buffer.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final int dimension;
+    private final int recordSize;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long puzzleCount;
+
+    /**
+     * Creates or truncates the given file and writes the header.
+     *
+     * @param file      the file to write.
+     * @param dimension the dimension of the sudokus to write.
+     * @throws IOException if the file cannot be opened.
+     */
+    public SudokuBinaryWriter(Path file, int dimension) throws IOException {
+        if (dimension < Sudoku.MINIMUM_DIMENSION) {
+            throw new IllegalArgumentException(
+                    "The dimension (" + dimension + ") is too small.");
+        }
+
+        this.dimension = dimension;
+        this.recordSize = SudokuBinaryFormat.getRecordSize(dimension);
+        this.buffer = ByteBuffer.allocate(
+                Math.max(BUFFER_SIZE, SudokuBinaryFormat.HEADER_SIZE +
+                                      recordSize));
+        this.channel = FileChannel.open(file,
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.TRUNCATE_EXISTING,
+                                        StandardOpenOption.WRITE);
+        SudokuBinaryFormat.writeHeader(buffer, dimension);
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of sudokus written so far.
+     *
+     * @return the number of sudokus written.
+     */
+    public long getPuzzleCount() {
+        return puzzleCount;
+    }
+
+    /**
+     * Appends a sudoku to the file.
+     *
+     * @param sudoku the sudoku to write.
+     * @throws IOException if writing fails.
+     */
+    public void write(Sudoku sudoku) throws IOException {
+        Objects.requireNonNull(sudoku, "The sudoku is null.");
+
+        if (sudoku.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + sudoku.getDimension() +
+                    ", while this writer expects " + dimension + ".");
+        }
+
+        if (buffer.remaining() < recordSize) {
+            flush();
+        }
+
+        SudokuBinaryFormat.pack(sudoku, buffer);
+        ++puzzleCount;
+    }
+
+    /**
+     * Writes the buffered sudokus to the file.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
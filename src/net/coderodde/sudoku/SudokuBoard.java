@@ -0,0 +1,548 @@
+package net.coderodde.sudoku;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.ActionEvent;
+import java.awt.event.FocusEvent;
+import java.awt.event.FocusListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.util.Arrays;
+import javax.swing.JComponent;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+
+/**
+ * This class implements the cells of a sudoku board as a single component
+ * painting them with Java2D, instead of one text field per cell. One listener
+ * handles the keyboard, the mouse and the focus, and one popup menu of values
+ * is shared by all the cells. Changing a cell repaints that cell and, while
+ * the candidates are shown, its row, column and minisquare only.
+ * <p>
+ * The empty cells may show their candidates as pencil marks: digits on
+ * boards up to 9x9 and dots on larger ones, at the position of the value
+ * within a minisquare. They are read off the bitmasks of the
+ * {@link SudokuSession} when a cell is painted, so an edit costs no scan of
+ * the board. A value clashing with another one is highlighted together with
+ * the values it clashes with.
+ * <p>
+ * The keys 'w', 'a', 's' and 'd' and the arrow keys move the selection;
+ * digits type a value, 0, space, backspace and delete clear the selected
+ * cell. Each edit by the user is reported to the owning {@link SudokuGrid}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class SudokuBoard extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MARGIN = 2;
+    private static final int LARGE_DIMENSION = 25;
+    private static final int CELL_SIZE = 30;
+    private static final int LARGE_CELL_SIZE = 24;
+
+    private static final Color SELECTED_COLOR = new Color(200, 220, 255);
+    private static final Color CONFLICT_COLOR = Color.PINK;
+    private static final Color CANDIDATE_COLOR = Color.GRAY;
+
+    /**
+     * The largest dimension whose candidates are painted as digits.
+     */
+    private static final int MAXIMUM_CANDIDATE_DIGIT_DIMENSION = 9;
+
+    private final SudokuGrid grid;
+    private final SudokuSession session;
+    private final int dimension;
+    private final int minisquareDimension;
+    private final int cellSize;
+    private final Font font;
+    private final Font candidateFont;
+
+    /**
+     * The values of the cells in row-major order; zero for an empty cell.
+     */
+    private final int[] values;
+    private final boolean[] conflicting;
+    private int conflictingCount;
+    private boolean showingCandidates = true;
+
+    private int selectedX;
+    private int selectedY;
+    private boolean editable = true;
+
+    /**
+     * Set while the user types a value with more than one digit into the
+     * selected cell.
+     */
+    private boolean typing;
+
+    private JPopupMenu popupMenu;
+    private int popupX;
+    private int popupY;
+
+    SudokuBoard(SudokuGrid grid, SudokuSession session) {
+        this.grid = grid;
+        this.session = session;
+        this.dimension = session.getDimension();
+        this.minisquareDimension = Sudoku.checkSquareDimension(dimension);
+        this.cellSize = dimension < LARGE_DIMENSION ?
+                        CELL_SIZE :
+                        LARGE_CELL_SIZE;
+        this.font = new Font("Verdana",
+                             Font.CENTER_BASELINE,
+                             dimension < 10 ? 20 : cellSize / 2);
+        this.candidateFont = new Font("Verdana",
+                                      Font.PLAIN,
+                                      cellSize / 3);
+        this.values = new int[dimension * dimension];
+        this.conflicting = new boolean[dimension * dimension];
+
+        int side = 2 * MARGIN + dimension * cellSize;
+        setPreferredSize(new Dimension(side, side));
+        setFocusable(true);
+        setOpaque(true);
+        setBackground(Color.WHITE);
+
+        InputListener listener = new InputListener();
+        addMouseListener(listener);
+        addKeyListener(listener);
+        addFocusListener(listener);
+    }
+
+    int get(int x, int y) {
+        return values[y * dimension + x];
+    }
+
+    /**
+     * Shows {@code value} in the cell {@code (x, y)} without reporting it to
+     * the grid.
+     */
+    void set(int x, int y, int value) {
+        int cell = y * dimension + x;
+
+        if (values[cell] != value) {
+            values[cell] = value;
+            repaintUnits(x, y);
+        }
+    }
+
+    /**
+     * Shows the values of {@code sudoku} in all the empty cells, repainting
+     * the board once.
+     */
+    void fill(Sudoku sudoku) {
+        for (int cell = 0; cell < values.length; ++cell) {
+            if (values[cell] == 0) {
+                values[cell] = sudoku.getAt(cell);
+            }
+        }
+
+        repaint();
+    }
+
+    void setConflicting(int x, int y, boolean conflicting) {
+        int cell = y * dimension + x;
+
+        if (this.conflicting[cell] != conflicting) {
+            this.conflicting[cell] = conflicting;
+            conflictingCount += conflicting ? 1 : -1;
+
+            // The values it clashes with are in its units.
+            repaintUnits(x, y);
+        }
+    }
+
+    boolean isShowingCandidates() {
+        return showingCandidates;
+    }
+
+    void setShowingCandidates(boolean showingCandidates) {
+        this.showingCandidates = showingCandidates;
+        repaint();
+    }
+
+    void clear() {
+        Arrays.fill(values, 0);
+        Arrays.fill(conflicting, false);
+        conflictingCount = 0;
+        typing = false;
+        repaint();
+    }
+
+    void setEditable(boolean editable) {
+        this.editable = editable;
+    }
+
+    void select(int x, int y) {
+        repaintCell(selectedX, selectedY);
+        selectedX = x;
+        selectedY = y;
+        typing = false;
+        repaintCell(x, y);
+        requestFocusInWindow();
+    }
+
+    // Applies an edit by the user and reports it to the grid.
+    private void edit(int x, int y, int value) {
+        if (editable && get(x, y) != value) {
+            set(x, y, value);
+            grid.cellEdited(x, y, value);
+        }
+    }
+
+    private void typeDigit(int digit) {
+        int value = get(selectedX, selectedY);
+
+        if (typing && value * 10 + digit <= dimension) {
+            value = value * 10 + digit;
+        } else {
+            value = digit;
+        }
+
+        if (value > dimension) {
+            return;
+        }
+
+        // A value having as many digits as the dimension is complete.
+        typing = value != 0 && value * 10 <= dimension;
+        edit(selectedX, selectedY, value);
+    }
+
+    private void moveSelection(int dx, int dy) {
+        int x = selectedX + dx;
+        int y = selectedY + dy;
+
+        if (x >= 0 && x < dimension && y >= 0 && y < dimension) {
+            select(x, y);
+        }
+    }
+
+    private void showPopupMenu(MouseEvent e) {
+        if (popupMenu == null) {
+            popupMenu = new JPopupMenu();
+
+            for (int i = 0; i <= dimension; ++i) {
+                int value = i;
+                JMenuItem item = new JMenuItem("" + i);
+                item.addActionListener((ActionEvent event) -> {
+                    edit(popupX, popupY, value);
+                });
+                popupMenu.add(item);
+            }
+        }
+
+        popupX = selectedX;
+        popupY = selectedY;
+        popupMenu.show(this, e.getX(), e.getY());
+    }
+
+    private void repaintCell(int x, int y) {
+        repaintCells(x, y, 1, 1);
+    }
+
+    // Repaints the cell (x, y) together with the cells whose candidates or
+    // highlighting it may affect.
+    private void repaintUnits(int x, int y) {
+        if (!showingCandidates && conflictingCount == 0) {
+            repaintCell(x, y);
+            return;
+        }
+
+        repaintCells(0, y, dimension, 1);
+        repaintCells(x, 0, 1, dimension);
+        repaintCells(x - x % minisquareDimension,
+                     y - y % minisquareDimension,
+                     minisquareDimension,
+                     minisquareDimension);
+    }
+
+    private void repaintCells(int x, int y, int width, int height) {
+        repaint(MARGIN + x * cellSize - 1,
+                MARGIN + y * cellSize - 1,
+                width * cellSize + 3,
+                height * cellSize + 3);
+    }
+
+    // Tells whether the filled cell holds a value that a conflicting cell in
+    // one of its units holds too.
+    private boolean isClashing(int x, int y) {
+        int value = values[y * dimension + x];
+
+        if (conflictingCount == 0 || value == 0) {
+            return false;
+        }
+
+        int minisquareX = x - x % minisquareDimension;
+        int minisquareY = y - y % minisquareDimension;
+
+        for (int i = 0; i < dimension; ++i) {
+            if (clashes(i, y, value)
+                    || clashes(x, i, value)
+                    || clashes(minisquareX + i % minisquareDimension,
+                               minisquareY + i / minisquareDimension,
+                               value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean clashes(int x, int y, int value) {
+        int cell = y * dimension + x;
+        return conflicting[cell] && values[cell] == value;
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics.create();
+
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                               RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            Rectangle clip = g.getClipBounds();
+
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+
+            g.setColor(getBackground());
+            g.fill(clip);
+
+            // Paint only the cells intersecting the dirty region.
+            int firstX = Math.max(0, (clip.x - MARGIN) / cellSize);
+            int firstY = Math.max(0, (clip.y - MARGIN) / cellSize);
+            int lastX = Math.min(dimension - 1,
+                                 (clip.x + clip.width - MARGIN) / cellSize);
+            int lastY = Math.min(dimension - 1,
+                                 (clip.y + clip.height - MARGIN) / cellSize);
+
+            g.setFont(font);
+            FontMetrics metrics = g.getFontMetrics();
+
+            for (int y = firstY; y <= lastY; ++y) {
+                for (int x = firstX; x <= lastX; ++x) {
+                    paintCell(g, metrics, x, y);
+                }
+            }
+
+            paintMinisquareBorders(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private void paintCell(Graphics2D g, FontMetrics metrics, int x, int y) {
+        int left = MARGIN + x * cellSize;
+        int top = MARGIN + y * cellSize;
+        int cell = y * dimension + x;
+
+        if (x == selectedX && y == selectedY && hasFocus()) {
+            g.setColor(SELECTED_COLOR);
+            g.fillRect(left, top, cellSize, cellSize);
+        } else if (conflicting[cell] || isClashing(x, y)) {
+            g.setColor(CONFLICT_COLOR);
+            g.fillRect(left, top, cellSize, cellSize);
+        }
+
+        g.setColor(Color.BLACK);
+        g.drawRect(left, top, cellSize, cellSize);
+
+        if (values[cell] != 0) {
+            String text = "" + values[cell];
+            int textX = left + (cellSize - metrics.stringWidth(text)) / 2;
+            int textY = top + (cellSize - metrics.getHeight()) / 2
+                      + metrics.getAscent();
+            g.drawString(text, textX, textY);
+        } else if (showingCandidates) {
+            paintCandidates(g, x, y, left, top);
+            g.setFont(font);
+        }
+    }
+
+    // Paints each candidate of the empty cell (x, y) at the position of its
+    // value within a minisquare.
+    private void paintCandidates(Graphics2D g,
+                                 int x,
+                                 int y,
+                                 int left,
+                                 int top) {
+        int markSize = cellSize / minisquareDimension;
+        int inset = (cellSize - markSize * minisquareDimension) / 2;
+        boolean digits = dimension <= MAXIMUM_CANDIDATE_DIGIT_DIMENSION;
+        g.setColor(CANDIDATE_COLOR);
+        g.setFont(candidateFont);
+        FontMetrics metrics = g.getFontMetrics();
+
+        for (int value = session.nextCandidate(x, y, 0);
+                value != 0;
+                value = session.nextCandidate(x, y, value)) {
+            int markLeft = left + inset
+                         + ((value - 1) % minisquareDimension) * markSize;
+            int markTop = top + inset
+                        + ((value - 1) / minisquareDimension) * markSize;
+
+            if (digits) {
+                String text = "" + value;
+                g.drawString(text,
+                             markLeft + (markSize
+                                         - metrics.stringWidth(text)) / 2,
+                             markTop + (markSize - metrics.getHeight()) / 2
+                                     + metrics.getAscent());
+            } else {
+                int dotSize = Math.max(1, markSize / 2);
+                g.fillRect(markLeft + (markSize - dotSize) / 2,
+                           markTop + (markSize - dotSize) / 2,
+                           dotSize,
+                           dotSize);
+            }
+        }
+
+        g.setColor(Color.BLACK);
+    }
+
+    private void paintMinisquareBorders(Graphics2D g) {
+        int side = dimension * cellSize;
+        g.setColor(Color.BLACK);
+        g.setStroke(new BasicStroke(2.0f));
+
+        for (int i = 0; i <= dimension; i += minisquareDimension) {
+            int offset = MARGIN + i * cellSize;
+            g.drawLine(offset, MARGIN, offset, MARGIN + side);
+            g.drawLine(MARGIN, offset, MARGIN + side, offset);
+        }
+    }
+
+    private final class InputListener implements MouseListener,
+                                                 KeyListener,
+                                                 FocusListener {
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            int x = (e.getX() - MARGIN) / cellSize;
+            int y = (e.getY() - MARGIN) / cellSize;
+
+            if (e.getX() >= MARGIN && e.getY() >= MARGIN
+                    && x < dimension && y < dimension) {
+                select(x, y);
+            }
+
+            maybeShowPopupMenu(e);
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            maybeShowPopupMenu(e);
+        }
+
+        private void maybeShowPopupMenu(MouseEvent e) {
+            if (e.isPopupTrigger() && editable) {
+                showPopupMenu(e);
+            }
+        }
+
+        @Override
+        public void mouseClicked(MouseEvent e) {
+
+        }
+
+        @Override
+        public void mouseEntered(MouseEvent e) {
+
+        }
+
+        @Override
+        public void mouseExited(MouseEvent e) {
+
+        }
+
+        @Override
+        public void keyTyped(KeyEvent e) {
+            char c = e.getKeyChar();
+
+            switch (c) {
+                case 'w':
+                case 'W':
+                    moveSelection(0, -1);
+                    break;
+
+                case 'a':
+                case 'A':
+                    moveSelection(-1, 0);
+                    break;
+
+                case 's':
+                case 'S':
+                    moveSelection(0, 1);
+                    break;
+
+                case 'd':
+                case 'D':
+                    moveSelection(1, 0);
+                    break;
+
+                case ' ':
+                    typing = false;
+                    edit(selectedX, selectedY, 0);
+                    break;
+
+                default:
+                    if (c >= '0' && c <= '9') {
+                        typeDigit(c - '0');
+                    }
+            }
+        }
+
+        @Override
+        public void keyPressed(KeyEvent e) {
+            switch (e.getKeyCode()) {
+                case KeyEvent.VK_UP:
+                    moveSelection(0, -1);
+                    break;
+
+                case KeyEvent.VK_LEFT:
+                    moveSelection(-1, 0);
+                    break;
+
+                case KeyEvent.VK_DOWN:
+                    moveSelection(0, 1);
+                    break;
+
+                case KeyEvent.VK_RIGHT:
+                    moveSelection(1, 0);
+                    break;
+
+                case KeyEvent.VK_BACK_SPACE:
+                case KeyEvent.VK_DELETE:
+                    typing = false;
+                    edit(selectedX, selectedY, 0);
+                    break;
+            }
+        }
+
+        @Override
+        public void keyReleased(KeyEvent e) {
+
+        }
+
+        @Override
+        public void focusGained(FocusEvent e) {
+            repaintCell(selectedX, selectedY);
+        }
+
+        @Override
+        public void focusLost(FocusEvent e) {
+            repaintCell(selectedX, selectedY);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package net.coderodde.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * This class maps sudokus to a canonical form under the symmetries of the
+ * game: permuting the bands, the rows within a band, the stacks and the
+ * columns within a stack, transposing, and relabelling the digits. Rotations
+ * and reflections are combinations of these.
+ * <p>
+ * Finding the lexicographically smallest form over the whole group is far
+ * more expensive than solving a 9x9 puzzle, so the rows and the columns are
+ * ordered by keys that do not change under the symmetries instead: the
+ * number of givens of each line, refined twice by the keys of the crossing
+ * lines and the frequencies of the given digits. Both orientations are
+ * tried, and the digits are relabelled in the order of their first
+ * appearance. Equivalent puzzles thus get the same form unless two lines
+ * have the same key, in which case their original order is kept and the
+ * forms may differ; the form is always an exact transformation of the input,
+ * so a differing form only costs a cache hit.
+ * <p>
+ * Instances keep scratch arrays for one dimension and are not thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+final class SudokuCanonicalizer {
+
+    private static final int REFINEMENT_ROUNDS = 2;
+
+    private final int dimension;
+    private final int minisquareDimension;
+    private final int cellCount;
+
+    // The input with empty cells as 0, and the number of givens of each
+    // digit.
+    private final int[] cells;
+    private final int[] digitCounts;
+
+    // The invariant keys of the rows and the columns.
+    private final long[] rowKeys;
+    private final long[] columnKeys;
+    private final long[] nextRowKeys;
+    private final long[] nextColumnKeys;
+    private final long[] bandKeys;
+    private final int[] bandOrder;
+
+    // The candidate form of the orientation being tried.
+    private final int[] lineOrder;
+    private final int[] crossOrder;
+    private final int[] relabel;
+    private final int[] candidate;
+
+    // The best form found so far and the transformation leading to it:
+    // canonical cell (r, c) holds bestRelabel[cells[sourceCell(r, c)]].
+    private final int[] bestLineOrder;
+    private final int[] bestCrossOrder;
+    private final int[] bestRelabel;
+    private final int[] inverseRelabel;
+    private final int[] form;
+    private boolean transposed;
+
+    private long hash1;
+    private long hash2;
+
+    SudokuCanonicalizer(int dimension) {
+        this.dimension = dimension;
+        this.minisquareDimension = Sudoku.checkSquareDimension(dimension);
+        this.cellCount = dimension * dimension;
+        this.cells = new int[cellCount];
+        this.digitCounts = new int[dimension + 1];
+        this.rowKeys = new long[dimension];
+        this.columnKeys = new long[dimension];
+        this.nextRowKeys = new long[dimension];
+        this.nextColumnKeys = new long[dimension];
+        this.bandKeys = new long[minisquareDimension];
+        this.bandOrder = new int[minisquareDimension];
+        this.lineOrder = new int[dimension];
+        this.crossOrder = new int[dimension];
+        this.relabel = new int[dimension + 1];
+        this.candidate = new int[cellCount];
+        this.bestLineOrder = new int[dimension];
+        this.bestCrossOrder = new int[dimension];
+        this.bestRelabel = new int[dimension + 1];
+        this.inverseRelabel = new int[dimension + 1];
+        this.form = new int[cellCount];
+    }
+
+    int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Computes the canonical form of {@code sudoku} and its hashes. Zero
+     * denotes an empty cell.
+     */
+    void canonicalize(Sudoku sudoku) {
+        Arrays.fill(digitCounts, 0);
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = sudoku.getAt(cell);
+            cells[cell] = value;
+            ++digitCounts[value];
+        }
+
+        computeKeys();
+
+        // The rows of the transposed grid are the columns of the input.
+        tryOrientation(false, rowKeys, columnKeys, true);
+        tryOrientation(true, columnKeys, rowKeys, false);
+
+        for (int value = 0; value <= dimension; ++value) {
+            inverseRelabel[bestRelabel[value]] = value;
+        }
+
+        computeHashes();
+    }
+
+    /**
+     * Returns the first 64 bits of the hash of the canonical form, which
+     * includes the dimension.
+     */
+    long getHash1() {
+        return hash1;
+    }
+
+    /**
+     * Returns the second, independent 64 bits of the hash.
+     */
+    long getHash2() {
+        return hash2;
+    }
+
+    /**
+     * Writes {@code solution}, a solution of the last canonicalized sudoku,
+     * in the canonical orientation and labelling to {@code target}.
+     */
+    void toCanonical(Sudoku solution, Sudoku target) {
+        for (int r = 0; r < dimension; ++r) {
+            for (int c = 0; c < dimension; ++c) {
+                int value = solution.getAt(sourceCell(r, c));
+                target.setAt(r * dimension + c, bestRelabel[value]);
+            }
+        }
+    }
+
+    /**
+     * Writes {@code canonicalSolution}, a solution in the canonical form, in
+     * the orientation and labelling of the last canonicalized sudoku to
+     * {@code target}.
+     */
+    void fromCanonical(Sudoku canonicalSolution, Sudoku target) {
+        for (int r = 0; r < dimension; ++r) {
+            for (int c = 0; c < dimension; ++c) {
+                int value = canonicalSolution.getAt(r * dimension + c);
+                target.setAt(sourceCell(r, c),
+                             value == 0 ? 0 : inverseRelabel[value]);
+            }
+        }
+    }
+
+    /**
+     * Tells whether {@code canonicalSolution} agrees with every given of the
+     * last canonicalized sudoku. A cached solution passing this check solves
+     * the sudoku even if its hash collided with that of another puzzle.
+     */
+    boolean matchesGivens(Sudoku canonicalSolution) {
+        for (int r = 0; r < dimension; ++r) {
+            for (int c = 0; c < dimension; ++c) {
+                int value = cells[sourceCell(r, c)];
+
+                if (value != 0 &&
+                        canonicalSolution.getAt(r * dimension + c)
+                        != bestRelabel[value]) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private int sourceCell(int r, int c) {
+        return transposed ?
+               bestCrossOrder[c] * dimension + bestLineOrder[r] :
+               bestLineOrder[r] * dimension + bestCrossOrder[c];
+    }
+
+    // Computes the row and column keys: the given counts, refined by the keys
+    // of the crossing lines and the digit frequencies of the givens. As the
+    // refinements are commutative sums, the keys are invariant under line
+    // permutations and digit relabellings.
+    private void computeKeys() {
+        Arrays.fill(rowKeys, 0L);
+        Arrays.fill(columnKeys, 0L);
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            if (cells[cell] != 0) {
+                ++rowKeys[cell / dimension];
+                ++columnKeys[cell % dimension];
+            }
+        }
+
+        for (int round = 0; round < REFINEMENT_ROUNDS; ++round) {
+            for (int i = 0; i < dimension; ++i) {
+                nextRowKeys[i] = mix(rowKeys[i]);
+                nextColumnKeys[i] = mix(columnKeys[i]);
+            }
+
+            for (int cell = 0; cell < cellCount; ++cell) {
+                int value = cells[cell];
+
+                if (value != 0) {
+                    int row = cell / dimension;
+                    int column = cell % dimension;
+                    long digitKey = mix(digitCounts[value] + 1L);
+                    nextRowKeys[row] += mix(columnKeys[column] ^ digitKey);
+                    nextColumnKeys[column] += mix(rowKeys[row] ^ digitKey);
+                }
+            }
+
+            System.arraycopy(nextRowKeys, 0, rowKeys, 0, dimension);
+            System.arraycopy(nextColumnKeys, 0, columnKeys, 0, dimension);
+        }
+    }
+
+    // Orders the lines by their keys, builds the relabelled candidate form
+    // and keeps it if it is the first or smaller than the best one so far.
+    private void tryOrientation(boolean transpose,
+                                long[] lineKeys,
+                                long[] crossKeys,
+                                boolean first) {
+        order(lineKeys, lineOrder);
+        order(crossKeys, crossOrder);
+        Arrays.fill(relabel, -1);
+        relabel[0] = 0;
+        int nextLabel = 1;
+
+        for (int r = 0; r < dimension; ++r) {
+            for (int c = 0; c < dimension; ++c) {
+                int value = transpose ?
+                            cells[crossOrder[c] * dimension + lineOrder[r]] :
+                            cells[lineOrder[r] * dimension + crossOrder[c]];
+
+                if (relabel[value] == -1) {
+                    relabel[value] = nextLabel++;
+                }
+
+                candidate[r * dimension + c] = relabel[value];
+            }
+        }
+
+        // The digits without givens take the remaining labels in order.
+        for (int value = 1; value <= dimension; ++value) {
+            if (relabel[value] == -1) {
+                relabel[value] = nextLabel++;
+            }
+        }
+
+        if (!first && compare(candidate, form) >= 0) {
+            return;
+        }
+
+        transposed = transpose;
+        System.arraycopy(candidate, 0, form, 0, cellCount);
+        System.arraycopy(lineOrder, 0, bestLineOrder, 0, dimension);
+        System.arraycopy(crossOrder, 0, bestCrossOrder, 0, dimension);
+        System.arraycopy(relabel, 0, bestRelabel, 0, dimension + 1);
+    }
+
+    // Sorts the bands (or stacks) by the sums of the mixed keys of their
+    // lines, and the lines within each band by their keys. Ties keep the
+    // original order.
+    private void order(long[] keys, int[] order) {
+        int k = minisquareDimension;
+
+        for (int band = 0; band < k; ++band) {
+            long bandKey = 0L;
+
+            for (int i = band * k; i < (band + 1) * k; ++i) {
+                bandKey += mix(keys[i]);
+            }
+
+            bandKeys[band] = bandKey;
+            bandOrder[band] = band;
+        }
+
+        sort(bandOrder, 0, k, bandKeys);
+        int position = 0;
+
+        for (int band : bandOrder) {
+            for (int i = 0; i < k; ++i) {
+                order[position + i] = band * k + i;
+            }
+
+            sort(order, position, position + k, keys);
+            position += k;
+        }
+    }
+
+    // A stable insertion sort of 'indices[from, to)' by 'keys[index]'; the
+    // ranges are at most the minisquare dimension long.
+    private static void sort(int[] indices, int from, int to, long[] keys) {
+        for (int i = from + 1; i < to; ++i) {
+            int index = indices[i];
+            long key = keys[index];
+            int j = i - 1;
+
+            while (j >= from && keys[indices[j]] > key) {
+                indices[j + 1] = indices[j];
+                --j;
+            }
+
+            indices[j + 1] = index;
+        }
+    }
+
+    private static int compare(int[] a, int[] b) {
+        for (int i = 0; i < a.length; ++i) {
+            if (a[i] != b[i]) {
+                return a[i] < b[i] ? -1 : 1;
+            }
+        }
+
+        return 0;
+    }
+
+    private void computeHashes() {
+        long h1 = dimension;
+        long h2 = ~(long) dimension;
+
+        for (int i = 0; i < cellCount; ++i) {
+            h1 = (h1 ^ form[i]) * 0x100000001B3L;
+            h2 = Long.rotateLeft(h2 + form[i] * 0x9E3779B97F4A7C15L, 31)
+               * 0xBF58476D1CE4E5B9L;
+        }
+
+        hash1 = mix(h1);
+        hash2 = mix(h2 ^ 0x94D049BB133111EBL);
+    }
+
+    // The finalizer of SplitMix64.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,180 @@
+package net.coderodde.sudoku;
+
+import java.time.Duration;
+
+/**
+ * This interface defines the API common to all sudoku solving algorithms.
+ * An engine is created for a fixed sudoku dimension, keeps mutable working
+ * state and is therefore not safe for use by multiple threads at a time.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public interface SudokuEngine {
+
+    /**
+     * The smallest dimension for which {@link #forDimension(int)} picks the
+     * exact cover engine.
+     */
+    int DANCING_LINKS_MINIMUM_DIMENSION = 16;
+
+    /**
+     * Returns the dimension of the sudokus this engine accepts.
+     *
+     * @return the dimension.
+     */
+    int getDimension();
+
+    /**
+     * Solves the input sudoku. Zero denotes an empty cell. The input is not
+     * modified.
+     *
+     * @param input the sudoku to solve.
+     * @return a solution, or an all-zero sudoku if there is no solution or
+     *         the solve was stopped early; see {@link #getLastStatus()}.
+     * @throws IllegalArgumentException if the dimension of the input does not
+     *                                  match, or if a value is duplicated in
+     *                                  a row, a column or a minisquare.
+     */
+    Sudoku solve(Sudoku input);
+
+    /**
+     * Solves the input sudoku and writes the solution to {@code output}
+     * instead of allocating a new sudoku. Once the engine has warmed up, this
+     * method does not allocate. The output may be the input itself.
+     *
+     * @param input  the sudoku to solve.
+     * @param output the sudoku receiving the solution, or all zeros if there
+     *               is no solution or the solve was stopped early.
+     * @return {@code true} if a solution was found.
+     * @throws IllegalArgumentException if the dimension of the input or the
+     *                                  output does not match, or if a value
+     *                                  is duplicated in a row, a column or a
+     *                                  minisquare.
+     */
+    boolean solve(Sudoku input, Sudoku output);
+
+    /**
+     * Counts the solutions of the input sudoku, stopping as soon as
+     * {@code limit} of them are found. For example, a limit of 2 tells
+     * whether the sudoku has no solution, a unique one or several.
+     *
+     * @param input the sudoku whose solutions to count.
+     * @param limit the maximum number of solutions to count; at least 1.
+     * @return the number of solutions, at most {@code limit}; a lower bound
+     *         if the count was stopped early.
+     * @throws IllegalArgumentException if the dimension of the input does not
+     *                                  match, if a value is duplicated in a
+     *                                  row, a column or a minisquare, or if
+     *                                  the limit is not positive.
+     */
+    long countSolutions(Sudoku input, long limit);
+
+    /**
+     * Returns the status of the last solve or solution count.
+     *
+     * @return the status, or {@code null} before the first solve.
+     */
+    SolveStatus getLastStatus();
+
+    /**
+     * Returns the time limit of each solve.
+     *
+     * @return the time limit, or {@code null} if there is none.
+     */
+    Duration getTimeLimit();
+
+    /**
+     * Sets the time limit of each subsequent solve, counted from its start.
+     * A solve running out of it returns no solution and sets the status
+     * {@link SolveStatus#TIMED_OUT}. The clock is read once per a few dozen
+     * search nodes.
+     *
+     * @param timeLimit the time limit, or {@code null} for none, the default.
+     * @throws IllegalArgumentException if the time limit is negative.
+     */
+    void setTimeLimit(Duration timeLimit);
+
+    /**
+     * Returns the maximum number of search nodes of each solve.
+     *
+     * @return the node limit, {@link Long#MAX_VALUE} by default.
+     */
+    long getNodeLimit();
+
+    /**
+     * Sets the maximum number of search nodes, that is, values tried at
+     * branching cells, of each subsequent solve. A solve running out of it
+     * returns no solution and sets the status
+     * {@link SolveStatus#NODE_LIMIT_REACHED}.
+     *
+     * @param nodeLimit the node limit; {@link Long#MAX_VALUE} for none.
+     * @throws IllegalArgumentException if the node limit is negative.
+     */
+    void setNodeLimit(long nodeLimit);
+
+    CancellationToken getCancellationToken();
+
+    /**
+     * Sets the token polled by the search. When the token gets cancelled,
+     * the running solve returns no solution and sets the status
+     * {@link SolveStatus#CANCELLED}. The search likewise stops with
+     * {@link SolveStatus#INTERRUPTED} when the solving thread is interrupted,
+     * with or without a token.
+     *
+     * @param cancellationToken the token, or {@code null} for none.
+     */
+    void setCancellationToken(CancellationToken cancellationToken);
+
+    /**
+     * Returns the statistics attached to this engine.
+     *
+     * @return the statistics, or {@code null} if none are attached.
+     */
+    SolverStatistics getStatistics();
+
+    /**
+     * Attaches the statistics receiving the counters of every subsequent
+     * solve, or detaches them with {@code null}, the default. While nothing
+     * is attached, the engine does not even read the clock.
+     *
+     * @param statistics the statistics, or {@code null}.
+     */
+    void setStatistics(SolverStatistics statistics);
+
+    /**
+     * Returns the progress object attached to this engine.
+     *
+     * @return the progress object, or {@code null} if none is attached.
+     */
+    SearchProgress getProgress();
+
+    /**
+     * Attaches the progress object receiving the node count of every
+     * subsequent solve while it runs, or detaches it with {@code null}, the
+     * default.
+     *
+     * @param progress the progress object, or {@code null}.
+     */
+    void setProgress(SearchProgress progress);
+
+    /**
+     * Returns an engine suitable for sudokus of the given dimension: the
+     * backtracking {@link SudokuSolver} with minimum remaining values
+     * ordering for small boards, and {@link DancingLinksSudokuSolver} for
+     * large ones.
+     *
+     * @param dimension the sudoku dimension.
+     * @return a new engine.
+     */
+    static SudokuEngine forDimension(int dimension) {
+        if (dimension >= DANCING_LINKS_MINIMUM_DIMENSION) {
+            return new DancingLinksSudokuSolver(dimension);
+        }
+
+        SudokuSolver solver = new SudokuSolver(dimension);
+        solver.setSearchStrategy(
+                SudokuSolver.SearchStrategy.MINIMUM_REMAINING_VALUES);
+        return solver;
+    }
+}
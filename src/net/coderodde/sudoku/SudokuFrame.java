@@ -4,6 +4,7 @@ import java.awt.Dimension;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.io.File;
+import java.io.IOException;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JMenu;
@@ -40,6 +41,9 @@ public class SudokuFrame {
         JMenuItem grid4  = new JMenuItem("4 times 4");
         JMenuItem grid9  = new JMenuItem("9 times 9");
         JMenuItem grid16 = new JMenuItem("16 times 16");
+        JMenuItem grid25 = new JMenuItem("25 times 25");
+        JMenuItem grid36 = new JMenuItem("36 times 36");
+        JMenuItem gridOther = new JMenuItem("Other size...");
 
         JMenuItem about = new JMenuItem("About");
 
@@ -48,6 +52,9 @@ public class SudokuFrame {
         fileMenu.add(grid4);
         fileMenu.add(grid9);
         fileMenu.add(grid16);
+        fileMenu.add(grid25);
+        fileMenu.add(grid36);
+        fileMenu.add(gridOther);
         fileMenu.addSeparator();
         fileMenu.add(about);
 
@@ -59,29 +66,46 @@ public class SudokuFrame {
 
             if (status == JFileChooser.APPROVE_OPTION) {
                 File file = chooser.getSelectedFile();
-                grid.openFile(file);
+                openFile(file);
             }
         });
 
         grid4.addActionListener((ActionEvent e) -> {
-            frame.getContentPane().removeAll();
-            frame.getContentPane().add(grid = new SudokuGrid(4));
-            frame.pack();
-            centerView();
+            showGrid(4);
         });
 
         grid9.addActionListener((ActionEvent e) -> {
-            frame.getContentPane().removeAll();
-            frame.getContentPane().add(grid = new SudokuGrid(9));
-            frame.pack();
-            centerView();
+            showGrid(9);
         });
 
         grid16.addActionListener((ActionEvent e) -> {
-            frame.getContentPane().removeAll();
-            frame.getContentPane().add(grid = new SudokuGrid(16));
-            frame.pack();
-            centerView();
+            showGrid(16);
+        });
+
+        grid25.addActionListener((ActionEvent e) -> {
+            showGrid(25);
+        });
+
+        grid36.addActionListener((ActionEvent e) -> {
+            showGrid(36);
+        });
+
+        gridOther.addActionListener((ActionEvent e) -> {
+            String text = JOptionPane.showInputDialog(
+                    frame,
+                    "Dimension (a square such as 49):",
+                    "Other size",
+                    JOptionPane.QUESTION_MESSAGE);
+
+            if (text != null) {
+                try {
+                    showGrid(Integer.parseInt(text.trim()));
+                } catch (NumberFormatException ex) {
+                    showError("\"" + text + "\" is not an integer.");
+                } catch (IllegalArgumentException ex) {
+                    showError(ex.getMessage());
+                }
+            }
         });
 
         about.addActionListener((ActionEvent e) -> {
@@ -95,6 +119,39 @@ public class SudokuFrame {
         frame.setJMenuBar(bar);
     }
 
+    // Loads the file, switching to a board of its dimension if needed.
+    private void openFile(File file) {
+        try {
+            Sudoku sudoku = SudokuGrid.readFile(file);
+
+            if (sudoku.getDimension() != grid.getDimension()) {
+                showGrid(sudoku.getDimension());
+            }
+
+            grid.load(sudoku);
+        } catch (IOException | IllegalArgumentException ex) {
+            showError("Cannot open " + file.getName() + ": " +
+                      ex.getMessage());
+        }
+    }
+
+    // Throws IllegalArgumentException, leaving the current board in place,
+    // if the dimension is not a square.
+    private void showGrid(int dimension) {
+        SudokuGrid newGrid = new SudokuGrid(dimension);
+        frame.getContentPane().removeAll();
+        frame.getContentPane().add(grid = newGrid);
+        frame.pack();
+        centerView();
+    }
+
+    private void showError(String message) {
+        JOptionPane.showMessageDialog(frame,
+                                      message,
+                                      "Error",
+                                      JOptionPane.ERROR_MESSAGE);
+    }
+
     private void centerView() {
         Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
         Dimension frameSize = frame.getSize();
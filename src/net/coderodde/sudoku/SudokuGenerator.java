@@ -0,0 +1,435 @@
+package net.coderodde.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class generates sudoku puzzles with a unique solution. A puzzle is
+ * made in two steps: a random full grid is obtained by filling the diagonal
+ * minisquares at random and completing them with a {@link SudokuSolver} that
+ * tries the values in random order; then the clues are removed one by one in
+ * random order, keeping each removal only if the puzzle still meets the
+ * target {@link Difficulty}.
+ * <p>
+ * While removing the clues of a hard puzzle, each uniqueness check may search
+ * only a bounded number of nodes, and a clue stays if its check runs out of
+ * them. The puzzle is then the sparsest one found within the bounds rather
+ * than a minimal one; it still has a unique solution, and the bound being a
+ * node count, it is still reproducible.
+ * <p>
+ * Batches of puzzles are generated in parallel on a fork-join pool. The
+ * {@code i}th puzzle of a batch depends only on the seed and {@code i}, so a
+ * batch is reproducible whatever the parallelism.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuGenerator implements AutoCloseable {
+
+    /**
+     * Enumerates the difficulty ratings of puzzles.
+     */
+    public enum Difficulty {
+
+        /**
+         * Solvable by naked and hidden singles alone.
+         */
+        EASY,
+
+        /**
+         * Solvable by the full propagation of {@link SudokuSolver}, but not by
+         * singles alone.
+         */
+        MEDIUM,
+
+        /**
+         * Has a unique solution, but requires search.
+         */
+        HARD
+    }
+
+    /**
+     * The number of full grids tried before settling for a puzzle rated below
+     * the target difficulty. Small boards, for instance, are rarely hard.
+     */
+    private static final int MAXIMUM_ATTEMPTS = 16;
+
+    /**
+     * The smallest dimension for which uniqueness is checked with the full
+     * propagation. On smaller boards singles are cheaper and good enough.
+     */
+    private static final int FULL_COUNTING_MINIMUM_DIMENSION = 16;
+
+    /**
+     * The number of search nodes a uniqueness check may take while the clues
+     * of a hard puzzle are removed. A clue whose removal cannot be proven to
+     * keep the solution unique within the limit stays. Without the limit, the
+     * checks on sparse 25x25 puzzles take hours.
+     */
+    private static final long REMOVAL_NODE_LIMIT = 100L;
+
+    /**
+     * The number of index ranges each worker gets on average.
+     */
+    private static final int RANGES_PER_WORKER = 8;
+
+    private final int dimension;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Worker> workers;
+
+    /**
+     * Constructs a generator using all available processors.
+     *
+     * @param dimension the sudoku dimension.
+     */
+    public SudokuGenerator(int dimension) {
+        this(dimension, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a generator with the given parallelism.
+     *
+     * @param dimension   the sudoku dimension.
+     * @param parallelism the number of worker threads.
+     */
+    public SudokuGenerator(int dimension, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "The parallelism (" + parallelism + ") must be at " +
+                    "least 1.");
+        }
+
+        // Validates the dimension and serves the constructing thread.
+        Worker worker = new Worker(dimension);
+        this.dimension = dimension;
+        this.pool = new ForkJoinPool(parallelism);
+        this.workers = ThreadLocal.withInitial(() -> new Worker(dimension));
+        this.workers.set(worker);
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Generates a puzzle of the given difficulty on the calling thread.
+     *
+     * @param difficulty the target difficulty.
+     * @param random     the source of randomness.
+     * @return a puzzle with a unique solution. Empty cells are zeros.
+     */
+    public Sudoku generate(Difficulty difficulty, Random random) {
+        Objects.requireNonNull(difficulty, "The difficulty is null.");
+        Objects.requireNonNull(random, "The random source is null.");
+        return workers.get().generate(difficulty, random);
+    }
+
+    /**
+     * Generates {@code count} puzzles of the given difficulty in parallel.
+     * The same seed always yields the same puzzles.
+     *
+     * @param count      the number of puzzles to generate.
+     * @param difficulty the target difficulty.
+     * @param seed       the seed.
+     * @return the list of puzzles.
+     */
+    public List<Sudoku> generate(int count, Difficulty difficulty, long seed) {
+        if (count < 0) {
+            throw new IllegalArgumentException(
+                    "The puzzle count (" + count + ") is negative.");
+        }
+
+        Objects.requireNonNull(difficulty, "The difficulty is null.");
+        Sudoku[] puzzles = new Sudoku[count];
+
+        if (count > 0) {
+            int threshold = Math.max(
+                    1,
+                    count / (RANGES_PER_WORKER * getParallelism()));
+
+            pool.invoke(new RangeTask(puzzles, difficulty, seed, 0, count,
+                                      threshold));
+        }
+
+        List<Sudoku> list = new ArrayList<>(count);
+
+        for (Sudoku puzzle : puzzles) {
+            list.add(puzzle);
+        }
+
+        return list;
+    }
+
+    /**
+     * Rates the given puzzle.
+     *
+     * @param puzzle the puzzle to rate.
+     * @return the difficulty of the puzzle.
+     * @throws IllegalArgumentException if the puzzle does not have a unique
+     *                                  solution.
+     */
+    public Difficulty rate(Sudoku puzzle) {
+        Objects.requireNonNull(puzzle, "The puzzle is null.");
+        Worker worker = workers.get();
+        Difficulty difficulty = worker.rate(puzzle);
+
+        if (difficulty == null) {
+            throw new IllegalArgumentException(
+                    "The puzzle does not have a unique solution.");
+        }
+
+        return difficulty;
+    }
+
+    /**
+     * Shuts down the worker threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // Derives the seed of the 'index'th puzzle of a batch. This is the
+    // SplitMix64 finalizer, which makes the seeds of neighbouring indices
+    // unrelated.
+    private static long seedOf(long seed, int index) {
+        long z = seed + (index + 1L) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Holds the solvers and the buffers of one thread.
+     */
+    private static final class Worker {
+
+        private final int dimension;
+        private final int minisquareDimension;
+        private final SudokuSolver gridSolver;
+        private final SudokuSolver singlesSolver;
+        private final SudokuSolver fullSolver;
+        private final SudokuSolver counter;
+        private final SudokuSolver boundedCounter;
+        private final Sudoku scratch;
+        private final int[] cells;
+        private final int[] values;
+
+        Worker(int dimension) {
+            this.gridSolver = new SudokuSolver(dimension);
+            this.gridSolver.setSearchStrategy(
+                    SudokuSolver.SearchStrategy.MINIMUM_REMAINING_VALUES);
+            this.singlesSolver = new SudokuSolver(dimension);
+            this.fullSolver = new SudokuSolver(dimension);
+            this.fullSolver.setPropagationLevel(
+                    SudokuSolver.PropagationLevel.FULL);
+            // Not the exact cover engine: without propagation, proving the
+            // uniqueness of a sparse large puzzle takes it ages.
+            this.counter = new SudokuSolver(dimension);
+            this.counter.setSearchStrategy(
+                    SudokuSolver.SearchStrategy.MINIMUM_REMAINING_VALUES);
+
+            if (dimension >= FULL_COUNTING_MINIMUM_DIMENSION) {
+                this.counter.setPropagationLevel(
+                        SudokuSolver.PropagationLevel.FULL);
+            }
+
+            this.boundedCounter = new SudokuSolver(dimension);
+            this.boundedCounter.setSearchStrategy(
+                    counter.getSearchStrategy());
+            this.boundedCounter.setPropagationLevel(
+                    counter.getPropagationLevel());
+            this.boundedCounter.setNodeLimit(REMOVAL_NODE_LIMIT);
+
+            this.dimension = dimension;
+            this.minisquareDimension = Sudoku.checkSquareDimension(dimension);
+            this.scratch = new Sudoku(dimension);
+            this.cells = new int[dimension * dimension];
+            this.values = new int[dimension];
+        }
+
+        Sudoku generate(Difficulty difficulty, Random random) {
+            Sudoku puzzle = new Sudoku(dimension);
+
+            for (int attempt = 1; ; ++attempt) {
+                fillGrid(puzzle, random);
+                removeClues(puzzle, difficulty, random);
+
+                if (attempt == MAXIMUM_ATTEMPTS
+                        || rate(puzzle) == difficulty) {
+                    return puzzle;
+                }
+            }
+        }
+
+        // Returns the difficulty of 'puzzle', or null if it does not have a
+        // unique solution.
+        Difficulty rate(Sudoku puzzle) {
+            if (isSolvedBy(singlesSolver, puzzle)) {
+                return Difficulty.EASY;
+            }
+
+            if (isSolvedBy(fullSolver, puzzle)) {
+                return Difficulty.MEDIUM;
+            }
+
+            return counter.countSolutions(puzzle, 2L) == 1L ?
+                   Difficulty.HARD :
+                   null;
+        }
+
+        // Fills 'grid' with a random full grid. The diagonal minisquares do
+        // not constrain each other, so they are shuffled independently; the
+        // randomized search then completes the rest. Some shuffles cannot be
+        // completed (on 4x4 boards, for instance), in which case we start
+        // over.
+        private void fillGrid(Sudoku grid, Random random) {
+            gridSolver.setRandom(random);
+
+            try {
+                do {
+                    fillDiagonal(grid, random);
+                } while (!gridSolver.solve(grid, grid));
+            } finally {
+                gridSolver.setRandom(null);
+            }
+        }
+
+        private void fillDiagonal(Sudoku grid, Random random) {
+            grid.clear();
+
+            for (int square = 0; square < minisquareDimension; ++square) {
+                shuffleValues(random);
+                int offset = square * minisquareDimension;
+
+                for (int i = 0; i < dimension; ++i) {
+                    grid.set(offset + i % minisquareDimension,
+                             offset + i / minisquareDimension,
+                             values[i]);
+                }
+            }
+        }
+
+        // Removes the clues of the full grid 'puzzle' in random order as long
+        // as the puzzle stays solvable at the target difficulty.
+        private void removeClues(Sudoku puzzle,
+                                 Difficulty difficulty,
+                                 Random random) {
+            for (int i = 0; i < cells.length; ++i) {
+                cells[i] = i;
+            }
+
+            shuffle(cells, cells.length, random);
+
+            for (int cell : cells) {
+                int value = puzzle.getAt(cell);
+                puzzle.setAt(cell, 0);
+
+                if (!meets(puzzle, difficulty)) {
+                    puzzle.setAt(cell, value);
+                }
+            }
+        }
+
+        private boolean meets(Sudoku puzzle, Difficulty difficulty) {
+            switch (difficulty) {
+                case EASY:
+                    return isSolvedBy(singlesSolver, puzzle);
+
+                case MEDIUM:
+                    return isSolvedBy(fullSolver, puzzle);
+
+                default:
+                    // A stopped count is no proof of uniqueness.
+                    return boundedCounter.countSolutions(puzzle, 2L) == 1L
+                            && boundedCounter.getLastStatus().isComplete();
+            }
+        }
+
+        // Returns true if the propagation of 'solver' alone fills all empty
+        // cells of 'puzzle'. Such a puzzle has a unique solution.
+        private boolean isSolvedBy(SudokuSolver solver, Sudoku puzzle) {
+            scratch.copyFrom(puzzle);
+            int empty = 0;
+
+            for (int cell = 0; cell < cells.length; ++cell) {
+                if (puzzle.getAt(cell) == 0) {
+                    ++empty;
+                }
+            }
+
+            return solver.propagate(scratch) == empty;
+        }
+
+        private void shuffleValues(Random random) {
+            for (int i = 0; i < dimension; ++i) {
+                values[i] = i + 1;
+            }
+
+            shuffle(values, dimension, random);
+        }
+
+        private static void shuffle(int[] array, int length, Random random) {
+            for (int i = length - 1; i > 0; --i) {
+                int j = random.nextInt(i + 1);
+                int tmp = array[i];
+                array[i] = array[j];
+                array[j] = tmp;
+            }
+        }
+    }
+
+    private final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Sudoku[] puzzles;
+        private final Difficulty difficulty;
+        private final long seed;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        RangeTask(Sudoku[] puzzles,
+                  Difficulty difficulty,
+                  long seed,
+                  int from,
+                  int to,
+                  int threshold) {
+            this.puzzles = puzzles;
+            this.difficulty = difficulty;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                Worker worker = workers.get();
+
+                for (int i = from; i < to; ++i) {
+                    puzzles[i] = worker.generate(difficulty,
+                                                 new Random(seedOf(seed, i)));
+                }
+
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(puzzles, difficulty, seed, from, middle,
+                                    threshold),
+                      new RangeTask(puzzles, difficulty, seed, middle, to,
+                                    threshold));
+        }
+    }
+}
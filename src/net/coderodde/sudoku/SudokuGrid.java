@@ -1,152 +1,122 @@
 package net.coderodde.sudoku;
 
 import java.awt.BorderLayout;
-import java.awt.Color;
-import java.awt.Dimension;
-import java.awt.Font;
-import java.awt.GridLayout;
+import java.awt.FlowLayout;
 import java.awt.Point;
 import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Scanner;
-import javax.swing.BorderFactory;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import javax.swing.JButton;
-import javax.swing.JMenuItem;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
-import javax.swing.JPopupMenu;
-import javax.swing.JTextField;
-import javax.swing.border.Border;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 
 /**
  * This class implements a visual component representing a sudoku board.
+ * The cells are painted by a single {@link SudokuBoard}. Every edit of a cell
+ * is passed on to a {@link SudokuSession} right away, so solving and hints
+ * need not read the whole board back. When the session does not know a
+ * solution, one is searched for on a background worker, showing its progress
+ * and allowing to cancel it, while the board is read-only.
  * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Feb 26, 2016)
  */
 final class SudokuGrid extends JPanel {
 
-    private static final Font FONT = new Font("Verdana", 
-                                              Font.CENTER_BASELINE, 
-                                              20);
+    private static final long serialVersionUID = 1L;
 
-    private final JTextField[][] grid;
-    private final Map<JTextField, Point> mapFieldToCoordinates = 
-            new HashMap<>();
+    /**
+     * The longest a background solve may run before giving up.
+     */
+    private static final Duration SOLVE_TIME_LIMIT = Duration.ofMinutes(1);
+
+    /**
+     * The period of refreshing the progress of a background solve.
+     */
+    private static final int PROGRESS_PERIOD_MILLIS = 100;
 
     private final int dimension;
-    private final JPanel gridPanel;
+    private final SudokuBoard board;
     private final JPanel buttonPanel;
     private final JButton solveButton;
+    private final JButton hintButton;
     private final JButton clearButton;
-    private final JPanel[][] minisquarePanels;
+    private final JButton cancelButton;
+    private final JCheckBox candidatesCheckBox;
+    private final JLabel statusLabel;
+    private final SudokuSession session;
+    private final SudokuValidator validator;
+    private final SearchProgress progress = new SearchProgress();
+    private final Timer progressTimer;
+    private SolveWorker worker;
+
+    /**
+     * The cells holding a value that clashes with another one, and so is not
+     * in the session. Retried whenever a cell is cleared.
+     */
+    private final Set<Point> conflictingCells = new LinkedHashSet<>();
 
     SudokuGrid(int dimension) {
-        this.grid = new JTextField[dimension][dimension];
         this.dimension = dimension;
-
-        for (int y = 0; y < dimension; ++y) {
-            for (int x = 0; x < dimension; ++x) {
-                JTextField field = new JTextField();
-                field.addKeyListener(new SudokuCellKeyListener(this));
-                mapFieldToCoordinates.put(field, new Point(x, y));
-                grid[y][x] = field;
-            }
-        }
-
-        this.gridPanel   = new JPanel();
+        this.session = new SudokuSession(dimension);
+        this.validator = new SudokuValidator(dimension);
+        this.progressTimer = new Timer(PROGRESS_PERIOD_MILLIS,
+                                       (ActionEvent e) -> showProgress(""));
+        this.board = new SudokuBoard(this, session);
         this.buttonPanel = new JPanel();
-
-        Border border = BorderFactory.createLineBorder(Color.BLACK, 1);
-        Dimension fieldDimension = new Dimension(30, 30);
-
-        class PopupMenuListener implements ActionListener {
-
-            private final JTextField field;
-            private final int number;
-            
-            PopupMenuListener(JTextField field, int number) {
-                this.field  = field;
-                this.number = number; 
-            }
-            
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                field.setText("" + number);
-            }
-        }
-        
-        for (int y = 0; y < dimension; ++y) {
-            for (int x = 0; x < dimension; ++x) {
-                JTextField field = grid[y][x];
-                field.setBorder(border);
-                field.setFont(FONT);
-                field.setHorizontalAlignment(JTextField.CENTER);
-                field.setPreferredSize(fieldDimension);
-                
-                JPopupMenu menu = new JPopupMenu();
-                
-                for (int i = 0; i <= dimension; ++i) {
-                    JMenuItem item = new JMenuItem("" + i);
-                    menu.add(item);
-                    item.addActionListener(new PopupMenuListener(field, i));
-                }
-                
-                field.add(menu);
-                field.setComponentPopupMenu(menu);
-            }
-        }
-
-        int minisquareDimension = (int) Math.sqrt(dimension);
-        this.gridPanel.setLayout(new GridLayout(minisquareDimension,
-                                                minisquareDimension));
-
-        this.minisquarePanels = new JPanel[minisquareDimension]
-                                          [minisquareDimension];
-
-        Border minisquareBorder = BorderFactory.createLineBorder(Color.BLACK, 1);
-
-        for (int y = 0; y < minisquareDimension; ++y) {
-            for (int x = 0; x < minisquareDimension; ++x) {
-                JPanel panel = new JPanel();
-                panel.setLayout(new GridLayout(minisquareDimension,
-                                               minisquareDimension));
-                panel.setBorder(minisquareBorder);
-                minisquarePanels[y][x] = panel;
-                gridPanel.add(panel);
-            }
-        }
-
-        for (int y = 0; y < dimension; ++y) {
-            for (int x = 0; x < dimension; ++x) {
-                int minisquareX = x / minisquareDimension;
-                int minisquareY = y / minisquareDimension;
-
-                minisquarePanels[minisquareY][minisquareX].add(grid[y][x]);
-            }
-        }
-
-        this.gridPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 
-                                                                2));
         this.clearButton = new JButton("Clear");
+        this.hintButton  = new JButton("Hint");
+        this.cancelButton = new JButton("Cancel");
         this.solveButton = new JButton("Solve");
+        this.candidatesCheckBox = new JCheckBox("Candidates",
+                                                board.isShowingCandidates());
+        this.statusLabel = new JLabel(" ", JLabel.CENTER);
+        this.cancelButton.setEnabled(false);
+
+        JPanel middlePanel = new JPanel(new FlowLayout(FlowLayout.CENTER,
+                                                       0,
+                                                       0));
+        middlePanel.add(candidatesCheckBox);
+        middlePanel.add(hintButton);
+        middlePanel.add(cancelButton);
 
         this.buttonPanel.setLayout(new BorderLayout());
         this.buttonPanel.add(clearButton, BorderLayout.WEST);
+        this.buttonPanel.add(middlePanel, BorderLayout.CENTER);
         this.buttonPanel.add(solveButton, BorderLayout.EAST);
 
         this.setLayout(new BorderLayout());
-        this.add(gridPanel,   BorderLayout.NORTH);
+        this.add(board,       BorderLayout.NORTH);
+        this.add(statusLabel, BorderLayout.CENTER);
         this.add(buttonPanel, BorderLayout.SOUTH);  
 
         clearButton.addActionListener((ActionEvent e) -> {
             clearAll();
         });
 
+        hintButton.addActionListener((ActionEvent e) -> {
+            hint();
+        });
+
+        cancelButton.addActionListener((ActionEvent e) -> {
+            cancelSolve();
+        });
+
+        candidatesCheckBox.addActionListener((ActionEvent e) -> {
+            board.setShowingCandidates(candidatesCheckBox.isSelected());
+        });
+
         solveButton.addActionListener((ActionEvent e) -> {
             solve();
         });
@@ -155,145 +125,354 @@ final class SudokuGrid extends JPanel {
     int getDimension() {
         return dimension;
     }
+
+    @Override
+    public void removeNotify() {
+        // The frame replaces the grid when the dimension changes.
+        cancelSolve();
+        super.removeNotify();
+    }
     
-    void openFile(File file) {
-        try {
-            Scanner scanner = new Scanner(file);
-            clearAll();
+    /**
+     * Reads a sudoku from a file, taking its dimension from the number of
+     * cells. The file holds either the cell values separated by whitespace,
+     * where zero or any token but a number denotes an empty cell, or a
+     * single line in {@link SudokuLineFormat#STANDARD}.
+     *
+     * @param file the file to read.
+     * @return the sudoku read.
+     * @throws IOException              if reading the file fails.
+     * @throws IllegalArgumentException if the number of cells is not a
+     *                                  square, the line is malformed or a
+     *                                  value is out of range.
+     */
+    static Sudoku readFile(File file) throws IOException {
+        List<String> tokens = new ArrayList<>();
+
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNext()) {
+                tokens.add(scanner.next());
+            }
+        }
 
-            int cells = dimension * dimension;
-            int y = 0;
-            int x = 0;
+        if (tokens.size() == 1) {
+            String line = tokens.get(0);
+            Sudoku sudoku = new Sudoku(squareRoot(line.length()));
+            SudokuLineFormat.STANDARD.parse(line, sudoku);
+            return sudoku;
+        }
 
-            while (cells > 0) {
-                if (scanner.hasNext()) {
-                    String text = scanner.next();
+        Sudoku sudoku = new Sudoku(squareRoot(tokens.size()));
 
-                    try {
-                        int number = Integer.parseInt(text);
+        for (int cell = 0; cell < tokens.size(); ++cell) {
+            int value;
 
-                        if (number > 0 && number <= dimension) {
-                            grid[y][x].setText(" " + number);
-                        }
-                    } catch (NumberFormatException ex) {
+            try {
+                value = Integer.parseInt(tokens.get(cell));
+            } catch (NumberFormatException ex) {
+                // Any other token, such as '.', marks an empty cell.
+                continue;
+            }
 
-                    }
+            if (value < 0 || value > sudoku.getDimension()) {
+                throw new IllegalArgumentException(
+                        "The value " + value + " of cell " + (cell + 1) +
+                        " is out of range [0, " + sudoku.getDimension() +
+                        "].");
+            }
 
-                    ++x;
+            sudoku.setAt(cell, value);
+        }
 
-                    if (x == dimension) {
-                        x = 0;
-                        ++y;
-                    }
-                } else {
-                    break;
+        return sudoku;
+    }
+
+    private static int squareRoot(int cells) {
+        try {
+            return Sudoku.checkSquareDimension(cells);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                    "The file has " + cells + " cells, which is not the " +
+                    "square of a positive integer.", ex);
+        }
+    }
+
+    /**
+     * Replaces the values on the board with those of {@code sudoku}.
+     *
+     * @param sudoku the sudoku to show.
+     * @throws IllegalArgumentException if the dimension does not match.
+     */
+    void load(Sudoku sudoku) {
+        if (sudoku.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + sudoku.getDimension() +
+                    ", while this board has " + dimension + ".");
+        }
+
+        clearAll();
+
+        for (int y = 0; y < dimension; ++y) {
+            for (int x = 0; x < dimension; ++x) {
+                int value = sudoku.get(x, y);
+
+                if (value > 0) {
+                    board.set(x, y, value);
+                    cellEdited(x, y, value);
                 }
+            }
+        }
+    }
 
-                --cells;
+    /**
+     * Passes the value the board now shows at the cell {@code (x, y)} on to
+     * the session. A value clashing with another one is kept out of the
+     * session and marked; as clearing a cell may resolve such a clash, the
+     * marked cells are retried then.
+     *
+     * @param x     the column of the cell.
+     * @param y     the row of the cell.
+     * @param value the new value, or zero if the cell was cleared.
+     */
+    void cellEdited(int x, int y, int value) {
+        Point coordinates = new Point(x, y);
+        conflictingCells.remove(coordinates);
+        board.setConflicting(x, y, false);
+
+        if (value == 0) {
+            session.clear(x, y);
+            retryConflictingCells();
+        } else if (session.isCandidate(x, y, value)) {
+            session.place(x, y, value);
+        } else {
+            if (session.get(x, y) != 0) {
+                session.clear(x, y);
+                retryConflictingCells();
             }
-        } catch (FileNotFoundException ex) {
 
+            conflictingCells.add(coordinates);
+            board.setConflicting(x, y, true);
         }
     }
 
-    private void addSpace(JTextField field) {
-        if (field.getText().isEmpty()) {
-            field.setText(" ");
+    private void retryConflictingCells() {
+        for (Point coordinates : conflictingCells.toArray(new Point[0])) {
+            int value = board.get(coordinates.x, coordinates.y);
+
+            if (session.isCandidate(coordinates.x, coordinates.y, value)) {
+                session.place(coordinates.x, coordinates.y, value);
+                conflictingCells.remove(coordinates);
+                board.setConflicting(coordinates.x, coordinates.y, false);
+            }
         }
     }
 
-    void moveCursor(JTextField field, char c) {
-        Point coordinates = mapFieldToCoordinates.get(field);
-        field.setBackground(Color.WHITE);
+    void clearAll() {
+        board.clear();
+        conflictingCells.clear();
 
-        switch (c) {
-            case 'w':
-            case 'W':
+        for (int y = 0; y < dimension; ++y) {
+            for (int x = 0; x < dimension; ++x) {
+                session.clear(x, y);
+            }
+        }
+    }
 
-                if (coordinates.y > 0) {
-                    grid[coordinates.y - 1][coordinates.x].requestFocus();
-                    addSpace(grid[coordinates.y - 1][coordinates.x]);
-                }
+    void hint() {
+        whenSolved(this::showHint);
+    }
 
-                break;
+    void solve() {
+        whenSolved(this::fillSolution);
+    }
 
-            case 'd':
-            case 'D':
+    void cancelSolve() {
+        if (worker != null) {
+            worker.token.cancel();
+        }
+    }
 
-                if (coordinates.x < dimension - 1) {
-                    grid[coordinates.y][coordinates.x + 1].requestFocus();
-                    addSpace(grid[coordinates.y][coordinates.x + 1]);
-                }
+    // Runs 'action' at once if the session knows a solution, and otherwise
+    // once a background solve has found one.
+    private void whenSolved(Runnable action) {
+        if (worker != null) {
+            return;
+        }
 
-                break;
+        try {
+            checkNoConflicts();
 
-            case 's':
-            case 'S':
+            if (session.hasSolution()) {
+                action.run();
+                return;
+            }
+        } catch (Exception ex) {
+            showError(ex);
+            return;
+        }
 
-                if (coordinates.y < dimension - 1) {
-                    grid[coordinates.y + 1][coordinates.x].requestFocus();
-                    addSpace(grid[coordinates.y + 1][coordinates.x]);
-                }
+        Sudoku puzzle = new Sudoku(dimension);
+        session.store(puzzle);
+        worker = new SolveWorker(puzzle, action);
+        setSolving(true);
+        statusLabel.setText("Solving...");
+        progressTimer.start();
+        worker.execute();
+    }
 
-                break;
+    private void solveFinished(SolveWorker finished) {
+        progressTimer.stop();
+        worker = null;
+        setSolving(false);
 
-            case 'a':
-            case 'A':
+        try {
+            Sudoku solution = finished.get();
 
-                if (coordinates.x > 0) {
-                    grid[coordinates.y][coordinates.x - 1].requestFocus();
-                    addSpace(grid[coordinates.y][coordinates.x - 1]);
-                }
+            switch (finished.status) {
+                case SOLVED:
+                    break;
+
+                case CANCELLED:
+                    showProgress(", cancelled");
+                    return;
+
+                case TIMED_OUT:
+                    showProgress(", timed out");
+                    throw new IllegalStateException(
+                            "Gave up after " + SOLVE_TIME_LIMIT.getSeconds() +
+                            " seconds.");
+
+                case NO_SOLUTION:
+                    showProgress(", no solution");
+                    throw new IllegalStateException(
+                            "The sudoku has no solution.");
+
+                default:
+                    showProgress("");
+                    throw new IllegalStateException(
+                            "The solve stopped: " + finished.status + ".");
+            }
+
+            showProgress(", solved");
+
+            if (!session.offerSolution(solution)) {
+                throw new RuntimeException("Something gone wrong.");
+            }
 
-                break;
+            finished.action.run();
+        } catch (ExecutionException ex) {
+            statusLabel.setText(" ");
+            showError(ex.getCause());
+        } catch (Exception ex) {
+            showError(ex);
         }
     }
 
-    void clearAll() {
-        for (JTextField[] row : grid) {
-            for (JTextField field : row) {
-                field.setText("");
-            }
+    // Switches the buttons and makes the board read-only while solving, so
+    // that the solution found still fits the board.
+    private void setSolving(boolean solving) {
+        clearButton.setEnabled(!solving);
+        hintButton.setEnabled(!solving);
+        solveButton.setEnabled(!solving);
+        cancelButton.setEnabled(solving);
+        board.setEditable(!solving);
+    }
+
+    private void showProgress(String suffix) {
+        statusLabel.setText(String.format(
+                "%,d nodes, %.1f s%s",
+                progress.getNodeCount(),
+                progress.getElapsedTime().toMillis() / 1000.0,
+                suffix));
+    }
+
+    private void showHint() {
+        int cell = session.nextHint();
+
+        if (cell == -1) {
+            return;
         }
+
+        int x = cell % dimension;
+        int y = cell / dimension;
+        int value = session.getSolutionValue(x, y);
+        board.set(x, y, value);
+        cellEdited(x, y, value);
+        board.select(x, y);
     }
 
-    void solve() {
+    // Writes the solution to the empty cells of the board and places it in
+    // the session in a single pass.
+    private void fillSolution() {
         Sudoku sudoku = new Sudoku(dimension);
+        Sudoku solution = new Sudoku(dimension);
+        session.store(sudoku);
+        session.storeSolution(solution);
+
+        if (!validator.isSolution(sudoku, solution)) {
+            throw new RuntimeException("Something gone wrong.");
+        }
+
+        board.fill(solution);
 
         for (int y = 0; y < dimension; ++y) {
             for (int x = 0; x < dimension; ++x) {
-                String text = grid[y][x].getText();
+                if (sudoku.get(x, y) == 0) {
+                    session.place(x, y, solution.get(x, y));
+                }
+            }
+        }
+    }
 
-                int number = -1;
+    private void checkNoConflicts() {
+        if (!conflictingCells.isEmpty()) {
+            Point coordinates = conflictingCells.iterator().next();
+            throw new IllegalStateException(
+                    "The cell (x = " + coordinates.x + ", y = " +
+                    coordinates.y + ") is a duplicate in its row, column " +
+                    "or minisquare.");
+        }
+    }
 
-                try {
-                    number = Integer.parseInt(text.trim());
-                } catch (NumberFormatException ex) {
+    private void showError(Throwable ex) {
+        JOptionPane.showMessageDialog(this, 
+                                      ex.getMessage(),
+                                      "Error",
+                                      JOptionPane.ERROR_MESSAGE);
+    }
 
-                }
+    // Solves a snapshot of the board off the event dispatch thread. The
+    // engine belongs to the worker; only the token and the progress object
+    // are shared with the event dispatch thread.
+    private final class SolveWorker extends SwingWorker<Sudoku, Void> {
 
-                sudoku.set(x, y, number);
-            }
-        }
+        private final Sudoku puzzle;
+        private final Runnable action;
+        private final CancellationToken token = new CancellationToken();
 
-        try {
-            Sudoku solution = new SudokuSolver(dimension).solve(sudoku);
-            String skip = dimension < 10 ? " " : "";
+        // Read only after get(), which makes the write visible.
+        private SolveStatus status;
 
-            for (int y = 0; y < dimension; ++y) {
-                for (int x = 0; x < dimension; ++x) {
-                    grid[y][x].setText(skip + solution.get(x, y));
-                }
-            }  
+        SolveWorker(Sudoku puzzle, Runnable action) {
+            this.puzzle = puzzle;
+            this.action = action;
+        }
 
-            if (!solution.isValid()) {
-                throw new RuntimeException("Something gone wrong.");
-            }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, 
-                                          ex.getMessage(),
-                                          "Error",
-                                          JOptionPane.ERROR_MESSAGE);
+        @Override
+        protected Sudoku doInBackground() {
+            SudokuEngine engine = SudokuEngine.forDimension(dimension);
+            engine.setTimeLimit(SOLVE_TIME_LIMIT);
+            engine.setCancellationToken(token);
+            engine.setProgress(progress);
+            Sudoku solution = new Sudoku(dimension);
+            engine.solve(puzzle, solution);
+            status = engine.getLastStatus();
+            return solution;
+        }
+
+        @Override
+        protected void done() {
+            solveFinished(this);
         }
     }
 }
@@ -0,0 +1,832 @@
+package net.coderodde.sudoku;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * This class serves sudoku solving over HTTP on the loopback interface, so
+ * that a client pays the JVM start-up and the JIT warm-up once instead of per
+ * request. It understands two requests:
+ * <pre>
+ *   POST /solve
+ *   GET  /metrics
+ * </pre>
+ * The body of a {@code /solve} request is either text, one puzzle per line in
+ * the {@link SudokuLineFormat#STANDARD} format with the dimension taken from
+ * the length of the lines, or, when the content type is
+ * {@code application/octet-stream}, a {@link SudokuBinaryFormat} file. The
+ * response holds the solutions in the same format and order, with an
+ * all-empty puzzle for each one without a solution or whose givens contradict
+ * each other. {@code /metrics} reports the counters, the queue depth and the
+ * latency percentiles as {@code name value} lines.
+ * <p>
+ * The puzzles are solved by {@code parallelism} worker threads, each keeping
+ * a warm engine per dimension between requests. A large request is split
+ * into chunks of at most {@value #MAXIMUM_BATCH_SIZE} puzzles shared among the
+ * workers; small requests arriving close together are micro-batched, that
+ * is, a worker taking one waits up to {@link #getBatchDelay()} for more
+ * before solving them all in one go, which saves a hand-off per puzzle under
+ * load.
+ * <p>
+ * Each puzzle is searched under a time limit and a node limit, so that a
+ * pathological puzzle cannot occupy a worker indefinitely. A puzzle whose
+ * search is stopped by either gets an all-empty response as well and is
+ * counted as {@code stopped} in {@code /metrics}. Should solving a puzzle
+ * fail unexpectedly, its request is answered with status 500 and the worker
+ * carries on with the next puzzle.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuHttpServer {
+
+    /**
+     * The largest number of puzzles a worker solves in one go.
+     */
+    static final int MAXIMUM_BATCH_SIZE = 64;
+
+    /**
+     * The largest request body accepted, in bytes.
+     */
+    static final int MAXIMUM_REQUEST_SIZE = 64 << 20;
+
+    /**
+     * The default time limit per puzzle.
+     */
+    static final Duration DEFAULT_TIME_LIMIT = Duration.ofSeconds(10L);
+
+    /**
+     * The default node limit per puzzle.
+     */
+    static final long DEFAULT_NODE_LIMIT = 10_000_000L;
+
+    private static final String BINARY_CONTENT_TYPE =
+            "application/octet-stream";
+    private static final String TEXT_CONTENT_TYPE =
+            "text/plain; charset=US-ASCII";
+
+    /**
+     * Marks the end of the work in the queue.
+     */
+    private static final Task END = new Task(null, 0, 0);
+
+    private final HttpServer server;
+    private final int parallelism;
+    private final long batchDelayNanos;
+    private final Duration timeLimit;
+    private final long nodeLimit;
+    private final IntFunction<SudokuEngine> engineFactory;
+    private final LinkedBlockingQueue<Task> workQueue =
+            new LinkedBlockingQueue<>();
+    private final ExecutorService handlers;
+    private final Thread[] workers;
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicInteger queuedPuzzleCount = new AtomicInteger();
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder puzzleCount = new LongAdder();
+    private final LongAdder solvedCount = new LongAdder();
+    private final LongAdder stoppedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+
+    private boolean started;
+    private boolean stopped;
+
+    /**
+     * Constructs a server on the given loopback port using all available
+     * processors, a batch delay of 100 microseconds and the default limits.
+     *
+     * @param port the port, or 0 for any free one.
+     * @throws IOException if the port cannot be bound.
+     */
+    public SudokuHttpServer(int port) throws IOException {
+        this(port, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a server on the given loopback port with a batch delay of
+     * 100 microseconds and the default limits: {@link #DEFAULT_TIME_LIMIT}
+     * and {@value #DEFAULT_NODE_LIMIT} nodes per puzzle.
+     *
+     * @param port        the port, or 0 for any free one.
+     * @param parallelism the number of worker threads.
+     * @throws IOException if the port cannot be bound.
+     */
+    public SudokuHttpServer(int port, int parallelism) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+             parallelism,
+             TimeUnit.MICROSECONDS.toNanos(100L),
+             SudokuEngine::forDimension);
+    }
+
+    /**
+     * Constructs a server with the default limits.
+     *
+     * @param address         the address to bind.
+     * @param parallelism     the number of worker threads.
+     * @param batchDelayNanos the longest a worker waits for more puzzles
+     *                        before solving a batch smaller than
+     *                        {@value #MAXIMUM_BATCH_SIZE}, or 0 to solve
+     *                        whatever is queued at once.
+     * @param engineFactory   maps a dimension to a new engine.
+     * @throws IOException if the address cannot be bound.
+     */
+    public SudokuHttpServer(InetSocketAddress address,
+                            int parallelism,
+                            long batchDelayNanos,
+                            IntFunction<SudokuEngine> engineFactory)
+            throws IOException {
+        this(address,
+             parallelism,
+             batchDelayNanos,
+             DEFAULT_TIME_LIMIT,
+             DEFAULT_NODE_LIMIT,
+             engineFactory);
+    }
+
+    /**
+     * Constructs a server.
+     *
+     * @param address         the address to bind.
+     * @param parallelism     the number of worker threads.
+     * @param batchDelayNanos the longest a worker waits for more puzzles
+     *                        before solving a batch smaller than
+     *                        {@value #MAXIMUM_BATCH_SIZE}, or 0 to solve
+     *                        whatever is queued at once.
+     * @param timeLimit       the longest search per puzzle.
+     * @param nodeLimit       the largest number of search nodes per puzzle.
+     * @param engineFactory   maps a dimension to a new engine.
+     * @throws IOException if the address cannot be bound.
+     */
+    public SudokuHttpServer(InetSocketAddress address,
+                            int parallelism,
+                            long batchDelayNanos,
+                            Duration timeLimit,
+                            long nodeLimit,
+                            IntFunction<SudokuEngine> engineFactory)
+            throws IOException {
+        Objects.requireNonNull(address, "The address is null.");
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "The parallelism (" + parallelism + ") must be at " +
+                    "least 1.");
+        }
+
+        if (batchDelayNanos < 0L) {
+            throw new IllegalArgumentException(
+                    "The batch delay (" + batchDelayNanos + ") is " +
+                    "negative.");
+        }
+
+        Objects.requireNonNull(timeLimit, "The time limit is null.");
+
+        if (timeLimit.isNegative() || timeLimit.isZero()) {
+            throw new IllegalArgumentException(
+                    "The time limit (" + timeLimit + ") must be positive.");
+        }
+
+        if (nodeLimit < 1L) {
+            throw new IllegalArgumentException(
+                    "The node limit (" + nodeLimit + ") must be at least 1.");
+        }
+
+        this.parallelism = parallelism;
+        this.batchDelayNanos = batchDelayNanos;
+        this.timeLimit = timeLimit;
+        this.nodeLimit = nodeLimit;
+        this.engineFactory = Objects.requireNonNull(
+                engineFactory,
+                "The engine factory is null.");
+        this.server = HttpServer.create(address, 0);
+        this.workers = new Thread[parallelism];
+
+        // The handler threads mostly wait for the workers, so there are more
+        // of them to keep requests coming while the workers are busy.
+        AtomicInteger handlerNumber = new AtomicInteger();
+        this.handlers = Executors.newFixedThreadPool(4 * parallelism, r -> {
+            Thread thread = new Thread(
+                    r,
+                    "sudoku-http-handler-" + handlerNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server.setExecutor(handlers);
+        server.createContext("/solve", this::handleSolve);
+        server.createContext("/metrics", this::handleMetrics);
+    }
+
+    /**
+     * Starts the workers and begins accepting requests.
+     *
+     * @throws IllegalStateException if the server was started already.
+     */
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException(
+                    "The server was started already.");
+        }
+
+        started = true;
+
+        for (int i = 0; i < parallelism; ++i) {
+            workers[i] = new Thread(new Worker(), "sudoku-http-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits up to {@code delaySeconds} for the
+     * exchanges in progress to finish and stops the workers.
+     *
+     * @param delaySeconds the longest to wait for the exchanges in progress.
+     */
+    public synchronized void stop(int delaySeconds) {
+        if (!started || stopped) {
+            return;
+        }
+
+        stopped = true;
+        server.stop(delaySeconds);
+
+        for (int i = 0; i < parallelism; ++i) {
+            workQueue.add(END);
+        }
+
+        handlers.shutdownNow();
+    }
+
+    /**
+     * Returns the address the server listens on, with the actual port if it
+     * was constructed with port 0.
+     *
+     * @return the bound address.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getBatchDelay() {
+        return batchDelayNanos;
+    }
+
+    public Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * Returns the histogram of the solve latencies of the requests, measured
+     * from the moment a request is parsed to the moment all its puzzles are
+     * solved.
+     *
+     * @return the latency histogram.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the number of puzzles waiting for a worker.
+     *
+     * @return the queue depth.
+     */
+    public int getQueueDepth() {
+        return queuedPuzzleCount.get();
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getPuzzleCount() {
+        return puzzleCount.sum();
+    }
+
+    public long getSolvedCount() {
+        return solvedCount.sum();
+    }
+
+    /**
+     * Returns the number of puzzles whose search hit the time limit or the
+     * node limit.
+     *
+     * @return the stopped count.
+     */
+    public long getStoppedCount() {
+        return stoppedCount.sum();
+    }
+
+    /**
+     * Returns the number of batches the workers have solved. Compared to
+     * {@link #getPuzzleCount()}, tells how well the requests are batched.
+     *
+     * @return the batch count.
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    private void handleSolve(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                reject(exchange, 405, "Use POST to solve sudokus.");
+                return;
+            }
+
+            byte[] body = readBody(exchange);
+
+            if (body == null) {
+                reject(exchange,
+                       413,
+                       "The request exceeds " + MAXIMUM_REQUEST_SIZE +
+                       " bytes.");
+                return;
+            }
+
+            String contentType =
+                    exchange.getRequestHeaders().getFirst("Content-Type");
+            boolean binary = contentType != null
+                    && contentType.startsWith(BINARY_CONTENT_TYPE);
+            Job job;
+
+            try {
+                job = binary ? parseBinary(body) : parseText(body);
+            } catch (IOException | RuntimeException ex) {
+                // Whatever the parsers trip over is the fault of the body.
+                reject(exchange,
+                       400,
+                       ex.getMessage() != null ?
+                       ex.getMessage() :
+                       "Malformed request body.");
+                return;
+            }
+
+            requestCount.increment();
+            solve(job);
+
+            if (job.failure != null) {
+                reject(exchange,
+                       500,
+                       "Solving failed: " + job.failure);
+                return;
+            }
+
+            byte[] response = binary ? formatBinary(job) : formatText(job);
+            exchange.getResponseHeaders().set(
+                    "Content-Type",
+                    binary ? BINARY_CONTENT_TYPE : TEXT_CONTENT_TYPE);
+            exchange.sendResponseHeaders(
+                    200,
+                    response.length == 0 ? -1 : response.length);
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            reject(exchange, 503, "The server is stopping.");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            StringBuilder sb = new StringBuilder();
+            appendMetric(sb, "requests", getRequestCount());
+            appendMetric(sb, "rejected", getRejectedCount());
+            appendMetric(sb, "puzzles", getPuzzleCount());
+            appendMetric(sb, "solved", getSolvedCount());
+            appendMetric(sb, "stopped", getStoppedCount());
+            appendMetric(sb, "batches", getBatchCount());
+            appendMetric(sb, "queue_depth", getQueueDepth());
+            appendMetric(sb, "latency_mean_us",
+                         (long) (latencies.getMean() / 1e3));
+            appendMetric(sb, "latency_p50_us",
+                         latencies.getPercentile(50.0) / 1000L);
+            appendMetric(sb, "latency_p90_us",
+                         latencies.getPercentile(90.0) / 1000L);
+            appendMetric(sb, "latency_p99_us",
+                         latencies.getPercentile(99.0) / 1000L);
+            appendMetric(sb, "latency_max_us",
+                         latencies.getMaximum() / 1000L);
+            byte[] response = sb.toString().getBytes(StandardCharsets.US_ASCII);
+            exchange.getResponseHeaders().set("Content-Type",
+                                              TEXT_CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, response.length);
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Queues the puzzles of {@code job} in chunks and waits until all of
+     * them are solved.
+     */
+    private void solve(Job job) throws InterruptedException {
+        int size = job.puzzles.length;
+        long startTime = System.nanoTime();
+
+        if (size > 0) {
+            queuedPuzzleCount.addAndGet(size);
+
+            for (int from = 0; from < size; from += MAXIMUM_BATCH_SIZE) {
+                workQueue.add(
+                        new Task(job,
+                                 from,
+                                 Math.min(from + MAXIMUM_BATCH_SIZE, size)));
+            }
+
+            job.done.await();
+        }
+
+        latencies.record(System.nanoTime() - startTime);
+        puzzleCount.add(size);
+    }
+
+    private void reject(HttpExchange exchange, int status, String message)
+            throws IOException {
+        rejectedCount.increment();
+        byte[] response = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type",
+                                          "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, response.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    /**
+     * Parses lines of the standard one-line format. Empty lines are skipped
+     * and the lines may end in {@code "\r\n"}.
+     */
+    private static Job parseText(byte[] body) {
+        List<Sudoku> puzzles = new ArrayList<>();
+        int dimension = 0;
+        int lineNumber = 0;
+        int offset = 0;
+
+        while (offset < body.length) {
+            int end = offset;
+
+            while (end < body.length && body[end] != '\n') {
+                ++end;
+            }
+
+            int next = end + 1;
+            ++lineNumber;
+
+            if (end > offset && body[end - 1] == '\r') {
+                --end;
+            }
+
+            int length = end - offset;
+
+            if (length > 0) {
+                if (dimension == 0) {
+                    dimension = dimensionOf(length);
+                    SudokuLineFormat.STANDARD.checkDimension(dimension);
+                } else if (length != dimension * dimension) {
+                    throw new IllegalArgumentException(
+                            "Line " + lineNumber + " has " + length +
+                            " characters, while the first one has " +
+                            dimension * dimension + ".");
+                }
+
+                Sudoku puzzle = new Sudoku(dimension);
+                int invalid =
+                        SudokuLineFormat.STANDARD.decode(body, offset, puzzle);
+
+                if (invalid >= 0) {
+                    throw new IllegalArgumentException(
+                            "Invalid character '" +
+                            (char) (body[offset + invalid] & 0xFF) +
+                            "' at line " + lineNumber + ", column " +
+                            (invalid + 1) + ".");
+                }
+
+                puzzles.add(puzzle);
+            }
+
+            offset = next;
+        }
+
+        return new Job(puzzles.toArray(new Sudoku[puzzles.size()]));
+    }
+
+    private static Job parseBinary(byte[] body) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        int dimension = SudokuBinaryFormat.readHeader(buffer);
+        int recordSize = SudokuBinaryFormat.getRecordSize(dimension);
+        int recordBytes = body.length - SudokuBinaryFormat.HEADER_SIZE;
+
+        if (recordBytes % recordSize != 0) {
+            throw new IOException(
+                    "The body ends in the middle of a puzzle.");
+        }
+
+        Sudoku[] puzzles = new Sudoku[recordBytes / recordSize];
+
+        for (int i = 0; i < puzzles.length; ++i) {
+            puzzles[i] = new Sudoku(dimension);
+            SudokuBinaryFormat.unpack(
+                    buffer,
+                    SudokuBinaryFormat.HEADER_SIZE + i * recordSize,
+                    puzzles[i]);
+        }
+
+        return new Job(puzzles);
+    }
+
+    private static byte[] formatText(Job job) {
+        if (job.solutions.length == 0) {
+            return new byte[0];
+        }
+
+        int lineLength = job.solutions[0].getCellCount() + 1;
+        byte[] response = new byte[job.solutions.length * lineLength];
+
+        for (int i = 0; i < job.solutions.length; ++i) {
+            SudokuLineFormat.STANDARD.encode(job.solutions[i],
+                                             response,
+                                             i * lineLength);
+            response[(i + 1) * lineLength - 1] = '\n';
+        }
+
+        return response;
+    }
+
+    private static byte[] formatBinary(Job job) {
+        if (job.solutions.length == 0) {
+            return new byte[0];
+        }
+
+        int dimension = job.solutions[0].getDimension();
+        ByteBuffer buffer = ByteBuffer.allocate(
+                SudokuBinaryFormat.HEADER_SIZE +
+                job.solutions.length *
+                SudokuBinaryFormat.getRecordSize(dimension));
+        SudokuBinaryFormat.writeHeader(buffer, dimension);
+
+        for (Sudoku solution : job.solutions) {
+            SudokuBinaryFormat.pack(solution, buffer);
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Reads the whole request body, or returns {@code null} if it exceeds
+     * {@link #MAXIMUM_REQUEST_SIZE}.
+     */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+
+        try (InputStream in = exchange.getRequestBody()) {
+            for (int read; (read = in.read(chunk)) >= 0;) {
+                if (body.size() + read > MAXIMUM_REQUEST_SIZE) {
+                    return null;
+                }
+
+                body.write(chunk, 0, read);
+            }
+        }
+
+        return body.toByteArray();
+    }
+
+    // Returns the dimension of the sudokus on lines of length 'cellCount',
+    // throwing IllegalArgumentException if there is no such sudoku.
+    private static int dimensionOf(int cellCount) {
+        int dimension;
+
+        try {
+            // The cell count is the square of the dimension as the
+            // dimension is the square of the minisquare dimension.
+            dimension = Sudoku.checkSquareDimension(cellCount);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                    "The line length " + cellCount + " is not the square " +
+                    "of a dimension.");
+        }
+
+        Sudoku.checkSquareDimension(dimension);
+        return dimension;
+    }
+
+    private static void appendMetric(StringBuilder sb,
+                                     String name,
+                                     long value) {
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static final class Job {
+
+        final Sudoku[] puzzles;
+        final Sudoku[] solutions;
+
+        /**
+         * Counted down once per solved task.
+         */
+        final CountDownLatch done;
+
+        /**
+         * The first exception thrown while solving a puzzle, if any.
+         */
+        volatile RuntimeException failure;
+
+        Job(Sudoku[] puzzles) {
+            this.puzzles = puzzles;
+            this.solutions = new Sudoku[puzzles.length];
+
+            for (int i = 0; i < puzzles.length; ++i) {
+                solutions[i] = new Sudoku(puzzles[i].getDimension());
+            }
+
+            this.done = new CountDownLatch(
+                    (puzzles.length + MAXIMUM_BATCH_SIZE - 1) /
+                    MAXIMUM_BATCH_SIZE);
+        }
+    }
+
+    /**
+     * The puzzles {@code [from, to)} of a job.
+     */
+    private static final class Task {
+
+        final Job job;
+        final int from;
+        final int to;
+
+        Task(Job job, int from, int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        /**
+         * Maps each dimension seen so far to the batch solver keeping the
+         * engine for it, so that requests alternating between dimensions do
+         * not rebuild the engines.
+         */
+        private final Map<Integer, SudokuBatchSolver> solvers =
+                new HashMap<>();
+        private final List<Task> batch = new ArrayList<>();
+
+        @Override
+        public void run() {
+            try {
+                while (takeBatch()) {
+                    solveBatch();
+                }
+
+                solveBatch();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Collects tasks into {@code batch} until it holds
+         * {@value #MAXIMUM_BATCH_SIZE} puzzles or the batch delay passes
+         * with nothing more queued.
+         *
+         * @return {@code false} if the end of the work was reached.
+         */
+        private boolean takeBatch() throws InterruptedException {
+            Task task = workQueue.take();
+            int size = 0;
+            long deadline = System.nanoTime() + batchDelayNanos;
+
+            while (task != END) {
+                batch.add(task);
+                size += task.to - task.from;
+
+                if (size >= MAXIMUM_BATCH_SIZE) {
+                    return true;
+                }
+
+                task = workQueue.poll();
+
+                if (task == null) {
+                    long remaining = deadline - System.nanoTime();
+
+                    if (remaining <= 0L) {
+                        return true;
+                    }
+
+                    task = workQueue.poll(remaining, TimeUnit.NANOSECONDS);
+
+                    if (task == null) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private void solveBatch() {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            for (Task task : batch) {
+                queuedPuzzleCount.addAndGet(task.from - task.to);
+            }
+
+            batchCount.increment();
+
+            for (Task task : batch) {
+                try {
+                    for (int i = task.from; i < task.to; ++i) {
+                        solveOne(task.job, i);
+                    }
+                } finally {
+                    // Never leave a handler waiting.
+                    task.job.done.countDown();
+                }
+            }
+
+            batch.clear();
+        }
+
+        // The batch solver clears the solution of an unsolvable puzzle. An
+        // exception fails the job instead of killing the worker.
+        private void solveOne(Job job, int index) {
+            try {
+                SudokuBatchSolver solver = solvers.computeIfAbsent(
+                        job.puzzles[index].getDimension(),
+                        dimension -> new SudokuBatchSolver(
+                                this::createEngine));
+
+                if (solver.solveOne(job.puzzles[index],
+                                    job.solutions[index])) {
+                    solvedCount.increment();
+                } else if (!solver.getLastStatus().isComplete()) {
+                    stoppedCount.increment();
+                }
+            } catch (RuntimeException ex) {
+                if (job.failure == null) {
+                    job.failure = ex;
+                }
+            }
+        }
+
+        private SudokuEngine createEngine(int dimension) {
+            SudokuEngine engine = engineFactory.apply(dimension);
+            engine.setTimeLimit(timeLimit);
+            engine.setNodeLimit(nodeLimit);
+            return engine;
+        }
+    }
+}
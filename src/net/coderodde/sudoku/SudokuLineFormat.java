@@ -0,0 +1,165 @@
+package net.coderodde.sudoku;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * This enumeration lists the supported one-line sudoku formats. A line holds
+ * one character per cell in row-major order, for example 81 characters for
+ * a 9x9 sudoku and 256 for a 16x16 one. The dimension of a line is thus the
+ * square root of its length.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public enum SudokuLineFormat {
+
+    /**
+     * The digits {@code 1-9} stand for the values 1 to 9 and the letters
+     * {@code A-Z}, in either case, for 10 to 35; {@code '.'} and {@code '0'}
+     * mark an empty cell. This is the common 9x9 format, and its 16x16
+     * variant uses {@code 1-9A-G}.
+     */
+    STANDARD("123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ", ".0"),
+
+    /**
+     * The hexadecimal 16x16 variant: {@code 0-9} and {@code A-F}, in either
+     * case, stand for the values 1 to 16; {@code '.'} marks an empty cell.
+     */
+    HEXADECIMAL("0123456789ABCDEF", ".");
+
+    /**
+     * Marks a character that is not allowed in a line.
+     */
+    static final byte INVALID = -1;
+
+    /**
+     * Maps a character to its value, 0 for an empty cell, or
+     * {@link #INVALID}.
+     */
+    private final byte[] decodingTable = new byte[256];
+
+    /**
+     * Maps a value to its character; index 0 holds the empty cell character.
+     */
+    private final byte[] encodingTable;
+
+    private SudokuLineFormat(String digits, String blanks) {
+        Arrays.fill(decodingTable, INVALID);
+        encodingTable = new byte[digits.length() + 1];
+        encodingTable[0] = (byte) blanks.charAt(0);
+
+        for (char blank : blanks.toCharArray()) {
+            decodingTable[blank] = 0;
+        }
+
+        for (int i = 0; i < digits.length(); ++i) {
+            char digit = digits.charAt(i);
+            decodingTable[digit] = (byte) (i + 1);
+            decodingTable[Character.toLowerCase(digit)] = (byte) (i + 1);
+            encodingTable[i + 1] = (byte) digit;
+        }
+    }
+
+    /**
+     * Returns the largest dimension this format can represent.
+     *
+     * @return the maximum dimension.
+     */
+    public int getMaximumDimension() {
+        return encodingTable.length - 1;
+    }
+
+    /**
+     * Parses a line into {@code target}.
+     *
+     * @param line   the line to parse.
+     * @param target the sudoku receiving the cells.
+     * @throws IllegalArgumentException if the length of the line does not
+     *                                  match the dimension of the target or
+     *                                  the line contains an invalid
+     *                                  character.
+     */
+    public void parse(CharSequence line, Sudoku target) {
+        int dimension = target.getDimension();
+        int cellCount = target.getCellCount();
+
+        if (line.length() != cellCount) {
+            throw new IllegalArgumentException(
+                    "The line has " + line.length() + " characters, while " +
+                    "a sudoku of dimension " + target.getDimension() +
+                    " takes " + cellCount + ".");
+        }
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            char c = line.charAt(cell);
+            int value = c < 256 ? decodingTable[c] : INVALID;
+
+            if (value == INVALID || value > dimension) {
+                throw new IllegalArgumentException(
+                        "Invalid character '" + c + "' at index " + cell +
+                        ".");
+            }
+
+            target.setAt(cell, value);
+        }
+    }
+
+    /**
+     * Formats a sudoku as a line, without the line terminator.
+     *
+     * @param sudoku the sudoku to format.
+     * @return the line.
+     */
+    public String format(Sudoku sudoku) {
+        byte[] line = new byte[sudoku.getCellCount()];
+        encode(sudoku, line, 0);
+        return new String(line, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Decodes the {@code target.getCellCount()} characters of {@code bytes}
+     * starting at {@code offset} into {@code target}.
+     *
+     * @return the index of the first invalid character, or -1 if all are
+     *         valid. A digit of a value above the dimension is invalid.
+     */
+    int decode(byte[] bytes, int offset, Sudoku target) {
+        int dimension = target.getDimension();
+        int cellCount = target.getCellCount();
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = decodingTable[bytes[offset + cell] & 0xFF];
+
+            if (value == INVALID || value > dimension) {
+                return cell;
+            }
+
+            target.setAt(cell, value);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Encodes the cells of {@code sudoku} into {@code bytes} starting at
+     * {@code offset}. Zero becomes the empty cell character.
+     */
+    void encode(Sudoku sudoku, byte[] bytes, int offset) {
+        int cellCount = sudoku.getCellCount();
+        checkDimension(sudoku.getDimension());
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            bytes[offset + cell] = encodingTable[sudoku.getAt(cell)];
+        }
+    }
+
+    void checkDimension(int dimension) {
+        if (dimension > getMaximumDimension()) {
+            throw new IllegalArgumentException(
+                    "The " + this + " line format cannot represent " +
+                    "dimension " + dimension + "; the maximum is " +
+                    getMaximumDimension() + ".");
+        }
+    }
+}
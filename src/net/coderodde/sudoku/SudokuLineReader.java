@@ -0,0 +1,184 @@
+package net.coderodde.sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class reads sudokus in a {@link SudokuLineFormat}, one per line, from
+ * a byte channel. The bytes are decoded straight from a reusable buffer into
+ * a caller-provided sudoku, so reading does not allocate per line. Empty
+ * lines and lines starting with {@code '#'} are skipped; trailing whitespace,
+ * including the {@code '\r'} of Windows line ends, is ignored.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuLineReader implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final SudokuLineFormat format;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+    /**
+     * The index of the first unread byte in {@code bytes}.
+     */
+    private int position;
+
+    /**
+     * The number of valid bytes in {@code bytes}.
+     */
+    private int limit;
+
+    private boolean endOfInput;
+    private long lineNumber;
+
+    /**
+     * Opens the given file for reading.
+     *
+     * @param file   the file to read.
+     * @param format the line format.
+     * @throws IOException if the file cannot be opened.
+     */
+    public SudokuLineReader(Path file, SudokuLineFormat format)
+            throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ), format);
+    }
+
+    /**
+     * Reads from the given channel. Closing this reader closes the channel.
+     *
+     * @param channel the channel to read.
+     * @param format  the line format.
+     */
+    public SudokuLineReader(ReadableByteChannel channel,
+                            SudokuLineFormat format) {
+        this.channel = Objects.requireNonNull(channel, "The channel is null.");
+        this.format = Objects.requireNonNull(format, "The format is null.");
+    }
+
+    /**
+     * Returns the number of the line read last, counting from 1.
+     *
+     * @return the line number.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Reads the next sudoku into {@code target}.
+     *
+     * @param target the sudoku receiving the cells.
+     * @return {@code false} if the input is exhausted, in which case the
+     *         target is not modified.
+     * @throws IOException if reading fails, or if a line does not have
+     *                     {@code target.getCellCount()} characters or
+     *                     contains an invalid character.
+     */
+    public boolean next(Sudoku target) throws IOException {
+        int cellCount = target.getCellCount();
+        format.checkDimension(target.getDimension());
+
+        while (true) {
+            int end = findLineEnd();
+
+            if (end == -1) {
+                return false;
+            }
+
+            int start = position;
+            int next = end < limit ? end + 1 : end;
+            ++lineNumber;
+
+            // Masked, as the bytes above 0x7F are negative.
+            while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+                --end;
+            }
+
+            position = next;
+
+            if (end == start || bytes[start] == '#') {
+                continue;
+            }
+
+            if (end - start != cellCount) {
+                throw new IOException(
+                        "Line " + lineNumber + " has " + (end - start) +
+                        " characters, while a sudoku of dimension " +
+                        target.getDimension() + " takes " + cellCount + ".");
+            }
+
+            int invalid = format.decode(bytes, start, target);
+
+            if (invalid != -1) {
+                throw new IOException(
+                        "Invalid character '" + (char) bytes[start + invalid] +
+                        "' on line " + lineNumber + ".");
+            }
+
+            return true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Returns the index of the '\n' ending the line at 'position', reading
+    // more input as needed. At the end of the input, returns 'limit' if there
+    // is an unterminated last line, or -1 if there is nothing left.
+    private int findLineEnd() throws IOException {
+        int scanned = position;
+
+        while (true) {
+            for (int i = scanned; i < limit; ++i) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+
+            if (endOfInput) {
+                return position < limit ? limit : -1;
+            }
+
+            scanned = limit - position;
+            fill();
+        }
+    }
+
+    // Moves the unread bytes to the front of the buffer and reads more.
+    private void fill() throws IOException {
+        if (position == 0 && limit == bytes.length) {
+            throw new IOException(
+                    "Line " + (lineNumber + 1) + " is longer than " +
+                    bytes.length + " bytes.");
+        }
+
+        System.arraycopy(bytes, position, bytes, 0, limit - position);
+        limit -= position;
+        position = 0;
+        buffer.clear().position(limit);
+        int read;
+
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+
+        if (read == -1) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package net.coderodde.sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class writes sudokus in a {@link SudokuLineFormat}, one per line,
+ * to a byte channel. The lines are encoded into a reusable buffer that is
+ * flushed to the channel when full, so writing does not allocate per line.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuLineWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final SudokuLineFormat format;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int limit;
+
+    /**
+     * Creates or truncates the given file for writing.
+     *
+     * @param file   the file to write.
+     * @param format the line format.
+     * @throws IOException if the file cannot be opened.
+     */
+    public SudokuLineWriter(Path file, SudokuLineFormat format)
+            throws IOException {
+        this(FileChannel.open(file,
+                              StandardOpenOption.CREATE,
+                              StandardOpenOption.TRUNCATE_EXISTING,
+                              StandardOpenOption.WRITE),
+             format);
+    }
+
+    /**
+     * Writes to the given channel. Closing this writer closes the channel.
+     *
+     * @param channel the channel to write.
+     * @param format  the line format.
+     */
+    public SudokuLineWriter(WritableByteChannel channel,
+                            SudokuLineFormat format) {
+        this.channel = Objects.requireNonNull(channel, "The channel is null.");
+        this.format = Objects.requireNonNull(format, "The format is null.");
+    }
+
+    /**
+     * Writes a sudoku as a line.
+     *
+     * @param sudoku the sudoku to write.
+     * @throws IOException if writing fails.
+     */
+    public void write(Sudoku sudoku) throws IOException {
+        int lineLength = sudoku.getCellCount() + 1;
+
+        if (lineLength > bytes.length) {
+            throw new IllegalArgumentException(
+                    "The sudoku of dimension " + sudoku.getDimension() +
+                    " is too large for a line.");
+        }
+
+        if (bytes.length - limit < lineLength) {
+            flush();
+        }
+
+        format.encode(sudoku, bytes, limit);
+        limit += lineLength;
+        bytes[limit - 1] = '\n';
+    }
+
+    /**
+     * Writes the buffered lines to the channel.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void flush() throws IOException {
+        buffer.clear().limit(limit);
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        limit = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
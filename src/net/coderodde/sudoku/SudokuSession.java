@@ -0,0 +1,443 @@
+package net.coderodde.sudoku;
+
+import java.time.Duration;
+import java.util.Objects;
+import net.coderodde.sudoku.SudokuSolver.SearchStrategy;
+
+/**
+ * This class holds a sudoku being edited interactively. The values placed so
+ * far are kept in a {@link ConstraintState} that is updated in place, so
+ * placing or clearing a value only flips a few bits of the row, column and
+ * minisquare masks, and the candidates of a cell are read off those masks.
+ * <p>
+ * The session also remembers the last solution it found. As long as every
+ * placed value agrees with it, the sudoku is known to be solvable, and a hint
+ * is read off it; once the sudoku is known to have no solution, it stays so
+ * until a value is cleared. Only when neither is known does
+ * {@link #isSolvable()} search, and then from the current state rather than
+ * from a reloaded sudoku.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuSession {
+
+    private final int dimension;
+    private final int cellCount;
+    private final SudokuSolver solver;
+    private final ConstraintState state;
+    private final SudokuValidator validator;
+
+    /**
+     * The last solution found, in row-major order. Meaningful only while
+     * {@code solutionKnown} is set.
+     */
+    private final int[] solution;
+    private boolean solutionKnown;
+
+    /**
+     * The number of placed values differing from {@code solution}.
+     */
+    private int mismatchCount;
+
+    /**
+     * Set when the values placed are known to admit no solution.
+     */
+    private boolean unsolvable;
+
+    /**
+     * Constructs a session on an empty sudoku of the given dimension.
+     *
+     * @param dimension the sudoku dimension.
+     * @throws IllegalArgumentException if the dimension is not the square of
+     *                                  a positive integer.
+     */
+    public SudokuSession(int dimension) {
+        this(new Sudoku(dimension));
+    }
+
+    /**
+     * Constructs a session starting from the values of {@code sudoku}.
+     * Zero denotes an empty cell.
+     *
+     * @param sudoku the initial sudoku.
+     * @throws IllegalArgumentException if the dimension is not the square of
+     *                                  a positive integer, or if a value is
+     *                                  duplicated in a unit.
+     */
+    public SudokuSession(Sudoku sudoku) {
+        Objects.requireNonNull(sudoku, "The input sudoku is null.");
+        this.dimension = sudoku.getDimension();
+        this.cellCount = dimension * dimension;
+        this.solver = new SudokuSolver(dimension);
+        this.solver.setSearchStrategy(
+                SearchStrategy.MINIMUM_REMAINING_VALUES);
+        this.state = solver.getState();
+        this.validator = new SudokuValidator(dimension);
+        this.solution = new int[cellCount];
+        state.setCountingCandidates(false);
+        state.load(sudoku);
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public Duration getTimeLimit() {
+        return solver.getTimeLimit();
+    }
+
+    /**
+     * Sets the longest a single search of {@link #isSolvable()} may take.
+     *
+     * @param timeLimit the time limit, or {@code null} for none.
+     */
+    public void setTimeLimit(Duration timeLimit) {
+        solver.setTimeLimit(timeLimit);
+    }
+
+    public long getNodeLimit() {
+        return solver.getNodeLimit();
+    }
+
+    public void setNodeLimit(long nodeLimit) {
+        solver.setNodeLimit(nodeLimit);
+    }
+
+    /**
+     * Returns the status of the last search run by this session, or
+     * {@code null} if none was needed so far.
+     *
+     * @return the status of the last search.
+     */
+    public SolveStatus getLastStatus() {
+        return solver.getLastStatus();
+    }
+
+    /**
+     * Returns the value at the cell {@code (x, y)}, or zero if it is empty.
+     *
+     * @param x the column of the cell.
+     * @param y the row of the cell.
+     * @return the value of the cell.
+     */
+    public int get(int x, int y) {
+        return state.getValue(cellOf(x, y));
+    }
+
+    public int getEmptyCellCount() {
+        return state.getEmptyCellCount();
+    }
+
+    /**
+     * Places {@code value} at the cell {@code (x, y)}, replacing the value
+     * there, if any.
+     *
+     * @param x     the column of the cell.
+     * @param y     the row of the cell.
+     * @param value the value to place.
+     * @throws IllegalArgumentException if the value is not within
+     *                                  {@code [1, dimension]}, or is already
+     *                                  in the row, the column or the
+     *                                  minisquare of the cell.
+     */
+    public void place(int x, int y, int value) {
+        int cell = cellOf(x, y);
+        checkValue(value);
+        int previous = state.getValue(cell);
+
+        if (previous == value) {
+            return;
+        }
+
+        // The previous value of the cell has a different bit, so it does not
+        // hide the candidate.
+        if (!state.isCandidate(cell, value)) {
+            throw new IllegalArgumentException(
+                    "The value " + value + " at (x = " + x + ", y = " + y +
+                    ") is a duplicate in its row, column or minisquare.");
+        }
+
+        if (previous != ConstraintState.UNUSED) {
+            clearCell(cell);
+        }
+
+        state.assign(cell, value);
+
+        if (solutionKnown && solution[cell] != value) {
+            ++mismatchCount;
+        }
+    }
+
+    /**
+     * Empties the cell {@code (x, y)}. Does nothing if it is empty already.
+     *
+     * @param x the column of the cell.
+     * @param y the row of the cell.
+     */
+    public void clear(int x, int y) {
+        int cell = cellOf(x, y);
+
+        if (state.getValue(cell) != ConstraintState.UNUSED) {
+            clearCell(cell);
+        }
+    }
+
+    /**
+     * Tells whether {@code value} may be placed at the cell {@code (x, y)},
+     * that is, whether it is not in the row, the column or the minisquare of
+     * the cell, ignoring the value of the cell itself.
+     *
+     * @param x     the column of the cell.
+     * @param y     the row of the cell.
+     * @param value the value to check.
+     * @return {@code true} if the value is a candidate.
+     */
+    public boolean isCandidate(int x, int y, int value) {
+        int cell = cellOf(x, y);
+        checkValue(value);
+        return state.getValue(cell) == value || state.isCandidate(cell, value);
+    }
+
+    /**
+     * Returns the smallest candidate of the empty cell {@code (x, y)} larger
+     * than {@code value}. Passing zero gives the smallest candidate.
+     *
+     * @param x     the column of the cell.
+     * @param y     the row of the cell.
+     * @param value the previous candidate, or zero.
+     * @return the next candidate, or zero if there is none or the cell is
+     *         filled.
+     */
+    public int nextCandidate(int x, int y, int value) {
+        int cell = cellOf(x, y);
+
+        if (state.getValue(cell) != ConstraintState.UNUSED
+                || value >= dimension) {
+            return ConstraintState.UNUSED;
+        }
+
+        return state.nextCandidate(cell, Math.max(value, 0));
+    }
+
+    /**
+     * Returns the number of candidates of the cell {@code (x, y)}.
+     *
+     * @param x the column of the cell.
+     * @param y the row of the cell.
+     * @return the number of candidates, or zero if the cell is filled.
+     */
+    public int getCandidateCount(int x, int y) {
+        int cell = cellOf(x, y);
+
+        if (state.getValue(cell) != ConstraintState.UNUSED) {
+            return 0;
+        }
+
+        return state.countCandidates(cell);
+    }
+
+    /**
+     * Tells whether the values placed so far can be completed to a solution.
+     * Answers at once if the last solution found still fits or the sudoku is
+     * known to have no solution; otherwise searches from the current state.
+     * If the time or node limit stops the search, returns {@code false} and
+     * {@link #getLastStatus()} tells why.
+     *
+     * @return {@code true} if the sudoku is solvable.
+     */
+    public boolean isSolvable() {
+        if (hasSolution()) {
+            return true;
+        }
+
+        if (unsolvable) {
+            return false;
+        }
+
+        int trailMark = state.getTrailSize();
+        boolean solved = solver.resume(1L) == 1L;
+
+        if (solved) {
+            for (int cell = 0; cell < cellCount; ++cell) {
+                solution[cell] = state.getValue(cell);
+            }
+
+            solutionKnown = true;
+            mismatchCount = 0;
+        } else {
+            unsolvable = solver.getLastStatus() == SolveStatus.NO_SOLUTION;
+        }
+
+        state.undo(trailMark);
+        state.setCountingCandidates(false);
+        return solved;
+    }
+
+    /**
+     * Tells whether the last solution found still fits the values placed, so
+     * that {@link #isSolvable()} would answer {@code true} without searching.
+     *
+     * @return {@code true} if a fitting solution is known.
+     */
+    public boolean hasSolution() {
+        return solutionKnown && mismatchCount == 0;
+    }
+
+    /**
+     * Remembers a solution found elsewhere, for example by an engine run on
+     * a copy of this sudoku in the background, as if {@link #isSolvable()}
+     * had found it. The solution is taken only if it is a complete, valid
+     * grid agreeing with every value placed.
+     *
+     * @param solution the solution.
+     * @return {@code true} if the solution was taken.
+     * @throws IllegalArgumentException if the dimension does not match.
+     */
+    public boolean offerSolution(Sudoku solution) {
+        checkOutput(solution);
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = state.getValue(cell);
+
+            if (value != ConstraintState.UNUSED
+                    && value != solution.getAt(cell)) {
+                return false;
+            }
+        }
+
+        if (!validator.isSolution(solution)) {
+            return false;
+        }
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            this.solution[cell] = solution.getAt(cell);
+        }
+
+        solutionKnown = true;
+        mismatchCount = 0;
+        unsolvable = false;
+        return true;
+    }
+
+    /**
+     * Returns the next cell to fill, in row-major order, with the value to
+     * fill it with given by {@link #getSolutionValue(int, int)}. The cell is
+     * one with the fewest candidates, so a forced cell comes first.
+     *
+     * @return the row-major index of the cell, or -1 if the sudoku is full or
+     *         not solvable.
+     */
+    public int nextHint() {
+        if (state.getEmptyCellCount() == 0 || !isSolvable()) {
+            return -1;
+        }
+
+        int bestCell = -1;
+        int bestCount = Integer.MAX_VALUE;
+
+        for (int cell = 0; cell < cellCount && bestCount > 1; ++cell) {
+            if (state.getValue(cell) == ConstraintState.UNUSED) {
+                int count = state.countCandidates(cell);
+
+                if (count < bestCount) {
+                    bestCell = cell;
+                    bestCount = count;
+                }
+            }
+        }
+
+        return bestCell;
+    }
+
+    /**
+     * Returns the value of the cell {@code (x, y)} in the last solution found
+     * by {@link #isSolvable()}.
+     *
+     * @param x the column of the cell.
+     * @param y the row of the cell.
+     * @return the value of the cell in the solution.
+     * @throws IllegalStateException if the sudoku is not known to be
+     *                               solvable.
+     */
+    public int getSolutionValue(int x, int y) {
+        int cell = cellOf(x, y);
+        checkSolutionKnown();
+        return solution[cell];
+    }
+
+    /**
+     * Writes the current values to {@code output}, empty cells as zero.
+     *
+     * @param output the target sudoku.
+     * @throws IllegalArgumentException if the dimension does not match.
+     */
+    public void store(Sudoku output) {
+        checkOutput(output);
+        state.store(output);
+    }
+
+    /**
+     * Writes the last solution found by {@link #isSolvable()} to
+     * {@code output}.
+     *
+     * @param output the target sudoku.
+     * @throws IllegalArgumentException if the dimension does not match.
+     * @throws IllegalStateException    if the sudoku is not known to be
+     *                                  solvable.
+     */
+    public void storeSolution(Sudoku output) {
+        checkOutput(output);
+        checkSolutionKnown();
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            output.setAt(cell, solution[cell]);
+        }
+    }
+
+    private void clearCell(int cell) {
+        if (solutionKnown && solution[cell] != state.getValue(cell)) {
+            --mismatchCount;
+        }
+
+        state.unassign(cell);
+        unsolvable = false;
+    }
+
+    private int cellOf(int x, int y) {
+        if (x < 0 || x >= dimension || y < 0 || y >= dimension) {
+            throw new IndexOutOfBoundsException(
+                    "The cell (x = " + x + ", y = " + y + ") is not on a " +
+                    dimension + " by " + dimension + " sudoku.");
+        }
+
+        return y * dimension + x;
+    }
+
+    private void checkValue(int value) {
+        if (value < 1 || value > dimension) {
+            throw new IllegalArgumentException(
+                    "The value " + value + " is not within [1, " +
+                    dimension + "].");
+        }
+    }
+
+    private void checkSolutionKnown() {
+        if (!hasSolution()) {
+            throw new IllegalStateException(
+                    "The sudoku is not known to be solvable.");
+        }
+    }
+
+    private void checkOutput(Sudoku output) {
+        Objects.requireNonNull(output, "The output sudoku is null.");
+
+        if (output.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + output.getDimension() +
+                    ", while this session expects " + dimension + ".");
+        }
+    }
+}
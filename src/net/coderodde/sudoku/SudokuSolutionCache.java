@@ -0,0 +1,249 @@
+package net.coderodde.sudoku;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements a bounded, thread-safe cache of sudoku solutions,
+ * used through {@link CachingSudokuSolver}. The entries are keyed by a
+ * 128-bit hash of the canonical form of the puzzle (see
+ * {@link SudokuCanonicalizer}), so the rotated, reflected and relabelled
+ * copies of a puzzle share one entry, and hold the solution of the canonical
+ * form packed as in the {@link SudokuBinaryFormat}. Puzzles without a
+ * solution are cached as well.
+ * <p>
+ * The cache is split into segments, each a least recently used map behind
+ * its own lock, so that threads working on different puzzles rarely contend.
+ * Each segment evicts its own least recently used entry when full.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuSolutionCache {
+
+    private static final int MAXIMUM_SEGMENT_COUNT = 16;
+    private static final int MINIMUM_SEGMENT_SIZE = 64;
+
+    /**
+     * The estimated heap bytes of an entry besides its solution record: the
+     * key object, the map entry and the array header.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * The value of a puzzle without a solution.
+     */
+    static final byte[] NO_SOLUTION = new byte[0];
+
+    private final long maximumSize;
+    private final Segment[] segments;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong recordBytes = new AtomicLong();
+
+    /**
+     * Constructs a cache holding at most the given number of puzzles.
+     *
+     * @param maximumSize the maximum number of entries.
+     */
+    public SudokuSolutionCache(long maximumSize) {
+        if (maximumSize < 1L) {
+            throw new IllegalArgumentException(
+                    "The maximum size (" + maximumSize + ") must be at " +
+                    "least 1.");
+        }
+
+        int segmentCount = (int) Math.max(
+                1L,
+                Math.min(MAXIMUM_SEGMENT_COUNT,
+                         maximumSize / MINIMUM_SEGMENT_SIZE));
+        segmentCount = Integer.highestOneBit(segmentCount);
+        this.maximumSize = maximumSize;
+        this.segments = new Segment[segmentCount];
+
+        for (int i = 0; i < segmentCount; ++i) {
+            // Spread the remainder so the capacities add up to the maximum.
+            long capacity = maximumSize / segmentCount +
+                            (i < maximumSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment((int) Math.min(capacity,
+                                                     Integer.MAX_VALUE));
+        }
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of cached puzzles.
+     *
+     * @return the number of entries.
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Returns the share of the lookups that found their puzzle.
+     *
+     * @return the hit rate within {@code [0, 1]}, or 0 before any lookup.
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long lookups = hits + getMissCount();
+        return lookups == 0L ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns an estimate of the heap memory taken by the entries.
+     *
+     * @return the estimated number of bytes.
+     */
+    public long getEstimatedMemoryBytes() {
+        return getSize() * ENTRY_OVERHEAD + recordBytes.get();
+    }
+
+    /**
+     * Removes all the entries. The hit and miss counts are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                for (byte[] record : segment.values()) {
+                    forget(record);
+                }
+
+                segment.clear();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[size: %d/%d, hit rate: %.3f, evictions: %d, " +
+                             "memory: ~%d KiB]",
+                             getSize(),
+                             maximumSize,
+                             getHitRate(),
+                             getEvictionCount(),
+                             getEstimatedMemoryBytes() / 1024L);
+    }
+
+    /**
+     * Returns the record cached for the given hash, or {@code null} if there
+     * is none. Does not count a hit or a miss; see {@link #recordHit()} and
+     * {@link #recordMiss()}.
+     */
+    byte[] get(long hash1, long hash2) {
+        Segment segment = segmentOf(hash1);
+        Key key = new Key(hash1, hash2);
+
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * Caches a record, which is either a packed canonical solution or
+     * {@link #NO_SOLUTION}.
+     */
+    void put(long hash1, long hash2, byte[] record) {
+        Segment segment = segmentOf(hash1);
+        Key key = new Key(hash1, hash2);
+
+        synchronized (segment) {
+            byte[] previous = segment.put(key, record);
+
+            if (previous != null) {
+                forget(previous);
+            }
+
+            size.incrementAndGet();
+            recordBytes.addAndGet(record.length);
+        }
+    }
+
+    void recordHit() {
+        hitCount.increment();
+    }
+
+    void recordMiss() {
+        missCount.increment();
+    }
+
+    private Segment segmentOf(long hash1) {
+        // The low bits pick the bucket within the segment map; use the high
+        // ones for the segment.
+        return segments[(int) (hash1 >>> 60) & (segments.length - 1)];
+    }
+
+    private void forget(byte[] record) {
+        size.decrementAndGet();
+        recordBytes.addAndGet(-record.length);
+    }
+
+    private static final class Key {
+
+        private final long hash1;
+        private final long hash2;
+
+        Key(long hash1, long hash2) {
+            this.hash1 = hash1;
+            this.hash2 = hash2;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) hash1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            return hash1 == other.hash1 && hash2 == other.hash2;
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<Key, byte[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+            if (size() <= capacity) {
+                return false;
+            }
+
+            forget(eldest.getValue());
+            evictionCount.increment();
+            return true;
+        }
+    }
+}
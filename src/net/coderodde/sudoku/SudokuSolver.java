@@ -1,218 +1,569 @@
 package net.coderodde.sudoku;
 
-import java.awt.Point;
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
+import java.util.Random;
 
 /**
  * This class implements a backtracking algorithm for solving square sudokus.
- * 
+ * The search is iterative and keeps its stack in preallocated primitive
+ * arrays, so its depth is not limited by the thread stack size.
+ * The occupancy of each row, column and minisquare is kept in primitive
+ * bitmasks (see {@link ConstraintState}). Before the search and after each
+ * placement the solver may run a constraint propagation stage that fills
+ * forced cells and eliminates impossible candidates.
+ * <p>
+ * A solver constructed with a {@link SudokuVariant} also enforces the units
+ * and killer cages of the variant, for example the diagonals of X-sudoku.
+ *
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Feb 25, 2016)
  */
-public class SudokuSolver {
+public class SudokuSolver implements SudokuEngine {
+
+    /**
+     * Enumerates the supported orders in which the empty cells are filled.
+     */
+    public enum SearchStrategy {
+
+        /**
+         * Fill the empty cells from left to right, top to bottom.
+         */
+        ROW_MAJOR,
+
+        /**
+         * Always branch on the empty cell with the fewest legal candidates.
+         */
+        MINIMUM_REMAINING_VALUES
+    }
 
-    private static final int MINIMUM_DIMENSION = 1;
-    private static final int UNUSED = 0;
+    /**
+     * Enumerates the reasoning techniques applied to a fixed point before the
+     * search and after each placement.
+     */
+    public enum PropagationLevel {
+
+        /**
+         * No propagation; rely on the search alone.
+         */
+        NONE,
+
+        /**
+         * Naked singles (a cell with only one candidate) and hidden singles
+         * (a value fitting in only one cell of a row, column or minisquare).
+         */
+        SINGLES,
+
+        /**
+         * Singles plus naked and hidden pairs and pointing/box-line
+         * reductions.
+         */
+        FULL
+    }
 
+    private final SudokuVariant variant;
     private final int dimension;
-    private final int minisquareDimension;
-    private Sudoku input;
-    private final IntSet[] rowSetArray;
-    private final IntSet[] columnSetArray;
-    private final IntSet[][] minisquareSetMatrix;
-    private final Point point = new Point();
-    private Sudoku solution;
+    private final ConstraintState state;
+    private SearchStrategy searchStrategy = SearchStrategy.ROW_MAJOR;
+    private PropagationLevel propagationLevel = PropagationLevel.SINGLES;
+    private long propagatedCellCount;
+    private final SearchLimits limits = new SearchLimits();
+    private SolveStatus lastStatus;
+    private SolverStatistics statistics;
+
+    // The counters of the last search, copied to 'statistics' if attached.
+    // The stop status is null unless the search was stopped early.
+    private SolveStatus searchStopStatus;
+    private long searchNodeCount;
+    private long searchBacktrackCount;
+    private int searchMaximumDepth;
+
+    // The explicit search stack. Its depth never exceeds the number of
+    // cells.
+    private final int[] frameCells;
+    private final int[] frameValues;
+    private final int[] frameTrailMarks;
+    private final int[] frameOffsets;
+    private Random random;
 
     public SudokuSolver(int dimension) {
-        this.minisquareDimension = checkDimension(dimension);
-        this.dimension = dimension;
+        this(new SudokuVariant(dimension));
+    }
 
-        rowSetArray    = new IntSet[dimension];
-        columnSetArray = new IntSet[dimension];
+    /**
+     * Constructs a solver for the sudokus following the rules of
+     * {@code variant}.
+     *
+     * @param variant the rules.
+     */
+    public SudokuSolver(SudokuVariant variant) {
+        this.variant = Objects.requireNonNull(variant,
+                                              "The variant is null.");
+        this.dimension = variant.getDimension();
+        this.state = new ConstraintState(variant);
+        this.frameCells      = new int[dimension * dimension];
+        this.frameValues     = new int[dimension * dimension];
+        this.frameTrailMarks = new int[dimension * dimension];
+        this.frameOffsets    = new int[dimension * dimension];
+    }
 
-        minisquareSetMatrix = new IntSet[minisquareDimension]
-                                        [minisquareDimension];
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
 
-        for (int i = 0; i < dimension; ++i) {
-            rowSetArray   [i] = new IntSet(dimension + 1);
-            columnSetArray[i] = new IntSet(dimension + 1);
-        }
+    public SudokuVariant getVariant() {
+        return variant;
+    }
 
-        for (int y = 0; y < minisquareDimension; ++y) {
-            for (int x = 0; x < minisquareDimension; ++x) {
-                minisquareSetMatrix[y][x] = new IntSet(dimension + 1);
-            }
-        }
+    public SearchStrategy getSearchStrategy() {
+        return searchStrategy;
+    }
+
+    public void setSearchStrategy(SearchStrategy searchStrategy) {
+        this.searchStrategy = Objects.requireNonNull(
+                searchStrategy,
+                "The search strategy is null.");
+    }
+
+    public PropagationLevel getPropagationLevel() {
+        return propagationLevel;
+    }
+
+    public void setPropagationLevel(PropagationLevel propagationLevel) {
+        this.propagationLevel = Objects.requireNonNull(
+                propagationLevel,
+                "The propagation level is null.");
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+
+    /**
+     * Sets the source of randomness for the order in which the values of each
+     * branching cell are tried. With {@code null} (the default) the values
+     * are tried in ascending order; otherwise, solving the same input may
+     * yield a different solution each time, which is how full grids for new
+     * puzzles are made.
+     *
+     * @param random the source of randomness, or {@code null}.
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public SolveStatus getLastStatus() {
+        return lastStatus;
+    }
+
+    @Override
+    public Duration getTimeLimit() {
+        return limits.getTimeLimit();
+    }
+
+    @Override
+    public void setTimeLimit(Duration timeLimit) {
+        limits.setTimeLimit(timeLimit);
+    }
+
+    @Override
+    public long getNodeLimit() {
+        return limits.getNodeLimit();
     }
 
+    @Override
+    public void setNodeLimit(long nodeLimit) {
+        limits.setNodeLimit(nodeLimit);
+    }
+
+    @Override
+    public CancellationToken getCancellationToken() {
+        return limits.getCancellationToken();
+    }
+
+    @Override
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        limits.setCancellationToken(cancellationToken);
+    }
+
+    @Override
+    public SolverStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void setStatistics(SolverStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public SearchProgress getProgress() {
+        return limits.getProgress();
+    }
+
+    @Override
+    public void setProgress(SearchProgress progress) {
+        limits.setProgress(progress);
+    }
+
+    /**
+     * Returns the number of cells filled by the propagation during the last
+     * call to {@link #solve(Sudoku)} or {@link #propagate(Sudoku)}. Cells
+     * filled within search branches that were later abandoned are counted as
+     * well.
+     *
+     * @return the number of propagated cells.
+     */
+    public long getPropagatedCellCount() {
+        return propagatedCellCount;
+    }
+
+    @Override
     public Sudoku solve(Sudoku input) {
-        Objects.requireNonNull(input, "The input sudoku is null.");
-        this.input = new Sudoku(input);
-        fixInputSudoku();
-        clearSets();
-        tryInitializeSets();
-        solution = new Sudoku(dimension);
-        solve();
+        Sudoku solution = new Sudoku(dimension);
+        solve(input, solution);
         return solution;
     }
 
-    // Checks that the requested dimension d = k^2 for some positive integer 
-    // k, which means that we can form "miniquares". For example, if the 
-    // dimension is 9, the dimension of a minisquare is 3.
-    private int checkDimension(int dimension) {
-        if (dimension < MINIMUM_DIMENSION) {
-            throw new IllegalArgumentException(
-                    "The requested sudoku dimension (" + dimension +
-                    ") is too small. Must be at least " + MINIMUM_DIMENSION + 
-                    ".");
+    @Override
+    public boolean solve(Sudoku input, Sudoku output) {
+        Objects.requireNonNull(input, "The input sudoku is null.");
+        Objects.requireNonNull(output, "The output sudoku is null.");
+        checkInputDimension(input);
+        checkInputDimension(output);
+        boolean solved = run(input, 1L) == 1L;
+
+        if (solved) {
+            state.store(output);
+        } else {
+            output.clear();
         }
 
-        int i = 1;
+        return solved;
+    }
 
-        while (i * i < dimension) {
-            ++i;
+    @Override
+    public long countSolutions(Sudoku input, long limit) {
+        Objects.requireNonNull(input, "The input sudoku is null.");
+        checkInputDimension(input);
+        checkLimit(limit);
+        return run(input, limit);
+    }
+
+    /**
+     * Runs only the propagation stage on the input sudoku and writes the
+     * cells it manages to fill back to it. Uses the current propagation
+     * level.
+     *
+     * @param sudoku the sudoku to simplify in place.
+     * @return the number of cells filled, or -1 if the propagation proves
+     *         that the sudoku has no solution, in which case the sudoku is
+     *         not modified.
+     */
+    public int propagate(Sudoku sudoku) {
+        Objects.requireNonNull(sudoku, "The input sudoku is null.");
+        checkInputDimension(sudoku);
+        state.setCountingCandidates(false);
+        state.load(sudoku);
+        boolean consistent = state.propagate(propagationLevel);
+        propagatedCellCount = state.getPropagatedCellCount();
+
+        if (!consistent) {
+            return -1;
         }
 
-        if (i * i > dimension) {
-            throw new IllegalArgumentException(
-                    "The requested sudoku dimension (" + dimension + 
-                    ") is not a square of a positive integer.");
+        for (int cell = 0; cell < state.getCellCount(); ++cell) {
+            int value = state.getValue(cell);
+
+            if (value != ConstraintState.UNUSED) {
+                sudoku.setAt(cell, value);
+            }
         }
 
-        return i;
+        return (int) propagatedCellCount;
     }
 
-    private void fixInputSudoku() {
-        int dimension = input.getDimension();
+    /**
+     * Splits the search space of {@code sudoku} one branching level deep.
+     * Loads and propagates the sudoku, selects the cell the search would
+     * branch on and appends, for each of its candidates that survives the
+     * propagation, the resulting partial sudoku to {@code children}.
+     *
+     * @param sudoku   the partial sudoku to split.
+     * @param children the list receiving the subproblems.
+     * @return -1 if the sudoku has no solution, 0 if the propagation solved
+     *         it (in which case the solution is written to {@code sudoku}),
+     *         or the number of children added.
+     */
+    int split(Sudoku sudoku, List<Sudoku> children) {
+        state.setCountingCandidates(
+                searchStrategy == SearchStrategy.MINIMUM_REMAINING_VALUES);
+        state.load(sudoku);
+
+        if (!state.propagate(propagationLevel)) {
+            return -1;
+        }
 
-        for (int y = 0; y < dimension; ++y) {
-            for (int x = 0; x < dimension; ++x) {
-                int currentValue = input.get(x, y);
+        int cell = selectCell(0);
 
-                if (currentValue < 1 || currentValue > dimension) {
-                    input.set(x, y, UNUSED);
-                }
+        if (cell == -1) {
+            state.store(sudoku);
+            return 0;
+        }
+
+        int trailMark = state.getTrailSize();
+        int added = 0;
+
+        for (int value = state.nextCandidate(cell, ConstraintState.UNUSED);
+                value != ConstraintState.UNUSED;
+                value = state.nextCandidate(cell, value)) {
+            state.place(cell, value);
+
+            if (state.propagate(propagationLevel)) {
+                Sudoku child = new Sudoku(dimension);
+                state.store(child);
+                children.add(child);
+                ++added;
             }
+
+            state.undo(trailMark);
         }
+
+        return added == 0 ? -1 : added;
     }
 
-    private void clearSets() {
-        for (int i = 0; i < dimension; ++i) {
-            rowSetArray   [i].clear();
-            columnSetArray[i].clear();
+    private static void checkLimit(long limit) {
+        if (limit < 1L) {
+            throw new IllegalArgumentException(
+                    "The solution limit (" + limit + ") must be at least 1.");
         }
+    }
 
-        for (int y = 0; y < minisquareDimension; ++y) {
-            for (int x = 0; x < minisquareDimension; ++x) {
-                minisquareSetMatrix[y][x].clear();
-            }
+    private void checkInputDimension(Sudoku sudoku) {
+        if (sudoku.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + sudoku.getDimension() +
+                    ", while this solver expects " + dimension + ".");
         }
     }
 
-    private void tryInitializeSets() {
-        for (int y = 0; y < dimension; ++y) {
-            for (int x = 0; x < dimension; ++x) {
-                int currentValue = input.get(x, y);
+    /**
+     * Returns the constraint state of this solver, for a caller that edits it
+     * directly between calls to {@link #resume(long)}. Any other solving
+     * method reloads it.
+     */
+    ConstraintState getState() {
+        return state;
+    }
 
-                if (rowSetArray[y].contains(currentValue)) {
-                    throw new IllegalArgumentException(
-                        "The cell (x = " + x + ", y = " + y + ") with " +
-                        "value " + currentValue + 
-                        " is a duplicate in its row.");
-                }
+    /**
+     * Propagates and searches for at most {@code limit} solutions of the
+     * assignment currently in the state, as left by the caller, instead of
+     * loading a sudoku. The last solution found is left in the state; the
+     * caller reverts everything by undoing to the trail size it had before
+     * the call. Sets the status and fills in the statistics, if attached.
+     *
+     * @param limit the maximum number of solutions to look for.
+     * @return the number of solutions found.
+     */
+    long resume(long limit) {
+        long startTime = statistics == null ? 0L : System.nanoTime();
+        limits.start();
+        boolean counting =
+                searchStrategy == SearchStrategy.MINIMUM_REMAINING_VALUES;
+        state.setCountingCandidates(counting);
+
+        if (counting) {
+            state.recountCandidates();
+        }
 
-                if (columnSetArray[x].contains(currentValue)) {
-                    throw new IllegalArgumentException(
-                        "The cell (x = " + x + ", y = " + y + ") with " +
-                        "value " + currentValue + 
-                        " is a duplicate in its column.");
-                }
+        state.resetCounters();
+        return runLoaded(limit, startTime);
+    }
 
-                loadMinisquareCoordinates(x, y);
+    // Loads the input, propagates and searches for at most 'limit' solutions,
+    // leaving the last one found in the state. Sets the status and fills in
+    // the statistics, if attached. Returns the number of solutions found.
+    private long run(Sudoku input, long limit) {
+        long startTime = statistics == null ? 0L : System.nanoTime();
+        limits.start();
+        state.setCountingCandidates(
+                searchStrategy == SearchStrategy.MINIMUM_REMAINING_VALUES);
+        state.load(input);
+        return runLoaded(limit, startTime);
+    }
 
-                if (minisquareSetMatrix[point.y][point.x].contains(currentValue)) {
-                    throw new IllegalArgumentException(
-                        "The cell (x = " + x + ", y = " + y + ") with " +
-                        "value " + currentValue + 
-                        " is a duplicate in its minisquare.");
-                }
+    private long runLoaded(long limit, long startTime) {
+        searchStopStatus = null;
+        searchNodeCount = 0L;
+        searchBacktrackCount = 0L;
+        searchMaximumDepth = 0;
+        long solutions = 0L;
 
-                if (isValidCellValue(currentValue)) {
-                    rowSetArray   [y].add(currentValue);
-                    columnSetArray[x].add(currentValue);
-                    // This call saves the result in the field 'point'.
-                    minisquareSetMatrix[point.y][point.x].add(currentValue);
-                }
-            }
+        if (state.propagate(propagationLevel)) {
+            solutions = search(limit);
         }
-    }
 
-    private boolean isValidCellValue(int value) {
-        return 0 < value && value <= dimension;
-    }
+        propagatedCellCount = state.getPropagatedCellCount();
 
-    private void loadMinisquareCoordinates(int x, int y) {
-        point.x = x / minisquareDimension;
-        point.y = y / minisquareDimension;
-    }
+        if (searchStopStatus != null) {
+            lastStatus = searchStopStatus;
+        } else {
+            lastStatus = solutions > 0L ?
+                         SolveStatus.SOLVED :
+                         SolveStatus.NO_SOLUTION;
+        }
+
+        limits.finish(searchNodeCount);
+
+        if (statistics != null) {
+            statistics.record(searchNodeCount,
+                              searchBacktrackCount,
+                              searchMaximumDepth,
+                              propagatedCellCount,
+                              state.getEliminatedCandidateCount(),
+                              System.nanoTime() - startTime,
+                              solutions,
+                              lastStatus);
+        }
 
-    private void solve() {
-        solve(0, 0);
+        return solutions;
     }
 
-    private boolean solve(int x, int y) {
-        if (x == dimension) {
-            // "Carriage return": we are done with row 'y', so move to the row
-            // 'y + 1' and set 'x' to zero.
-            x = 0;
-            ++y;
+    // Runs the depth-first search iteratively. Each frame of the explicit
+    // stack holds the cell being branched on, the last value tried at it and
+    // the trail size before that value was placed. Stops as soon as 'limit'
+    // solutions are found, leaving the last one in the state. Returns the
+    // number of solutions found. The counters are kept in local variables
+    // and stored in the fields only once, on the way out. If the limits stop
+    // the search, sets 'searchStopStatus'.
+    private long search(long limit) {
+        int cell = selectCell(0);
+
+        if (cell == -1) {
+            // Everything was filled by the propagation.
+            return 1L;
         }
 
-        if (y == dimension) {
-            // We have found a solution, signal success by return 'true'.
-            return true;
+        SolveStatus stopStatus = limits.check(0L);
+
+        if (stopStatus != null) {
+            searchStopStatus = stopStatus;
+            return 0L;
         }
 
-        if (input.get(x, y) != UNUSED) {
-            // Just load a predefined value from the input matrix to solution,
-            // and proceed further.
-            solution.set(x, y, input.get(x, y));
-            return solve(x + 1, y);
-        } 
+        long solutions = 0L;
+        int depth = 0;
+        int maximumDepth = 0;
+        long nodes = 0L;
+        long nextCheck = limits.nextCheck(0L);
+        long backtracks = 0L;
+        pushFrame(0, cell);
+
+        while (depth >= 0) {
+            cell = frameCells[depth];
+
+            // Revert the previous value tried at this frame, together with
+            // everything propagated and searched below it.
+            state.undo(frameTrailMarks[depth]);
+            int value = nextValue(depth, cell);
+
+            if (value == ConstraintState.UNUSED) {
+                // No number fits at this cell, backtrack a little.
+                --depth;
+                ++backtracks;
+                continue;
+            }
 
-            // Find least number fitting in the current cell (x, y).
-        for (int i = 1; i <= dimension; ++i) {
-            if (!columnSetArray[x].contains(i)
-                    && !rowSetArray[y].contains(i)) {
-                loadMinisquareCoordinates(x, y);
+            if (++nodes == nextCheck) {
+                stopStatus = limits.check(nodes);
 
-                if (!minisquareSetMatrix[point.y][point.x].contains(i)) {
-                    solution.set(x, y, i);
-                    rowSetArray   [y].add(i);
-                    columnSetArray[x].add(i);
-                    minisquareSetMatrix[point.y][point.x].add(i);
+                if (stopStatus != null) {
+                    // The node was not tried after all.
+                    --nodes;
+                    searchStopStatus = stopStatus;
+                    break;
+                }
 
-                    if (solve(x + 1, y)) {
-                        // A solution found; stop backtracking by returning
-                        // at each recursion level.
-                        return true;
-                    }
+                nextCheck = limits.nextCheck(nodes);
+            }
+
+            state.place(cell, value);
+
+            if (!state.propagate(propagationLevel)) {
+                continue;
+            }
 
-                    // Setting 'i' at current cell (x, y) did not lead towards
-                    // solution; remove from the sets and try larger value 
-                    // for 'i' in the next iteration.
-                    rowSetArray   [y].remove(i);
-                    columnSetArray[x].remove(i);
+            int nextCell = selectCell(cell + 1);
 
-                    // Reload the minisquare coordinates as they are likely to
-                    // be invalid due to recursion.
-                    loadMinisquareCoordinates(x, y);
-                    minisquareSetMatrix[point.y][point.x].remove(i);
+            if (nextCell == -1) {
+                // We have found a solution.
+                if (++solutions == limit) {
+                    break;
                 }
+
+                // Go on with the next value at the same frame.
+                continue;
+            }
+
+            pushFrame(++depth, nextCell);
+            maximumDepth = Math.max(maximumDepth, depth);
+        }
+
+        searchNodeCount = nodes;
+        searchBacktrackCount = backtracks;
+        searchMaximumDepth = maximumDepth + 1;
+        return solutions;
+    }
+
+    private void pushFrame(int depth, int cell) {
+        frameCells[depth] = cell;
+        frameValues[depth] = 0;
+        frameTrailMarks[depth] = state.getTrailSize();
+
+        if (random != null) {
+            frameOffsets[depth] = random.nextInt(dimension);
+        }
+    }
+
+    // Returns the next value to try at the frame 'depth' branching on 'cell',
+    // or 'UNUSED' if all are tried. Without randomization the frame cursor is
+    // the last value tried and the values go in ascending order. With it,
+    // the cursor counts the values tried so far, and the values go in
+    // ascending order cyclically from a random offset drawn for the frame.
+    private int nextValue(int depth, int cell) {
+        if (random == null) {
+            int value = state.nextCandidate(cell, frameValues[depth]);
+            frameValues[depth] = value;
+            return value;
+        }
+
+        int offset = frameOffsets[depth];
+
+        for (int tried = frameValues[depth]; tried < dimension; ++tried) {
+            int value = (offset + tried) % dimension + 1;
+
+            if (state.isCandidate(cell, value)) {
+                frameValues[depth] = tried + 1;
+                return value;
             }
         }
 
-        // No number fits at this (x, y), backtrack a little.
-        return false;
+        frameValues[depth] = dimension;
+        return ConstraintState.UNUSED;
+    }
+
+    // Returns the next cell to branch on, or -1 if all cells are filled. The
+    // row-major strategy only looks at cells starting from 'firstCell', as
+    // all the preceding ones are filled.
+    private int selectCell(int firstCell) {
+        if (searchStrategy == SearchStrategy.ROW_MAJOR) {
+            return state.nextEmptyCell(firstCell);
+        }
+
+        return state.selectMinimumRemainingValuesCell();
     }
 }
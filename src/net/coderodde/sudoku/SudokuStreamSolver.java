@@ -0,0 +1,364 @@
+package net.coderodde.sudoku;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+/**
+ * This class solves an unbounded stream of sudokus read line by line on
+ * several worker threads, writing the solutions in input order as soon as
+ * they are available. The puzzles travel through a fixed pool of
+ * {@link #getCapacity()} reusable slots: the reading thread blocks while all
+ * the slots are in flight, so the memory use is bounded whatever the length
+ * of the input, and a slow output slows the reading down instead of queueing
+ * up solutions.
+ * <p>
+ * The reading happens on the thread calling
+ * {@link #solve(SudokuLineReader, SudokuLineWriter)}, the writing on a thread
+ * of its own. An unsolvable puzzle, or one whose givens contradict each
+ * other, is written as an all-empty line so that the output lines keep
+ * matching the input ones.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuStreamSolver {
+
+    /**
+     * The number of slots per worker when the capacity is not given. Enough
+     * to keep the workers busy while the writer waits on a hard puzzle.
+     */
+    private static final int SLOTS_PER_WORKER = 64;
+
+    /**
+     * Marks the end of the stream in the queues.
+     */
+    private static final Slot END = new Slot(Sudoku.MINIMUM_DIMENSION);
+
+    private final int dimension;
+    private final int parallelism;
+    private final int capacity;
+    private final IntFunction<SudokuEngine> engineFactory;
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private long puzzleCount;
+    private long solvedCount;
+    private long elapsedNanos;
+
+    /**
+     * Constructs a stream solver using all available processors.
+     *
+     * @param dimension the dimension of the puzzles.
+     */
+    public SudokuStreamSolver(int dimension) {
+        this(dimension, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a stream solver with the given parallelism.
+     *
+     * @param dimension   the dimension of the puzzles.
+     * @param parallelism the number of worker threads.
+     */
+    public SudokuStreamSolver(int dimension, int parallelism) {
+        this(dimension,
+             parallelism,
+             SLOTS_PER_WORKER * Math.max(parallelism, 1),
+             SudokuEngine::forDimension);
+    }
+
+    /**
+     * Constructs a stream solver.
+     *
+     * @param dimension     the dimension of the puzzles.
+     * @param parallelism   the number of worker threads.
+     * @param capacity      the maximum number of puzzles in flight.
+     * @param engineFactory maps a dimension to a new engine.
+     * @throws IllegalArgumentException if the dimension is not the square of
+     *                                  a positive integer, or the
+     *                                  parallelism or the capacity is too
+     *                                  small.
+     */
+    public SudokuStreamSolver(int dimension,
+                              int parallelism,
+                              int capacity,
+                              IntFunction<SudokuEngine> engineFactory) {
+        Sudoku.checkSquareDimension(dimension);
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "The parallelism (" + parallelism + ") must be at " +
+                    "least 1.");
+        }
+
+        if (capacity < parallelism) {
+            throw new IllegalArgumentException(
+                    "The capacity (" + capacity + ") must be at least the " +
+                    "parallelism (" + parallelism + ").");
+        }
+
+        this.dimension = dimension;
+        this.parallelism = parallelism;
+        this.capacity = capacity;
+        this.engineFactory = Objects.requireNonNull(
+                engineFactory,
+                "The engine factory is null.");
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Reads all the puzzles of {@code reader}, solves them and writes the
+     * solutions to {@code writer} in input order. Neither is closed, but the
+     * writer is flushed. Should solving a puzzle throw, the stream stops at
+     * that puzzle and the exception is rethrown here once the threads have
+     * finished.
+     *
+     * @param reader the source of the puzzles.
+     * @param writer the sink of the solutions.
+     * @return the number of puzzles solved.
+     * @throws IOException          if reading or writing fails.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public long solve(SudokuLineReader reader, SudokuLineWriter writer)
+            throws IOException, InterruptedException {
+        BlockingQueue<Slot> freeSlots = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<Slot> workQueue =
+                new ArrayBlockingQueue<>(capacity + parallelism);
+        BlockingQueue<Slot> outputQueue =
+                new ArrayBlockingQueue<>(capacity + 1);
+
+        for (int i = 0; i < capacity; ++i) {
+            freeSlots.add(new Slot(dimension));
+        }
+
+        Thread[] workers = new Thread[parallelism];
+        OutputTask output = new OutputTask(outputQueue, freeSlots, writer);
+        Thread outputThread = new Thread(output, "sudoku-stream-writer");
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < parallelism; ++i) {
+            workers[i] = new Thread(new SolverTask(workQueue),
+                                    "sudoku-stream-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+
+        outputThread.setDaemon(true);
+        outputThread.start();
+
+        try {
+            // Once the output or a solve fails, stop reading; the output
+            // thread keeps recycling the slots, so this loop never blocks for
+            // good.
+            while (output.failure == null && output.solveFailure == null) {
+                Slot slot = freeSlots.take();
+
+                if (!reader.next(slot.puzzle)) {
+                    break;
+                }
+
+                slot.enqueueTime = System.nanoTime();
+                outputQueue.put(slot);
+                workQueue.put(slot);
+            }
+        } finally {
+            outputQueue.put(END);
+
+            for (int i = 0; i < parallelism; ++i) {
+                workQueue.put(END);
+            }
+
+            for (Thread worker : workers) {
+                worker.join();
+            }
+
+            outputThread.join();
+            elapsedNanos = System.nanoTime() - startTime;
+            puzzleCount = output.puzzleCount;
+            solvedCount = output.solvedCount;
+        }
+
+        if (output.failure != null) {
+            throw output.failure;
+        }
+
+        if (output.solveFailure != null) {
+            throw output.solveFailure;
+        }
+
+        writer.flush();
+        return solvedCount;
+    }
+
+    /**
+     * Returns the number of puzzles in the last stream.
+     *
+     * @return the puzzle count.
+     */
+    public long getPuzzleCount() {
+        return puzzleCount;
+    }
+
+    /**
+     * Returns the number of puzzles solved in the last stream.
+     *
+     * @return the solved count.
+     */
+    public long getSolvedCount() {
+        return solvedCount;
+    }
+
+    /**
+     * Returns the wall time the last stream took.
+     *
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the throughput of the last stream.
+     *
+     * @return the number of puzzles per second.
+     */
+    public double getPuzzlesPerSecond() {
+        return elapsedNanos == 0L ? 0.0 : puzzleCount * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the histogram of the per-puzzle latencies, measured from the
+     * moment a puzzle is read to the moment its solution is available. The
+     * histogram accumulates over all the streams solved by this instance.
+     *
+     * @return the latency histogram.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    private static final class Slot {
+
+        final Sudoku puzzle;
+        final Sudoku solution;
+
+        /**
+         * Released by the worker once {@code solution} is ready.
+         */
+        final Semaphore done = new Semaphore(0);
+
+        long enqueueTime;
+        boolean solved;
+
+        /**
+         * The exception solving the puzzle threw, if any.
+         */
+        RuntimeException failure;
+
+        Slot(int dimension) {
+            this.puzzle = new Sudoku(dimension);
+            this.solution = new Sudoku(dimension);
+        }
+    }
+
+    private final class SolverTask implements Runnable {
+
+        private final BlockingQueue<Slot> workQueue;
+
+        SolverTask(BlockingQueue<Slot> workQueue) {
+            this.workQueue = workQueue;
+        }
+
+        @Override
+        public void run() {
+            SudokuBatchSolver solver = new SudokuBatchSolver(engineFactory);
+
+            try {
+                for (Slot slot; (slot = workQueue.take()) != END;) {
+                    slot.failure = null;
+
+                    try {
+                        // Clears the solution of an unsolvable puzzle.
+                        slot.solved =
+                                solver.solveOne(slot.puzzle, slot.solution);
+                        latencies.record(System.nanoTime() - slot.enqueueTime);
+                    } catch (RuntimeException ex) {
+                        // Handed to the output thread, which fails the
+                        // stream; the worker goes on draining the queue.
+                        slot.solved = false;
+                        slot.failure = ex;
+                    } finally {
+                        // Never leave the output thread waiting.
+                        slot.done.release();
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class OutputTask implements Runnable {
+
+        private final BlockingQueue<Slot> outputQueue;
+        private final BlockingQueue<Slot> freeSlots;
+        private final SudokuLineWriter writer;
+
+        volatile IOException failure;
+        volatile RuntimeException solveFailure;
+        long puzzleCount;
+        long solvedCount;
+
+        OutputTask(BlockingQueue<Slot> outputQueue,
+                   BlockingQueue<Slot> freeSlots,
+                   SudokuLineWriter writer) {
+            this.outputQueue = outputQueue;
+            this.freeSlots = freeSlots;
+            this.writer = writer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (Slot slot; (slot = outputQueue.take()) != END;) {
+                    slot.done.acquire();
+                    ++puzzleCount;
+
+                    if (slot.solved) {
+                        ++solvedCount;
+                    }
+
+                    if (slot.failure != null && solveFailure == null) {
+                        solveFailure = slot.failure;
+                    }
+
+                    if (failure == null && solveFailure == null) {
+                        try {
+                            writer.write(slot.solution);
+                        } catch (IOException ex) {
+                            failure = ex;
+                        }
+                    }
+
+                    freeSlots.put(slot);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
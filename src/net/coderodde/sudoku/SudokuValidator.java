@@ -0,0 +1,337 @@
+package net.coderodde.sudoku;
+
+import java.util.Arrays;
+
+/**
+ * This class checks sudokus against the rules of the game. The values seen
+ * in each row, column and minisquare are tracked in bitmasks preallocated
+ * for one dimension, so once constructed, a validator checks any number of
+ * sudokus without allocating.
+ * <p>
+ * {@link #isSolution(Sudoku)} and {@link #isConsistent(Sudoku)} answer with
+ * a boolean and stop at the first violation. {@link #findConflicts(Sudoku)}
+ * instead scans the whole sudoku and records every cell and unit involved in
+ * a duplicate, for the caller to query afterwards.
+ * <p>
+ * Bit {@code v - 1} of a mask stands for the value {@code v}, as in the
+ * solver. Instances are not thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuValidator {
+
+    private final int dimension;
+    private final int minisquareDimension;
+    private final int cellCount;
+
+    /**
+     * The number of {@code long} words needed to hold one mask.
+     */
+    private final int words;
+
+    // The masks of the values seen once, and of the values seen at least
+    // twice, in each unit: the rows, then the columns, then the minisquares.
+    private final long[] seenMasks;
+    private final long[] duplicateMasks;
+
+    // The report of the last call to findConflicts().
+    private final boolean[] conflictingCellFlags;
+    private final int[] conflictingCells;
+    private final boolean[] conflictingUnits;
+    private int conflictingCellCount;
+    private int emptyCellCount;
+
+    /**
+     * Constructs a validator for sudokus of the given dimension.
+     *
+     * @param dimension the sudoku dimension.
+     * @throws IllegalArgumentException if the dimension is not the square of
+     *                                  a positive integer.
+     */
+    public SudokuValidator(int dimension) {
+        this.minisquareDimension = Sudoku.checkSquareDimension(dimension);
+        this.dimension = dimension;
+        this.cellCount = dimension * dimension;
+        this.words = (dimension + 63) >>> 6;
+        this.seenMasks = new long[3 * dimension * words];
+        this.duplicateMasks = new long[3 * dimension * words];
+        this.conflictingCellFlags = new boolean[cellCount];
+        this.conflictingCells = new int[cellCount];
+        this.conflictingUnits = new boolean[3 * dimension];
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Tells whether {@code sudoku} is solved: every cell holds a value within
+     * {@code [1, dimension]} and no value is duplicated in a row, a column or
+     * a minisquare.
+     *
+     * @param sudoku the sudoku to check.
+     * @return {@code true} if the sudoku is a complete, valid grid.
+     * @throws IllegalArgumentException if the dimension does not match.
+     */
+    public boolean isSolution(Sudoku sudoku) {
+        checkSudokuDimension(sudoku);
+        Arrays.fill(seenMasks, 0L);
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = sudoku.getAt(cell);
+
+            if (value == 0 || !mark(cell, value)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Tells whether {@code solution} is a solution of {@code puzzle}: it is
+     * solved, and agrees with every given of the puzzle. This is the check
+     * to run after a solve.
+     *
+     * @param puzzle   the puzzle.
+     * @param solution the supposed solution.
+     * @return {@code true} if the solution solves the puzzle.
+     * @throws IllegalArgumentException if a dimension does not match.
+     */
+    public boolean isSolution(Sudoku puzzle, Sudoku solution) {
+        checkSudokuDimension(puzzle);
+
+        if (!isSolution(solution)) {
+            return false;
+        }
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = puzzle.getAt(cell);
+
+            if (value >= 1 && value != solution.getAt(cell)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Tells whether no value is duplicated in a row, a column or a
+     * minisquare of {@code sudoku}. Zero denotes an empty cell and is
+     * allowed. This is the condition under which
+     * the engines accept a sudoku.
+     *
+     * @param sudoku the sudoku to check.
+     * @return {@code true} if there are no duplicates.
+     * @throws IllegalArgumentException if the dimension does not match.
+     */
+    public boolean isConsistent(Sudoku sudoku) {
+        checkSudokuDimension(sudoku);
+        Arrays.fill(seenMasks, 0L);
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = sudoku.getAt(cell);
+
+            if (value >= 1 && !mark(cell, value)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Finds all the duplicates of {@code sudoku}. A cell conflicts if its
+     * value appears elsewhere in its row, its column or its minisquare; a
+     * unit conflicts if it contains a duplicated value. The results are
+     * available through the query methods until the next call.
+     *
+     * @param sudoku the sudoku to check.
+     * @return the number of conflicting cells; zero if the sudoku is
+     *         consistent.
+     * @throws IllegalArgumentException if the dimension does not match.
+     */
+    public int findConflicts(Sudoku sudoku) {
+        checkSudokuDimension(sudoku);
+        Arrays.fill(seenMasks, 0L);
+        Arrays.fill(duplicateMasks, 0L);
+        Arrays.fill(conflictingUnits, false);
+        conflictingCellCount = 0;
+        emptyCellCount = 0;
+        boolean anyDuplicates = false;
+
+        // The first pass finds the duplicated values of each unit.
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = sudoku.getAt(cell);
+
+            if (value == 0) {
+                ++emptyCellCount;
+                continue;
+            }
+
+            int word = (value - 1) >>> 6;
+            long bit = 1L << (value - 1);
+            anyDuplicates |= see(rowOf(cell), word, bit);
+            anyDuplicates |= see(columnOf(cell), word, bit);
+            anyDuplicates |= see(minisquareOf(cell), word, bit);
+        }
+
+        Arrays.fill(conflictingCellFlags, false);
+
+        if (!anyDuplicates) {
+            return 0;
+        }
+
+        // The second pass finds the cells holding a duplicated value.
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = sudoku.getAt(cell);
+
+            if (value == 0) {
+                continue;
+            }
+
+            int word = (value - 1) >>> 6;
+            long bit = 1L << (value - 1);
+
+            if (isDuplicated(rowOf(cell), word, bit)
+                    || isDuplicated(columnOf(cell), word, bit)
+                    || isDuplicated(minisquareOf(cell), word, bit)) {
+                conflictingCellFlags[cell] = true;
+                conflictingCells[conflictingCellCount++] = cell;
+            }
+        }
+
+        return conflictingCellCount;
+    }
+
+    /**
+     * Returns the number of conflicting cells found by the last call to
+     * {@link #findConflicts(Sudoku)}.
+     *
+     * @return the conflicting cell count.
+     */
+    public int getConflictingCellCount() {
+        return conflictingCellCount;
+    }
+
+    /**
+     * Returns a conflicting cell found by the last call to
+     * {@link #findConflicts(Sudoku)}, in row-major order.
+     *
+     * @param index the index of the conflict, within
+     *              {@code [0, getConflictingCellCount())}.
+     * @return the row-major index of the cell.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int getConflictingCell(int index) {
+        if (index < 0 || index >= conflictingCellCount) {
+            throw new IndexOutOfBoundsException(
+                    "The conflict index " + index + " is not within [0, " +
+                    conflictingCellCount + ").");
+        }
+
+        return conflictingCells[index];
+    }
+
+    public boolean isConflictingCell(int x, int y) {
+        return conflictingCellFlags[y * dimension + x];
+    }
+
+    public boolean isConflictingRow(int y) {
+        return conflictingUnits[y];
+    }
+
+    public boolean isConflictingColumn(int x) {
+        return conflictingUnits[dimension + x];
+    }
+
+    /**
+     * Tells whether the minisquare containing the cell {@code (x, y)}
+     * conflicted in the last call to {@link #findConflicts(Sudoku)}.
+     *
+     * @param x the column of any cell of the minisquare.
+     * @param y the row of any cell of the minisquare.
+     * @return {@code true} if the minisquare contains a duplicate.
+     */
+    public boolean isConflictingMinisquare(int x, int y) {
+        return conflictingUnits[2 * dimension + minisquareIndex(x, y)];
+    }
+
+    /**
+     * Returns the number of empty cells counted by the last call to
+     * {@link #findConflicts(Sudoku)}.
+     *
+     * @return the empty cell count.
+     */
+    public int getEmptyCellCount() {
+        return emptyCellCount;
+    }
+
+    // Sets the bit of the value in the three units of the cell, or returns
+    // false if one of them already has it.
+    private boolean mark(int cell, int value) {
+        int word = (value - 1) >>> 6;
+        long bit = 1L << (value - 1);
+        int row = rowOf(cell) * words + word;
+        int column = columnOf(cell) * words + word;
+        int minisquare = minisquareOf(cell) * words + word;
+
+        if (((seenMasks[row] | seenMasks[column] | seenMasks[minisquare])
+                & bit) != 0L) {
+            return false;
+        }
+
+        seenMasks[row] |= bit;
+        seenMasks[column] |= bit;
+        seenMasks[minisquare] |= bit;
+        return true;
+    }
+
+    // Records the value in the unit, and returns true if it was already
+    // there.
+    private boolean see(int unit, int word, long bit) {
+        int index = unit * words + word;
+
+        if ((seenMasks[index] & bit) == 0L) {
+            seenMasks[index] |= bit;
+            return false;
+        }
+
+        duplicateMasks[index] |= bit;
+        conflictingUnits[unit] = true;
+        return true;
+    }
+
+    private boolean isDuplicated(int unit, int word, long bit) {
+        return (duplicateMasks[unit * words + word] & bit) != 0L;
+    }
+
+    // The unit indices of the row, the column and the minisquare of a cell.
+    private int rowOf(int cell) {
+        return cell / dimension;
+    }
+
+    private int columnOf(int cell) {
+        return dimension + cell % dimension;
+    }
+
+    private int minisquareOf(int cell) {
+        return 2 * dimension + minisquareIndex(cell % dimension,
+                                               cell / dimension);
+    }
+
+    private int minisquareIndex(int x, int y) {
+        return (y / minisquareDimension) * minisquareDimension +
+               x / minisquareDimension;
+    }
+
+    private void checkSudokuDimension(Sudoku sudoku) {
+        if (sudoku.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + sudoku.getDimension() +
+                    ", while this validator expects " + dimension + ".");
+        }
+    }
+}
@@ -0,0 +1,554 @@
+package net.coderodde.sudoku;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class describes the rules of a sudoku: which groups of cells must hold
+ * distinct values and which cages must add up to a given sum. Besides the
+ * rows and the columns, every cell lies in one region, a minisquare unless
+ * irregular regions are given with {@link #withRegions(int[])}. On top of
+ * that may come
+ * <ul>
+ *   <li>the two main diagonals ({@link #withDiagonals()}, X-sudoku),</li>
+ *   <li>the extra windows of windoku, one minisquare apart
+ *       ({@link #withWindows()}),</li>
+ *   <li>killer cages ({@link #withCage(int, int...)}), groups of distinct
+ *       values adding up to a sum.</li>
+ * </ul>
+ * Instances are immutable; each {@code with} method returns a new variant,
+ * so a variant may be shared by any number of solvers:
+ * <pre>
+ *   SudokuVariant variant = new SudokuVariant(9).withDiagonals();
+ *   SudokuSolver solver = new SudokuSolver(variant);
+ * </pre>
+ * The cells are numbered {@code y * dimension + x} throughout.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 18, 2026)
+ */
+public final class SudokuVariant {
+
+    /**
+     * The largest dimension cages are supported for, so that the values of a
+     * cage fit in one {@code long}.
+     */
+    public static final int MAXIMUM_CAGE_DIMENSION = Long.SIZE;
+
+    /**
+     * The largest number of value combinations a single cage may have.
+     */
+    static final int MAXIMUM_CAGE_COMBINATIONS = 1 << 16;
+
+    private static final int[][] NO_CAGE_CELLS = new int[0][];
+    private static final long[][] NO_CAGE_COMBINATIONS = new long[0][];
+
+    private final int dimension;
+    private final int minisquareDimension;
+
+    /**
+     * Maps each cell to its region, or {@code null} if the regions are the
+     * minisquares.
+     */
+    private final int[] regions;
+    private final boolean diagonals;
+    private final boolean windows;
+
+    private final int[][] cageCells;
+    private final int[] cageSums;
+
+    /**
+     * The combinations of distinct values adding up to the sum of each cage,
+     * as value masks with bit {@code v - 1} standing for the value {@code v}.
+     */
+    private final long[][] cageCombinations;
+
+    /**
+     * Constructs the variant of a standard sudoku of the given dimension.
+     *
+     * @param dimension the sudoku dimension.
+     * @throws IllegalArgumentException if the dimension is not the square of
+     *                                  a positive integer.
+     */
+    public SudokuVariant(int dimension) {
+        this.minisquareDimension = Sudoku.checkSquareDimension(dimension);
+        this.dimension = dimension;
+        this.regions = null;
+        this.diagonals = false;
+        this.windows = false;
+        this.cageCells = NO_CAGE_CELLS;
+        this.cageSums = new int[0];
+        this.cageCombinations = NO_CAGE_COMBINATIONS;
+    }
+
+    private SudokuVariant(SudokuVariant variant,
+                          int[] regions,
+                          boolean diagonals,
+                          boolean windows,
+                          int[][] cageCells,
+                          int[] cageSums,
+                          long[][] cageCombinations) {
+        this.dimension = variant.dimension;
+        this.minisquareDimension = variant.minisquareDimension;
+        this.regions = regions;
+        this.diagonals = diagonals;
+        this.windows = windows;
+        this.cageCells = cageCells;
+        this.cageSums = cageSums;
+        this.cageCombinations = cageCombinations;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public boolean hasDiagonals() {
+        return diagonals;
+    }
+
+    public boolean hasWindows() {
+        return windows;
+    }
+
+    /**
+     * Tells whether the regions are irregular rather than the minisquares.
+     *
+     * @return {@code true} for a jigsaw sudoku.
+     */
+    public boolean hasIrregularRegions() {
+        return regions != null;
+    }
+
+    public int getCageCount() {
+        return cageCells.length;
+    }
+
+    public int getCageSum(int cage) {
+        return cageSums[cage];
+    }
+
+    public int[] getCageCells(int cage) {
+        return cageCells[cage].clone();
+    }
+
+    /**
+     * Returns a variant adding the constraint that the values on each of the
+     * two main diagonals be distinct.
+     *
+     * @return the X-sudoku variant of this variant.
+     */
+    public SudokuVariant withDiagonals() {
+        return new SudokuVariant(this,
+                                 regions,
+                                 true,
+                                 windows,
+                                 cageCells,
+                                 cageSums,
+                                 cageCombinations);
+    }
+
+    /**
+     * Returns a variant adding the windoku windows: the squares of the size
+     * of a minisquare, one cell in from the minisquare corners, whose values
+     * must be distinct. A 9 by 9 sudoku has four of them, with their top left
+     * cells at (1, 1), (5, 1), (1, 5) and (5, 5).
+     *
+     * @return the windoku variant of this variant.
+     */
+    public SudokuVariant withWindows() {
+        return new SudokuVariant(this,
+                                 regions,
+                                 diagonals,
+                                 true,
+                                 cageCells,
+                                 cageSums,
+                                 cageCombinations);
+    }
+
+    /**
+     * Returns a variant replacing the minisquares with irregular regions.
+     *
+     * @param regions maps each cell to its region, within
+     *                {@code [0, dimension)}.
+     * @return the jigsaw variant of this variant.
+     * @throws IllegalArgumentException if the array does not have one entry
+     *                                  per cell, or if a region does not
+     *                                  have exactly {@code dimension} cells.
+     */
+    public SudokuVariant withRegions(int[] regions) {
+        Objects.requireNonNull(regions, "The region array is null.");
+        int cellCount = dimension * dimension;
+
+        if (regions.length != cellCount) {
+            throw new IllegalArgumentException(
+                    "The region array has " + regions.length + " entries, " +
+                    "while the sudoku has " + cellCount + " cells.");
+        }
+
+        int[] sizes = new int[dimension];
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int region = regions[cell];
+
+            if (region < 0 || region >= dimension) {
+                throw new IllegalArgumentException(
+                        "The region " + region + " of the cell " + cell +
+                        " is not within [0, " + dimension + ").");
+            }
+
+            ++sizes[region];
+        }
+
+        for (int region = 0; region < dimension; ++region) {
+            if (sizes[region] != dimension) {
+                throw new IllegalArgumentException(
+                        "The region " + region + " has " + sizes[region] +
+                        " cells instead of " + dimension + ".");
+            }
+        }
+
+        return new SudokuVariant(this,
+                                 regions.clone(),
+                                 diagonals,
+                                 windows,
+                                 cageCells,
+                                 cageSums,
+                                 cageCombinations);
+    }
+
+    /**
+     * Returns a variant adding a killer cage: the values of {@code cells}
+     * must be distinct and add up to {@code sum}. The cages may not overlap.
+     *
+     * @param sum   the sum of the cage.
+     * @param cells the cells of the cage.
+     * @return the variant with the cage added.
+     * @throws IllegalArgumentException if the dimension exceeds
+     *                                  {@value #MAXIMUM_CAGE_DIMENSION}, if
+     *                                  a cell is invalid, repeated or in
+     *                                  another cage, if no combination of
+     *                                  distinct values makes the sum, or if
+     *                                  there are too many of them.
+     */
+    public SudokuVariant withCage(int sum, int... cells) {
+        Objects.requireNonNull(cells, "The cell array is null.");
+
+        if (dimension > MAXIMUM_CAGE_DIMENSION) {
+            throw new IllegalArgumentException(
+                    "Cages need a dimension of at most " +
+                    MAXIMUM_CAGE_DIMENSION + ", not " + dimension + ".");
+        }
+
+        if (cells.length == 0 || cells.length > dimension) {
+            throw new IllegalArgumentException(
+                    "A cage has " + cells.length + " cells, while it must " +
+                    "have between 1 and " + dimension + ".");
+        }
+
+        boolean[] taken = new boolean[dimension * dimension];
+
+        for (int[] cage : cageCells) {
+            for (int cell : cage) {
+                taken[cell] = true;
+            }
+        }
+
+        for (int cell : cells) {
+            if (cell < 0 || cell >= taken.length) {
+                throw new IllegalArgumentException(
+                        "The cell " + cell + " is not within [0, " +
+                        taken.length + ").");
+            }
+
+            if (taken[cell]) {
+                throw new IllegalArgumentException(
+                        "The cell (x = " + cell % dimension + ", y = " +
+                        cell / dimension + ") is in two cages.");
+            }
+
+            taken[cell] = true;
+        }
+
+        long[] combinations = computeCombinations(cells.length, sum);
+
+        if (combinations.length == 0) {
+            throw new IllegalArgumentException(
+                    "No " + cells.length + " distinct values within [1, " +
+                    dimension + "] add up to " + sum + ".");
+        }
+
+        int cageCount = cageCells.length;
+        int[][] newCageCells = Arrays.copyOf(cageCells, cageCount + 1);
+        int[] newCageSums = Arrays.copyOf(cageSums, cageCount + 1);
+        long[][] newCageCombinations =
+                Arrays.copyOf(cageCombinations, cageCount + 1);
+        newCageCells[cageCount] = cells.clone();
+        newCageSums[cageCount] = sum;
+        newCageCombinations[cageCount] = combinations;
+        return new SudokuVariant(this,
+                                 regions,
+                                 diagonals,
+                                 windows,
+                                 newCageCells,
+                                 newCageSums,
+                                 newCageCombinations);
+    }
+
+    /**
+     * Tells whether {@code sudoku} is completely filled and obeys all the
+     * rules of this variant.
+     *
+     * @param sudoku the sudoku to check.
+     * @return {@code true} if the sudoku is a solution.
+     * @throws IllegalArgumentException if the dimension does not match.
+     */
+    public boolean isSolution(Sudoku sudoku) {
+        Objects.requireNonNull(sudoku, "The sudoku is null.");
+
+        if (sudoku.getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "The sudoku has dimension " + sudoku.getDimension() +
+                    ", while this variant expects " + dimension + ".");
+        }
+
+        int cellCount = dimension * dimension;
+
+        for (int cell = 0; cell < cellCount; ++cell) {
+            int value = sudoku.getAt(cell);
+
+            if (value < 1 || value > dimension) {
+                return false;
+            }
+        }
+
+        int[] unitCells = getUnitCells();
+        boolean[] seen = new boolean[dimension + 1];
+
+        for (int start = 0; start < unitCells.length; start += dimension) {
+            Arrays.fill(seen, false);
+
+            for (int i = start; i < start + dimension; ++i) {
+                int value = sudoku.getAt(unitCells[i]);
+
+                if (seen[value]) {
+                    return false;
+                }
+
+                seen[value] = true;
+            }
+        }
+
+        for (int cage = 0; cage < cageCells.length; ++cage) {
+            long values = 0L;
+            int sum = 0;
+
+            for (int cell : cageCells[cage]) {
+                int value = sudoku.getAt(cell);
+                values |= 1L << (value - 1);
+                sum += value;
+            }
+
+            if (sum != cageSums[cage]
+                    || Long.bitCount(values) != cageCells[cage].length) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    int getMinisquareDimension() {
+        return minisquareDimension;
+    }
+
+    /**
+     * Returns the number of units, the groups of {@code dimension} cells
+     * holding distinct values.
+     */
+    int getUnitCount() {
+        int units = 3 * dimension;
+
+        if (diagonals) {
+            units += 2;
+        }
+
+        if (windows) {
+            units += (minisquareDimension - 1) * (minisquareDimension - 1);
+        }
+
+        return units;
+    }
+
+    /**
+     * Lists the cells of each unit; those of the unit {@code u} are at the
+     * indices {@code u * dimension, ..., (u + 1) * dimension - 1}. The rows
+     * come first, then the columns, the regions, the diagonals and the
+     * windows.
+     */
+    int[] getUnitCells() {
+        int[] unitCells = new int[getUnitCount() * dimension];
+        int[] regionSizes = new int[dimension];
+
+        for (int y = 0; y < dimension; ++y) {
+            for (int x = 0; x < dimension; ++x) {
+                int cell = y * dimension + x;
+                int region;
+                int indexInRegion;
+
+                if (regions == null) {
+                    region = (y / minisquareDimension) * minisquareDimension
+                           + (x / minisquareDimension);
+                    indexInRegion = (y % minisquareDimension)
+                                  * minisquareDimension
+                                  + (x % minisquareDimension);
+                } else {
+                    region = regions[cell];
+                    indexInRegion = regionSizes[region]++;
+                }
+
+                unitCells[y * dimension + x] = cell;
+                unitCells[(dimension + x) * dimension + y] = cell;
+                unitCells[(2 * dimension + region) * dimension
+                          + indexInRegion] = cell;
+            }
+        }
+
+        int index = 3 * dimension * dimension;
+
+        if (diagonals) {
+            for (int i = 0; i < dimension; ++i) {
+                unitCells[index + i] = i * dimension + i;
+                unitCells[index + dimension + i] =
+                        i * dimension + dimension - 1 - i;
+            }
+
+            index += 2 * dimension;
+        }
+
+        if (windows) {
+            for (int top = 1;
+                    top + minisquareDimension < dimension;
+                    top += minisquareDimension + 1) {
+                for (int left = 1;
+                        left + minisquareDimension < dimension;
+                        left += minisquareDimension + 1) {
+                    for (int dy = 0; dy < minisquareDimension; ++dy) {
+                        for (int dx = 0; dx < minisquareDimension; ++dx) {
+                            unitCells[index++] = (top + dy) * dimension
+                                               + left + dx;
+                        }
+                    }
+                }
+            }
+        }
+
+        return unitCells;
+    }
+
+    /**
+     * Returns the name of the kind of the unit {@code unit} for the error
+     * messages.
+     */
+    String getUnitKind(int unit) {
+        switch (unit / dimension) {
+            case 0:
+                return "row";
+
+            case 1:
+                return "column";
+
+            case 2:
+                return regions == null ? "minisquare" : "region";
+
+            default:
+                return diagonals && unit < 3 * dimension + 2 ?
+                       "diagonal" :
+                       "window";
+        }
+    }
+
+    int[] getCageCellArray(int cage) {
+        return cageCells[cage];
+    }
+
+    long[] getCageCombinations(int cage) {
+        return cageCombinations[cage];
+    }
+
+    /**
+     * Tells whether the variant adds anything to the rows, the columns and
+     * the regions.
+     */
+    boolean hasExtraConstraints() {
+        return diagonals || windows || cageCells.length > 0;
+    }
+
+    // Lists the masks of all the sets of 'size' distinct values within
+    // [1, dimension] adding up to 'sum'.
+    private long[] computeCombinations(int size, int sum) {
+        CombinationCollector collector = new CombinationCollector(size, sum);
+        collector.collect(1, size, sum, 0L);
+        return Arrays.copyOf(collector.combinations, collector.count);
+    }
+
+    private final class CombinationCollector {
+
+        private final int size;
+        private final int sum;
+        long[] combinations = new long[16];
+        int count;
+
+        CombinationCollector(int size, int sum) {
+            this.size = size;
+            this.sum = sum;
+        }
+
+        // Adds the combinations made by extending 'mask' with 'remaining'
+        // values not smaller than 'first' adding up to 'remainingSum'.
+        void collect(int first, int remaining, int remainingSum, long mask) {
+            if (remaining == 0) {
+                if (remainingSum == 0) {
+                    add(mask);
+                }
+
+                return;
+            }
+
+            // The largest sum of 'remaining' distinct values.
+            int maximumSum = remaining * dimension
+                           - remaining * (remaining - 1) / 2;
+
+            if (remainingSum > maximumSum) {
+                return;
+            }
+
+            for (int value = first; value <= dimension; ++value) {
+                // The smallest sum starting from 'value'.
+                if (remaining * value + remaining * (remaining - 1) / 2
+                        > remainingSum) {
+                    break;
+                }
+
+                collect(value + 1,
+                        remaining - 1,
+                        remainingSum - value,
+                        mask | 1L << (value - 1));
+            }
+        }
+
+        private void add(long mask) {
+            if (count == MAXIMUM_CAGE_COMBINATIONS) {
+                throw new IllegalArgumentException(
+                        "A cage of " + size + " cells with the sum " + sum +
+                        " has more than " + MAXIMUM_CAGE_COMBINATIONS +
+                        " value combinations.");
+            }
+
+            if (count == combinations.length) {
+                combinations = Arrays.copyOf(combinations, 2 * count);
+            }
+
+            combinations[count++] = mask;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package net.coderodde.sudoku;
+
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class SudokuGeneratorTest {
+
+    @Test(timeout = 120_000L)
+    public void generatesHard25x25PuzzleWithinTheNodeBounds() {
+        try (SudokuGenerator generator = new SudokuGenerator(25, 1)) {
+            List<Sudoku> puzzles =
+                    generator.generate(1, SudokuGenerator.Difficulty.HARD, 3L);
+
+            assertEquals(1, puzzles.size());
+            assertEquals(SudokuGenerator.Difficulty.HARD,
+                         generator.rate(puzzles.get(0)));
+        }
+    }
+}
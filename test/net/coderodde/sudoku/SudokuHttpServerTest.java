@@ -0,0 +1,142 @@
+package net.coderodde.sudoku;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class SudokuHttpServerTest {
+
+    private static final String PUZZLE =
+            "53..7....6..195....98....6.8...6...34..8.3..17...2...6" +
+            ".6....28....419..5....8..79";
+
+    private static final String SOLUTION =
+            "534678912672195348198342567859761423426853791713924856" +
+            "961537284287419635345286179";
+
+    @Test(timeout = 10_000L)
+    public void rejectsNonSquareDimensionAndKeepsServing() throws Exception {
+        SudokuHttpServer server = new SudokuHttpServer(0, 1);
+        server.start();
+
+        try {
+            // Lines of length 4 would be sudokus of dimension 2.
+            assertEquals(400, post(server, "12..\n").status);
+            assertEquals(400, post(server, "12..\n").status);
+
+            Response response = post(server, PUZZLE + "\n");
+            assertEquals(200, response.status);
+            assertEquals(SOLUTION + "\n", response.body);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test(timeout = 10_000L)
+    public void answersFailedSolveWith500AndKeepsServing() throws Exception {
+        SudokuHttpServer server = new SudokuHttpServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                1,
+                0L,
+                dimension -> {
+                    if (dimension == 4) {
+                        throw new IllegalStateException("No 4x4 engine.");
+                    }
+
+                    return SudokuEngine.forDimension(dimension);
+                });
+        server.start();
+
+        try {
+            Response response = post(server, "1...............\n");
+            assertEquals(500, response.status);
+            assertTrue(response.body.contains("No 4x4 engine."));
+
+            response = post(server, PUZZLE + "\n");
+            assertEquals(200, response.status);
+            assertEquals(SOLUTION + "\n", response.body);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test(timeout = 10_000L)
+    public void keepsOneEnginePerDimension() throws Exception {
+        AtomicInteger engineCount = new AtomicInteger();
+        SudokuHttpServer server = new SudokuHttpServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                1,
+                0L,
+                dimension -> {
+                    engineCount.incrementAndGet();
+                    return SudokuEngine.forDimension(dimension);
+                });
+        server.start();
+
+        try {
+            for (int i = 0; i < 3; ++i) {
+                assertEquals(200, post(server, "1...............\n").status);
+                assertEquals(200, post(server, PUZZLE + "\n").status);
+            }
+
+            assertEquals(2, engineCount.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static Response post(SudokuHttpServer server, String body)
+            throws IOException {
+        URL url = new URL("http://127.0.0.1:" +
+                          server.getAddress().getPort() + "/solve");
+        HttpURLConnection connection =
+                (HttpURLConnection) url.openConnection();
+        connection.setDoOutput(true);
+        connection.setReadTimeout(5_000);
+
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ?
+                         connection.getInputStream() :
+                         connection.getErrorStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] chunk = new byte[4096];
+
+                for (int read; (read = stream.read(chunk)) >= 0;) {
+                    bytes.write(chunk, 0, read);
+                }
+            }
+        }
+
+        return new Response(status,
+                            new String(bytes.toByteArray(),
+                                       StandardCharsets.UTF_8));
+    }
+
+    private static final class Response {
+
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
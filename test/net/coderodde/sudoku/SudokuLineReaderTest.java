@@ -0,0 +1,52 @@
+package net.coderodde.sudoku;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class SudokuLineReaderTest {
+
+    private static final String PUZZLE =
+            "53..7....6..195....98....6.8...6...34..8.3..17...2...6" +
+            ".6....28....419..5....8..79";
+
+    @Test
+    public void trimsTrailingWhitespace() throws IOException {
+        Sudoku sudoku = new Sudoku(9);
+
+        try (SudokuLineReader reader = reader(ascii(PUZZLE + " \t\r\n"))) {
+            assertTrue(reader.next(sudoku));
+            assertEquals(5, sudoku.getAt(0));
+            assertFalse(reader.next(sudoku));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void keepsTrailingNonAsciiBytes() throws IOException {
+        ByteArrayOutputStream input = new ByteArrayOutputStream();
+        input.write(ascii(PUZZLE), 0, PUZZLE.length());
+        input.write(0xC3);
+        input.write(0xA9);
+        input.write('\n');
+
+        try (SudokuLineReader reader = reader(input.toByteArray())) {
+            reader.next(new Sudoku(9));
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static SudokuLineReader reader(byte[] input) {
+        return new SudokuLineReader(
+                Channels.newChannel(new ByteArrayInputStream(input)),
+                SudokuLineFormat.STANDARD);
+    }
+}
@@ -0,0 +1,71 @@
+package net.coderodde.sudoku;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class SudokuStreamSolverTest {
+
+    private static final String PUZZLE =
+            "53..7....6..195....98....6.8...6...34..8.3..17...2...6" +
+            ".6....28....419..5....8..79";
+
+    private static final String SOLUTION =
+            "534678912672195348198342567859761423426853791713924856" +
+            "961537284287419635345286179";
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonSquareDimension() {
+        new SudokuStreamSolver(10, 2);
+    }
+
+    @Test(timeout = 10_000L)
+    public void solvesInInputOrder() throws Exception {
+        String input = PUZZLE + "\n" + PUZZLE + "\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SudokuStreamSolver solver = new SudokuStreamSolver(9, 2);
+
+        assertEquals(2L, solve(solver, input, output));
+        assertEquals(SOLUTION + "\n" + SOLUTION + "\n",
+                     new String(output.toByteArray(),
+                                StandardCharsets.US_ASCII));
+    }
+
+    @Test(timeout = 10_000L)
+    public void failsInsteadOfHangingWhenSolvingThrows() throws Exception {
+        SudokuStreamSolver solver = new SudokuStreamSolver(
+                9,
+                2,
+                8,
+                dimension -> {
+                    throw new IllegalStateException("No engine.");
+                });
+
+        try {
+            solve(solver, PUZZLE + "\n" + PUZZLE + "\n",
+                  new ByteArrayOutputStream());
+            fail("The failure of the workers was not reported.");
+        } catch (IllegalStateException ex) {
+            assertEquals("No engine.", ex.getMessage());
+        }
+    }
+
+    private static long solve(SudokuStreamSolver solver,
+                              String input,
+                              ByteArrayOutputStream output)
+            throws Exception {
+        try (SudokuLineReader reader = new SudokuLineReader(
+                     Channels.newChannel(new ByteArrayInputStream(
+                             input.getBytes(StandardCharsets.US_ASCII))),
+                     SudokuLineFormat.STANDARD);
+             SudokuLineWriter writer = new SudokuLineWriter(
+                     Channels.newChannel(output),
+                     SudokuLineFormat.STANDARD)) {
+            return solver.solve(reader, writer);
+        }
+    }
+}